@@ -0,0 +1,200 @@
+package com.xc.common.util.benchmark;
+
+import org.apache.poi.ss.util.CellRangeAddress;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * @author Jq
+ * @Title BenchmarkData
+ * @Description 基准测试数据：三种导出布局与按需生成的数据行，行对象在迭代间复用，-prof gc统计的分配只来自导入导出本身
+ * @date 2026/10/19 00:26:12
+ */
+public final class BenchmarkData {
+
+    private static final long BASE_TIME = 1600000000000L;
+
+    /**
+     * 导出布局
+     */
+    public enum Layout {
+        /**
+         * 平铺的基本字段
+         */
+        FLAT,
+        /**
+         * 含List字段，元素平铺在同一行
+         */
+        NESTED_LIST,
+        /**
+         * 平铺字段 + 合并标题 + 额外合并单元格
+         */
+        TITLED
+    }
+
+    public static final String[] FLAT_HEADERS = {"订单号", "客户", "数量", "金额", "单价", "下单时间", "备注"};
+
+    public static final String[] NESTED_HEADERS = {"订单号", "客户", "下单时间",
+            "商品1", "数量1", "商品2", "数量2", "商品3", "数量3", "备注"};
+
+    public static final String TITLE = "订单明细";
+
+    private BenchmarkData() {
+
+    }
+
+    public static String[] headers(final Layout layout) {
+        return layout == Layout.NESTED_LIST ? NESTED_HEADERS : FLAT_HEADERS;
+    }
+
+    public static String title(final Layout layout) {
+        return layout == Layout.TITLED ? TITLE : null;
+    }
+
+    /**
+     * 标题行之外再合并表头中"数量"与"金额"两格
+     */
+    public static List<CellRangeAddress> merges(final Layout layout) {
+        return layout == Layout.TITLED
+                ? Collections.singletonList(new CellRangeAddress(1, 1, 2, 3))
+                : Collections.emptyList();
+    }
+
+    public static Iterator<?> rows(final Layout layout, final int rows) {
+        return layout == Layout.NESTED_LIST ? new NestedRows(rows) : new FlatRows(rows);
+    }
+
+    /**
+     * 字段顺序与FLAT_HEADERS一致，导入基准按该类绑定
+     */
+    public static class FlatRow {
+
+        private String orderNo;
+
+        private String customer;
+
+        private int quantity;
+
+        private long amount;
+
+        private Double price;
+
+        private Date createTime;
+
+        private String remark;
+
+        void fill(final int i) {
+            orderNo = "SO" + (10000000 + i);
+            customer = "客户-" + (i % 5000);
+            quantity = i % 97;
+            amount = i * 100L;
+            price = (i % 1000) / 7.0;
+            createTime = new Date(BASE_TIME + i * 1000L);
+            remark = (i & 7) == 0 ? null : "remark-" + (i % 31);
+        }
+    }
+
+    public static class Item {
+
+        private String sku;
+
+        private int quantity;
+
+        Item() {
+
+        }
+    }
+
+    public static class NestedRow {
+
+        private String orderNo;
+
+        private String customer;
+
+        private Date createTime;
+
+        private List<Item> items;
+
+        private String remark;
+
+        /**
+         * 导出会写出全部声明字段，复用的元素由迭代器持有
+         */
+        void fill(final int i, final List<Item> buffer) {
+            orderNo = "SO" + (10000000 + i);
+            customer = "客户-" + (i % 5000);
+            createTime = new Date(BASE_TIME + i * 1000L);
+            final int size = i % 4;
+            for (int k = 0; k < size; k++) {
+                final Item item = buffer.get(k);
+                item.sku = "SKU-" + ((i + k) % 20000);
+                item.quantity = k + 1;
+            }
+            items = size == 0 ? null : buffer.subList(0, size);
+            remark = "remark-" + (i % 31);
+        }
+    }
+
+    private abstract static class ReusingIterator<T> implements Iterator<T> {
+
+        private final int rows;
+
+        private int next;
+
+        ReusingIterator(final int rows) {
+            this.rows = rows;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next < rows;
+        }
+
+        @Override
+        public T next() {
+            if (next >= rows) {
+                throw new NoSuchElementException();
+            }
+            return fill(next++);
+        }
+
+        abstract T fill(int i);
+    }
+
+    private static final class FlatRows extends ReusingIterator<FlatRow> {
+
+        private final FlatRow row = new FlatRow();
+
+        private FlatRows(final int rows) {
+            super(rows);
+        }
+
+        @Override
+        FlatRow fill(final int i) {
+            row.fill(i);
+            return row;
+        }
+    }
+
+    private static final class NestedRows extends ReusingIterator<NestedRow> {
+
+        private final NestedRow row = new NestedRow();
+
+        private final List<Item> items = Arrays.asList(new Item(), new Item(), new Item());
+
+        private NestedRows(final int rows) {
+            super(rows);
+        }
+
+        @Override
+        NestedRow fill(final int i) {
+            row.fill(i, items);
+            return row;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.xc.common.util.benchmark;
+
+import com.xc.common.util.AdmissionController;
+import com.xc.common.util.CsvOptions;
+import com.xc.common.util.ExcelUtil;
+import com.xc.common.util.test.InMemoryHttpServletResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author Jq
+ * @Title CsvExportBenchmark
+ * @Description exportCsv的基准：行数与布局同ExportBenchmark(标题不适用于csv)，分别测不压缩与gzip，可与xlsx导出直接对比
+ * @date 2026/10/19 15:02:18
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class CsvExportBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    private int rows;
+
+    @Param({"FLAT", "NESTED_LIST"})
+    private BenchmarkData.Layout layout;
+
+    @Param({"false", "true"})
+    private boolean gzip;
+
+    private CsvOptions options;
+
+    @Setup
+    public void setUp() {
+        ExcelUtil.setAdmissionController(AdmissionController.unlimited());
+        options = CsvOptions.builder().gzip(gzip).build();
+    }
+
+    /**
+     * @return 输出的字节数，交给JMH消费
+     */
+    @Benchmark
+    public long exportCsv() {
+        final InMemoryHttpServletResponse response = new InMemoryHttpServletResponse();
+        ExcelUtil.exportCsv("benchmark", BenchmarkData.headers(layout), BenchmarkData.rows(layout, rows), response, options);
+        if (response.getBytesWritten() == 0) {
+            throw new IllegalStateException("Export produced no output");
+        }
+        return response.getBytesWritten();
+    }
+}
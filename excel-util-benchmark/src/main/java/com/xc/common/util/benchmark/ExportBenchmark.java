@@ -0,0 +1,67 @@
+package com.xc.common.util.benchmark;
+
+import com.xc.common.util.AdmissionController;
+import com.xc.common.util.ExcelUtil;
+import com.xc.common.util.ExportEngine;
+import com.xc.common.util.ExportOptions;
+import com.xc.common.util.test.InMemoryHttpServletResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author Jq
+ * @Title ExportBenchmark
+ * @Description export(createSheet/setData/dataSet)的基准：10k/100k/1M行 x 平铺/List字段/标题合并三种布局 x SXSSF/DIRECT引擎，输出丢弃只计字节数
+ * @date 2026/10/19 00:34:50
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class ExportBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    private int rows;
+
+    @Param({"FLAT", "NESTED_LIST", "TITLED"})
+    private BenchmarkData.Layout layout;
+
+    @Param({"SXSSF", "DIRECT"})
+    private ExportEngine engine;
+
+    private ExportOptions options;
+
+    @Setup
+    public void setUp() {
+        //只测量导出本身，不受准入排队影响
+        ExcelUtil.setAdmissionController(AdmissionController.unlimited());
+        options = ExportOptions.builder().engine(engine).build();
+    }
+
+    /**
+     * @return 输出的字节数，交给JMH消费
+     */
+    @Benchmark
+    public long export() {
+        final InMemoryHttpServletResponse response = new InMemoryHttpServletResponse();
+        ExcelUtil.export("benchmark", BenchmarkData.headers(layout), BenchmarkData.rows(layout, rows), "Sheet1", response,
+                BenchmarkData.title(layout), BenchmarkData.merges(layout), options);
+        if (response.getBytesWritten() == 0) {
+            throw new IllegalStateException("Export produced no output");
+        }
+        return response.getBytesWritten();
+    }
+}
@@ -0,0 +1,79 @@
+package com.xc.common.util.benchmark;
+
+import com.xc.common.util.AdmissionController;
+import com.xc.common.util.ExcelUtil;
+import com.xc.common.util.ExportOptions;
+import com.xc.common.util.test.InMemoryHttpServletResponse;
+import com.xc.common.util.test.InMemoryMultipartFile;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author Jq
+ * @Title ImportBenchmark
+ * @Description 导入基准：先用export生成10k/100k/1M行的平铺xlsx，再分别按readExcel(XSSFWorkbook整体加载，doRead/getCellValue)与readExcelBySax读取
+ * @date 2026/10/19 00:41:27
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms6g", "-Xmx6g"})
+public class ImportBenchmark {
+
+    /**
+     * 读取方式
+     */
+    public enum Reader {
+        /**
+         * readExcel，整体加载XSSFWorkbook，1M行需要数GB堆
+         */
+        WORKBOOK,
+        /**
+         * readExcelBySax，SAX逐行解析
+         */
+        SAX
+    }
+
+    @Param({"10000", "100000", "1000000"})
+    private int rows;
+
+    @Param({"WORKBOOK", "SAX"})
+    private Reader reader;
+
+    private InMemoryMultipartFile file;
+
+    @Setup
+    public void setUp() {
+        ExcelUtil.setAdmissionController(AdmissionController.unlimited());
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ExcelUtil.export("benchmark", BenchmarkData.FLAT_HEADERS, BenchmarkData.rows(BenchmarkData.Layout.FLAT, rows), "Sheet1",
+                new InMemoryHttpServletResponse(out), null, null, ExportOptions.defaults());
+        file = new InMemoryMultipartFile("benchmark-" + rows + ".xlsx", out.toByteArray());
+    }
+
+    @Benchmark
+    public List<BenchmarkData.FlatRow> read() {
+        final List<BenchmarkData.FlatRow> list = reader == Reader.WORKBOOK
+                ? ExcelUtil.readExcel(file, BenchmarkData.FlatRow.class)
+                : ExcelUtil.readExcelBySax(file, BenchmarkData.FlatRow.class);
+        if (list.size() != rows) {
+            throw new IllegalStateException("Expected " + rows + " rows but read " + list.size());
+        }
+        return list;
+    }
+}
@@ -0,0 +1,324 @@
+package com.xc.common.util.test;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * @author Jq
+ * @Title InMemoryHttpServletResponse
+ * @Description 单元测试与基准测试共用的HttpServletResponse桩：记录状态与响应头，输出写入指定流(默认丢弃)并统计字节数
+ * @date 2026/10/19 00:18:05
+ */
+public final class InMemoryHttpServletResponse implements HttpServletResponse {
+
+    private final Map<String, List<String>> headers = new LinkedHashMap<>();
+
+    private final CountingServletOutputStream outputStream;
+
+    private PrintWriter writer;
+
+    private int status = SC_OK;
+
+    private String contentType;
+
+    private String characterEncoding = StandardCharsets.ISO_8859_1.name();
+
+    private long contentLength = -1;
+
+    private Locale locale = Locale.getDefault();
+
+    private int bufferSize;
+
+    private boolean committed;
+
+    /**
+     * 输出直接丢弃，只统计字节数
+     */
+    public InMemoryHttpServletResponse() {
+        this(null);
+    }
+
+    /**
+     * @param target 输出写入的流，为空时丢弃
+     */
+    public InMemoryHttpServletResponse(final OutputStream target) {
+        this.outputStream = new CountingServletOutputStream(target);
+    }
+
+    public long getBytesWritten() {
+        return outputStream.count;
+    }
+
+    public long getContentLength() {
+        return contentLength;
+    }
+
+    @Override
+    public void addCookie(final Cookie cookie) {
+        addHeader("Set-Cookie", cookie.getName() + "=" + cookie.getValue());
+    }
+
+    @Override
+    public boolean containsHeader(final String name) {
+        return headers.containsKey(name);
+    }
+
+    @Override
+    public String encodeURL(final String url) {
+        return url;
+    }
+
+    @Override
+    public String encodeRedirectURL(final String url) {
+        return url;
+    }
+
+    @Override
+    @Deprecated
+    public String encodeUrl(final String url) {
+        return url;
+    }
+
+    @Override
+    @Deprecated
+    public String encodeRedirectUrl(final String url) {
+        return url;
+    }
+
+    @Override
+    public void sendError(final int sc, final String msg) {
+        sendError(sc);
+    }
+
+    @Override
+    public void sendError(final int sc) {
+        status = sc;
+        committed = true;
+    }
+
+    @Override
+    public void sendRedirect(final String location) {
+        status = SC_FOUND;
+        setHeader("Location", location);
+        committed = true;
+    }
+
+    @Override
+    public void setDateHeader(final String name, final long date) {
+        setHeader(name, Long.toString(date));
+    }
+
+    @Override
+    public void addDateHeader(final String name, final long date) {
+        addHeader(name, Long.toString(date));
+    }
+
+    @Override
+    public void setHeader(final String name, final String value) {
+        final List<String> values = new ArrayList<>(1);
+        values.add(value);
+        headers.put(name, values);
+    }
+
+    @Override
+    public void addHeader(final String name, final String value) {
+        headers.computeIfAbsent(name, k -> new ArrayList<>(1)).add(value);
+    }
+
+    @Override
+    public void setIntHeader(final String name, final int value) {
+        setHeader(name, Integer.toString(value));
+    }
+
+    @Override
+    public void addIntHeader(final String name, final int value) {
+        addHeader(name, Integer.toString(value));
+    }
+
+    @Override
+    public void setStatus(final int sc) {
+        status = sc;
+    }
+
+    @Override
+    @Deprecated
+    public void setStatus(final int sc, final String sm) {
+        status = sc;
+    }
+
+    @Override
+    public int getStatus() {
+        return status;
+    }
+
+    @Override
+    public String getHeader(final String name) {
+        final List<String> values = headers.get(name);
+        return values == null || values.isEmpty() ? null : values.get(0);
+    }
+
+    @Override
+    public Collection<String> getHeaders(final String name) {
+        final List<String> values = headers.get(name);
+        return values == null ? Collections.emptyList() : Collections.unmodifiableList(values);
+    }
+
+    @Override
+    public Collection<String> getHeaderNames() {
+        return Collections.unmodifiableSet(headers.keySet());
+    }
+
+    @Override
+    public String getCharacterEncoding() {
+        return characterEncoding;
+    }
+
+    @Override
+    public String getContentType() {
+        return contentType;
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() {
+        committed = true;
+        return outputStream;
+    }
+
+    @Override
+    public PrintWriter getWriter() {
+        if (writer == null) {
+            writer = new PrintWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        }
+        committed = true;
+        return writer;
+    }
+
+    @Override
+    public void setCharacterEncoding(final String charset) {
+        characterEncoding = charset;
+    }
+
+    @Override
+    public void setContentLength(final int len) {
+        contentLength = len;
+    }
+
+    @Override
+    public void setContentLengthLong(final long len) {
+        contentLength = len;
+    }
+
+    @Override
+    public void setContentType(final String type) {
+        contentType = type;
+    }
+
+    @Override
+    public void setBufferSize(final int size) {
+        bufferSize = size;
+    }
+
+    @Override
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        outputStream.flush();
+        committed = true;
+    }
+
+    @Override
+    public void resetBuffer() {
+        //输出不缓冲，无内容可重置
+    }
+
+    @Override
+    public boolean isCommitted() {
+        return committed;
+    }
+
+    @Override
+    public void reset() {
+        headers.clear();
+        status = SC_OK;
+        contentType = null;
+        contentLength = -1;
+    }
+
+    @Override
+    public void setLocale(final Locale loc) {
+        locale = loc;
+    }
+
+    @Override
+    public Locale getLocale() {
+        return locale;
+    }
+
+    private static final class CountingServletOutputStream extends ServletOutputStream {
+
+        private final OutputStream target;
+
+        private long count;
+
+        private CountingServletOutputStream(final OutputStream target) {
+            this.target = target;
+        }
+
+        @Override
+        public void write(final int b) throws IOException {
+            count++;
+            if (target != null) {
+                target.write(b);
+            }
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) throws IOException {
+            count += len;
+            if (target != null) {
+                target.write(b, off, len);
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (target != null) {
+                target.flush();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (target != null) {
+                target.close();
+            }
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setWriteListener(final WriteListener writeListener) {
+            //同步输出，不需要监听
+        }
+    }
+}
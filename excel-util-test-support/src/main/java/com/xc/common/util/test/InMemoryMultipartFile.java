@@ -0,0 +1,67 @@
+package com.xc.common.util.test;
+
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+
+/**
+ * @author Jq
+ * @Title InMemoryMultipartFile
+ * @Description 单元测试与基准测试共用的MultipartFile桩，文件内容保存在内存中，可重复读取
+ * @date 2026/10/19 00:21:40
+ */
+public final class InMemoryMultipartFile implements MultipartFile {
+
+    private final String name;
+
+    private final byte[] content;
+
+    public InMemoryMultipartFile(final String name, final byte[] content) {
+        this.name = name;
+        this.content = content;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String getOriginalFilename() {
+        return name;
+    }
+
+    @Override
+    public String getContentType() {
+        return "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet";
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return content.length == 0;
+    }
+
+    @Override
+    public long getSize() {
+        return content.length;
+    }
+
+    @Override
+    public byte[] getBytes() {
+        return content.clone();
+    }
+
+    @Override
+    public InputStream getInputStream() {
+        return new ByteArrayInputStream(content);
+    }
+
+    @Override
+    public void transferTo(final File dest) throws IOException {
+        Files.write(dest.toPath(), content);
+    }
+}
@@ -0,0 +1,469 @@
+package com.xc.common.util;
+
+import org.apache.commons.collections4.iterators.PeekingIterator;
+import org.apache.poi.ss.usermodel.DateUtil;
+
+import java.nio.charset.Charset;
+import java.text.DateFormat;
+import java.text.SimpleDateFormat;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAccessor;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+import java.util.Iterator;
+
+/**
+ * @author Jq
+ * @Title AbstractRowWriter
+ * @Description 与输出引擎无关的行渲染：按导出计划遍历字段、平铺集合、计算列宽，具体单元格由子类输出
+ * @date 2026/10/18 15:11:26
+ */
+abstract class AbstractRowWriter {
+
+    static final int MAX_COLUMN_WIDTH = 20000;
+
+    private static final int UNKNOWN_WIDTH = -1;
+
+    /**
+     * yyyy-mm-dd hh:mm:ss
+     */
+    private static final int DATE_TIME_LENGTH = 19;
+
+    /**
+     * yyyy-mm-dd
+     */
+    private static final int DATE_LENGTH = 10;
+
+    /**
+     * 常规格式下数字最多显示的字符数
+     */
+    private static final int NUMBER_MAX_LENGTH = 12;
+
+    private static final int NUMBER_FRACTION_LENGTH = 7;
+
+    /**
+     * 默认字符集下单个字符最多占用的字节数，用于跳过不必要的getBytes
+     */
+    private static final int MAX_BYTES_PER_CHAR = (int) Math.ceil(Charset.defaultCharset().newEncoder().maxBytesPerChar());
+
+    /**
+     * 是否有加粗文本样式，有标题时才有
+     */
+    private final boolean hasSpecialStyle;
+
+    /**
+     * 当前列宽(字符数)缓存，避免逐格读取列宽
+     */
+    private int[] columnWidths = new int[16];
+
+    /**
+     * writer只在单线程中使用，日期格式复用同一实例
+     */
+    private final DateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+
+    private Class<?> lastClass;
+
+    private ExportPlan lastPlan;
+
+    /**
+     * 下一条数据所在行号
+     */
+    private int nextRowNum;
+
+    /**
+     * 数字与日期按原生单元格类型输出
+     */
+    private final boolean typedCells;
+
+    /**
+     * 集合字段的元素各占一行，其余字段纵向合并
+     */
+    private final boolean expandRows;
+
+    /**
+     * 展开时各集合字段的元素迭代器，按列下标复用
+     */
+    private Iterator<?>[] expanding = new Iterator<?>[0];
+
+    AbstractRowWriter(final boolean hasSpecialStyle, final int firstRowNum, final boolean typedCells, final boolean expandRows) {
+        this.hasSpecialStyle = hasSpecialStyle;
+        this.nextRowNum = firstRowNum;
+        this.typedCells = typedCells;
+        this.expandRows = expandRows;
+        Arrays.fill(columnWidths, UNKNOWN_WIDTH);
+    }
+
+    /**
+     * 开始一行数据
+     */
+    protected abstract void startRow(int rowNum);
+
+    /**
+     * 结束当前行
+     */
+    protected abstract void endRow();
+
+    /**
+     * 空值单元格，只带文本样式
+     */
+    protected abstract void blankCell(int cellnum);
+
+    /**
+     * 文本单元格
+     *
+     * @param special 是否使用加粗文本样式
+     */
+    protected abstract void stringCell(int cellnum, String value, boolean special);
+
+    /**
+     * 数字单元格
+     */
+    protected abstract void numericCell(int cellnum, double value);
+
+    /**
+     * 日期单元格
+     *
+     * @param serial   excel日期序列值
+     * @param dateOnly 是否只有日期部分
+     */
+    protected abstract void dateCell(int cellnum, double serial, boolean dateOnly);
+
+    /**
+     * 未调整过的列宽(字符数)
+     */
+    protected abstract int initialColumnWidth(int cellnum);
+
+    /**
+     * 列宽变化
+     *
+     * @param width 以1/256字符为单位
+     */
+    protected abstract void setColumnWidth(int cellnum, int width);
+
+    /**
+     * 纵向合并同一列的多行
+     */
+    protected abstract void mergeRows(int firstRow, int lastRow, int cellnum);
+
+    /**
+     * @return 写出的数据条数(展开为多行时按数据计)
+     */
+    long writeRows(final Iterator<?> dataList) {
+        long count = 0;
+        while (dataList.hasNext()) {
+            writeRow(dataList.next());
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * 写到行号lastRowNum为止，放不下的数据(展开为多行时按整条数据判断)留在迭代器中，由调用方续写到下一个sheet
+     *
+     * @return 写出的数据条数
+     */
+    long writeRows(final PeekingIterator<?> dataList, final int lastRowNum) {
+        long count = 0;
+        while (dataList.hasNext() && nextRowNum + rowSpan(dataList.peek()) - 1 <= lastRowNum) {
+            writeRow(dataList.next());
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * 一条数据占用的行数，只有展开集合时大于1
+     */
+    private int rowSpan(final Object data) {
+        final ExportPlan plan = planOf(data);
+        if (!expandRows || !plan.hasExpandableColumns()) {
+            return 1;
+        }
+        int rows = 1;
+        for (final ExportPlan.Column column : plan.getColumns()) {
+            if (column.isExpandable()) {
+                final Collection<?> elements = (Collection<?>) column.get(data);
+                if (elements != null) {
+                    rows = Math.max(rows, elements.size());
+                }
+            }
+        }
+        return rows;
+    }
+
+    void writeRow(final Object data) {
+        final ExportPlan plan = planOf(data);
+        if (expandRows && plan.hasExpandableColumns()) {
+            writeExpanded(plan, data);
+            return;
+        }
+        startRow(nextRowNum++);
+        write(plan, data, 0);
+        endRow();
+    }
+
+    /**
+     * 按预先计算的列布局一次写出：行数为最长集合的元素数，第i行写各集合的第i个元素，其余字段只写首行并纵向合并
+     */
+    private void writeExpanded(final ExportPlan plan, final Object data) {
+        final ExportPlan.Column[] columns = plan.getColumns();
+        final int[] offsets = plan.expandedOffsets();
+        if (expanding.length < columns.length) {
+            expanding = new Iterator<?>[columns.length];
+        }
+        int rows = 1;
+        for (int i = 0; i < columns.length; i++) {
+            expanding[i] = null;
+            if (columns[i].isExpandable()) {
+                final Collection<?> elements = (Collection<?>) columns[i].get(data);
+                if (elements != null) {
+                    rows = Math.max(rows, elements.size());
+                    expanding[i] = elements.iterator();
+                }
+            }
+        }
+        final int firstRow = nextRowNum;
+        for (int k = 0; k < rows; k++) {
+            startRow(nextRowNum++);
+            int end = 0;
+            for (int i = 0; i < columns.length; i++) {
+                final ExportPlan.Column column = columns[i];
+                for (; end < offsets[i]; end++) {
+                    blankCell(end);
+                }
+                end = offsets[i] + 1;
+                if (!column.isExpandable()) {
+                    if (k == 0) {
+                        writeColumn(column, data, offsets[i], false);
+                    } else {
+                        blankCell(offsets[i]);
+                    }
+                    continue;
+                }
+                final ExportPlan elementPlan = column.elementPlan(column.getElementClass());
+                end = offsets[i] + elementPlan.width();
+                final Iterator<?> elements = expanding[i];
+                final Object element = elements != null && elements.hasNext() ? elements.next() : null;
+                if (element == null) {
+                    for (int cellnum = offsets[i]; cellnum < end; cellnum++) {
+                        blankCell(cellnum);
+                    }
+                    continue;
+                }
+                int cellnum = offsets[i];
+                for (final ExportPlan.Column elementColumn : elementPlan.getColumns()) {
+                    cellnum = writeColumn(elementColumn, element, skipTo(elementColumn, offsets[i], cellnum), false);
+                }
+            }
+            endRow();
+        }
+        Arrays.fill(expanding, 0, columns.length, null);
+        if (rows > 1) {
+            for (int i = 0; i < columns.length; i++) {
+                if (!columns[i].isExpandable()) {
+                    mergeRows(firstRow, nextRowNum - 1, offsets[i]);
+                }
+            }
+        }
+    }
+
+    private ExportPlan planOf(final Object data) {
+        final Class<?> cls = data.getClass();
+        if (cls != lastClass) {
+            lastPlan = ExportPlan.of(cls);
+            lastClass = cls;
+        }
+        return lastPlan;
+    }
+
+    /**
+     * @return 写完后下一个可用的列号
+     */
+    private int write(final ExportPlan plan, final Object data, final int start) {
+        int cellnum = start;
+        for (final ExportPlan.Column column : plan.getColumns()) {
+            cellnum = writeColumn(column, data, skipTo(column, start, cellnum), true);
+        }
+        return cellnum;
+    }
+
+    /**
+     * 指定列号的列写在起始列加列号处，跳过的列留空；前面平铺的集合已越过该列时紧接其后
+     *
+     * @return 该列实际写入的列号
+     */
+    private int skipTo(final ExportPlan.Column column, final int start, int cellnum) {
+        for (final int target = start + column.getIndex(); cellnum < target; cellnum++) {
+            blankCell(cellnum);
+        }
+        return cellnum;
+    }
+
+    /**
+     * @param flatten 集合按元素平铺到后续列，否则整体按文本写入一格
+     * @return 写完后下一个可用的列号
+     */
+    private int writeColumn(final ExportPlan.Column column, final Object data, final int cellnum, final boolean flatten) {
+        final ExportPlan.TypedKind typedKind = typedCells ? column.getTypedKind() : ExportPlan.TypedKind.LEGACY;
+        if (typedKind == ExportPlan.TypedKind.PRIMITIVE_NUMBER) {
+            numberSet(column.getDouble(data), cellnum);
+            return cellnum + 1;
+        }
+        final Object val = column.get(data);
+        if (val == null) {
+            blankCell(cellnum);
+            return cellnum + 1;
+        }
+        if (typedKind != ExportPlan.TypedKind.LEGACY) {
+            typedSet(typedKind, val, cellnum);
+            return cellnum + 1;
+        }
+        if (column.getFormatter() != null && formatSet(column.getFormatter(), val, cellnum)) {
+            return cellnum + 1;
+        }
+        switch (column.getType()) {
+            case TEXT:
+                textSet(val, cellnum);
+                break;
+            case DATE:
+                stringCell(cellnum, dateFormat.format((Date) val), false);
+                break;
+            case COLLECTION:
+                if (!flatten) {
+                    stringCell(cellnum, val.toString(), false);
+                    break;
+                }
+                //适用于list平铺模板，元素类型的导出计划已在列上预先解析
+                int next = cellnum;
+                for (final Object o : (Collection<?>) val) {
+                    next = write(column.elementPlan(o.getClass()), o, next);
+                }
+                return next;
+            default:
+                stringCell(cellnum, val.toString(), false);
+                break;
+        }
+        return cellnum + 1;
+    }
+
+    private void typedSet(final ExportPlan.TypedKind typedKind, final Object val, final int cellnum) {
+        switch (typedKind) {
+            case NUMBER:
+                numberSet(((Number) val).doubleValue(), cellnum);
+                break;
+            case DATE:
+                adjustWidth(cellnum, DATE_TIME_LENGTH);
+                dateCell(cellnum, DateUtil.getExcelDate((Date) val), false);
+                break;
+            case LOCAL_DATE:
+                adjustWidth(cellnum, DATE_LENGTH);
+                dateCell(cellnum, DateUtil.getExcelDate((LocalDate) val), true);
+                break;
+            case LOCAL_DATE_TIME:
+                adjustWidth(cellnum, DATE_TIME_LENGTH);
+                dateCell(cellnum, DateUtil.getExcelDate((LocalDateTime) val), false);
+                break;
+            case INSTANT:
+                adjustWidth(cellnum, DATE_TIME_LENGTH);
+                dateCell(cellnum, DateUtil.getExcelDate(Date.from((Instant) val)), false);
+                break;
+            default:
+                stringCell(cellnum, val.toString(), false);
+                break;
+        }
+    }
+
+    /**
+     * 按ExcelColumn.format以文本输出日期
+     *
+     * @return 不是日期类型时不输出
+     */
+    private boolean formatSet(final DateTimeFormatter formatter, final Object val, final int cellnum) {
+        final TemporalAccessor temporal;
+        if (val instanceof Date) {
+            temporal = LocalDateTime.ofInstant(((Date) val).toInstant(), ZoneId.systemDefault());
+        } else if (val instanceof Instant) {
+            temporal = LocalDateTime.ofInstant((Instant) val, ZoneId.systemDefault());
+        } else if (val instanceof TemporalAccessor) {
+            temporal = (TemporalAccessor) val;
+        } else {
+            return false;
+        }
+        final String value = formatter.format(temporal);
+        adjustWidth(cellnum, value);
+        stringCell(cellnum, value, false);
+        return true;
+    }
+
+    private void numberSet(final double value, final int cellnum) {
+        adjustWidth(cellnum, numberLength(value));
+        numericCell(cellnum, value);
+    }
+
+    /**
+     * 估算数字显示宽度，不生成字符串
+     */
+    private static int numberLength(final double value) {
+        final double abs = Math.abs(value);
+        if (abs >= 1e15) {
+            return NUMBER_MAX_LENGTH;
+        }
+        int length = value < 0 ? 2 : 1;
+        for (long integer = (long) abs; integer >= 10; integer /= 10) {
+            length++;
+        }
+        if (abs != Math.rint(abs)) {
+            length += NUMBER_FRACTION_LENGTH;
+        }
+        return length;
+    }
+
+    private void textSet(final Object val, final int cellnum) {
+        final String value = String.valueOf(val);
+        final boolean bold = value.contains(ExcelUtil.BOLD);
+        adjustWidth(cellnum, value);
+        stringCell(cellnum, bold ? value.replace(ExcelUtil.BOLD, "") : value, bold && hasSpecialStyle);
+    }
+
+    private void adjustWidth(final int cellnum, final String value) {
+        final int columnWidth = columnWidth(cellnum);
+        if ((long) value.length() * MAX_BYTES_PER_CHAR <= columnWidth) {
+            return;
+        }
+        final int valueLength = value.getBytes().length;
+        if (columnWidth < valueLength) {
+            widen(cellnum, valueLength);
+        }
+    }
+
+    private void adjustWidth(final int cellnum, final int valueLength) {
+        if (columnWidth(cellnum) < valueLength) {
+            widen(cellnum, valueLength);
+        }
+    }
+
+    private void widen(final int cellnum, final int valueLength) {
+        final int width = Math.min(valueLength * 256, MAX_COLUMN_WIDTH);
+        setColumnWidth(cellnum, width);
+        columnWidths[cellnum] = width / 256;
+    }
+
+    private int columnWidth(final int cellnum) {
+        if (cellnum >= columnWidths.length) {
+            final int oldLength = columnWidths.length;
+            columnWidths = Arrays.copyOf(columnWidths, Math.max(cellnum + 1, oldLength * 2));
+            Arrays.fill(columnWidths, oldLength, columnWidths.length, UNKNOWN_WIDTH);
+        }
+        int columnWidth = columnWidths[cellnum];
+        if (columnWidth == UNKNOWN_WIDTH) {
+            columnWidth = initialColumnWidth(cellnum);
+            columnWidths[cellnum] = columnWidth;
+        }
+        return columnWidth;
+    }
+}
@@ -0,0 +1,335 @@
+package com.xc.common.util;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * @author Jq
+ * @Title AdmissionController
+ * @Description 导入导出准入控制：按文件大小、行数估算任务占用的堆内存与CPU，超出预算的任务按到达顺序排队或直接拒绝
+ * @date 2026/10/18 21:15:06
+ */
+public final class AdmissionController {
+
+    /**
+     * XSSFWorkbook整体加载时堆占用约为xlsx文件大小的倍数
+     */
+    static final int DOM_IMPORT_FACTOR = 50;
+
+    /**
+     * SAX读取时主要为共享字符串表
+     */
+    static final int SAX_IMPORT_FACTOR = 5;
+
+    /**
+     * SXSSF窗口内单个单元格的估算字节数
+     */
+    static final int CELL_BYTES = 256;
+
+    static final long MIN_JOB_BYTES = 8L << 20;
+
+    /**
+     * 同一线程内嵌套调用(如MultipartFile重载转调File重载)只占用一次预算
+     */
+    private static final ThreadLocal<Permit> HELD = new ThreadLocal<>();
+
+    private static final Permit NESTED = new Permit(null, 0, 0);
+
+    private final long heapBudget;
+
+    private final int cpuBudget;
+
+    private final int maxQueueLength;
+
+    private final long maxWaitMillis;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Condition changed = lock.newCondition();
+
+    /**
+     * 等待中的任务，只有队首可以被准入，保证先到先得
+     */
+    private final ArrayDeque<Object> queue = new ArrayDeque<>();
+
+    private long usedHeap;
+
+    private int usedCpu;
+
+    private int activeJobs;
+
+    private long admittedCount;
+
+    private long rejectedCount;
+
+    private long totalWaitMillis;
+
+    private long maxObservedWaitMillis;
+
+    /**
+     * @param heapBudgetBytes 同时运行的任务估算堆内存之和上限
+     * @param cpuBudget       同时运行的任务占用线程数之和上限
+     * @param maxQueueLength  排队任务上限，超出时直接拒绝
+     * @param maxWaitMillis   排队最长等待时间，小于等于0表示不排队、超出预算直接拒绝
+     */
+    public AdmissionController(final long heapBudgetBytes,
+                               final int cpuBudget,
+                               final int maxQueueLength,
+                               final long maxWaitMillis) {
+        this.heapBudget = heapBudgetBytes;
+        this.cpuBudget = cpuBudget;
+        this.maxQueueLength = maxQueueLength;
+        this.maxWaitMillis = maxWaitMillis;
+    }
+
+    /**
+     * 堆预算为最大堆的60%，CPU预算为核数，最多排队64个任务，最长等待60秒
+     */
+    public static AdmissionController defaults() {
+        return new AdmissionController((long) (Runtime.getRuntime().maxMemory() * 0.6),
+                Runtime.getRuntime().availableProcessors(), 64, TimeUnit.SECONDS.toMillis(60));
+    }
+
+    /**
+     * 不做限制，只统计
+     */
+    public static AdmissionController unlimited() {
+        return new AdmissionController(Long.MAX_VALUE, Integer.MAX_VALUE, 0, 0);
+    }
+
+    /**
+     * 申请运行许可，使用完毕后close归还；单个任务估算超过总预算时按总预算计，即独占运行
+     *
+     * @param job       任务描述，用于拒绝时的异常信息
+     * @param heapBytes 估算堆内存
+     * @param cpuSlots  占用线程数
+     * @throws AdmissionRejectedException 超出预算且队列已满、等待超时或不允许等待
+     */
+    public Permit acquire(final String job, final long heapBytes, final int cpuSlots) {
+        final Permit held = HELD.get();
+        if (held != null && !held.released.get()) {
+            return NESTED;
+        }
+        final long heap = Math.min(Math.max(heapBytes, 0), heapBudget);
+        final int cpu = Math.min(Math.max(cpuSlots, 1), cpuBudget);
+        lock.lock();
+        try {
+            if (queue.isEmpty() && fits(heap, cpu)) {
+                return admit(heap, cpu, 0);
+            }
+            if (maxWaitMillis <= 0 || queue.size() >= maxQueueLength) {
+                rejectedCount++;
+                throw new AdmissionRejectedException("Rejected " + job + " : needs " + (heap >> 20) + "MB heap and "
+                        + cpu + " threads, in use " + (usedHeap >> 20) + "/" + (heapBudget >> 20) + "MB and "
+                        + usedCpu + "/" + cpuBudget + " threads, " + queue.size() + " jobs queued");
+            }
+            final Object ticket = new Object();
+            queue.addLast(ticket);
+            final long start = System.nanoTime();
+            long remaining = TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+            try {
+                while (queue.peekFirst() != ticket || !fits(heap, cpu)) {
+                    if (remaining <= 0) {
+                        leave(ticket);
+                        rejectedCount++;
+                        throw new AdmissionRejectedException("Rejected " + job + " : waited " + maxWaitMillis
+                                + "ms for " + (heap >> 20) + "MB heap and " + cpu + " threads, " + queue.size() + " jobs queued");
+                    }
+                    remaining = changed.awaitNanos(remaining);
+                }
+                queue.pollFirst();
+                //下一个队首可能同样放得下
+                changed.signalAll();
+                return admit(heap, cpu, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            } catch (final InterruptedException e) {
+                leave(ticket);
+                Thread.currentThread().interrupt();
+                throw new AdmissionRejectedException("Interrupted while waiting for admission of " + job);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getHeapBudget() {
+        return heapBudget;
+    }
+
+    public int getCpuBudget() {
+        return cpuBudget;
+    }
+
+    public int getQueueDepth() {
+        lock.lock();
+        try {
+            return queue.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getActiveJobs() {
+        lock.lock();
+        try {
+            return activeJobs;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getUsedHeap() {
+        lock.lock();
+        try {
+            return usedHeap;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getUsedCpu() {
+        lock.lock();
+        try {
+            return usedCpu;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getAdmittedCount() {
+        lock.lock();
+        try {
+            return admittedCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getRejectedCount() {
+        lock.lock();
+        try {
+            return rejectedCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 已准入任务的累计排队时间
+     */
+    public long getTotalWaitMillis() {
+        lock.lock();
+        try {
+            return totalWaitMillis;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getMaxWaitMillis() {
+        lock.lock();
+        try {
+            return maxObservedWaitMillis;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * XSSFWorkbook整体加载
+     */
+    static long domImportCost(final long fileSize) {
+        return Math.max(fileSize * DOM_IMPORT_FACTOR, MIN_JOB_BYTES);
+    }
+
+    /**
+     * SAX流式读取
+     */
+    static long saxImportCost(final long fileSize) {
+        return Math.max(fileSize * SAX_IMPORT_FACTOR, MIN_JOB_BYTES);
+    }
+
+    /**
+     * SXSSF只在内存中保留窗口内的行，DIRECT不保留行
+     */
+    static long exportCost(final SheetTemplate template, final ExportOptions options) {
+        if (options.getEngine() == ExportEngine.DIRECT) {
+            return MIN_JOB_BYTES;
+        }
+        final long window = options.getRowAccessWindowSize() < 0 ? 10000 : options.getRowAccessWindowSize();
+        return MIN_JOB_BYTES + window * template.getHeaders().length * CELL_BYTES;
+    }
+
+    /**
+     * csv逐行编码后直接写出，不保留行
+     */
+    static long csvExportCost() {
+        return MIN_JOB_BYTES;
+    }
+
+    private boolean fits(final long heap, final int cpu) {
+        return usedHeap + heap <= heapBudget && usedCpu + cpu <= cpuBudget;
+    }
+
+    private Permit admit(final long heap, final int cpu, final long waitMillis) {
+        usedHeap += heap;
+        usedCpu += cpu;
+        activeJobs++;
+        admittedCount++;
+        totalWaitMillis += waitMillis;
+        maxObservedWaitMillis = Math.max(maxObservedWaitMillis, waitMillis);
+        final Permit permit = new Permit(this, heap, cpu);
+        HELD.set(permit);
+        return permit;
+    }
+
+    private void leave(final Object ticket) {
+        queue.remove(ticket);
+        changed.signalAll();
+    }
+
+    private void release(final Permit permit) {
+        lock.lock();
+        try {
+            usedHeap -= permit.heap;
+            usedCpu -= permit.cpu;
+            activeJobs--;
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 运行许可，需在申请的线程中close
+     */
+    public static final class Permit implements AutoCloseable {
+
+        private final AdmissionController owner;
+
+        private final long heap;
+
+        private final int cpu;
+
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(final AdmissionController owner, final long heap, final int cpu) {
+            this.owner = owner;
+            this.heap = heap;
+            this.cpu = cpu;
+        }
+
+        @Override
+        public void close() {
+            if (owner == null || !released.compareAndSet(false, true)) {
+                return;
+            }
+            if (HELD.get() == this) {
+                HELD.remove();
+            }
+            owner.release(this);
+        }
+    }
+}
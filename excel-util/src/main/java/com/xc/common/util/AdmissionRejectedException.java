@@ -0,0 +1,16 @@
+package com.xc.common.util;
+
+/**
+ * @author Jq
+ * @Title AdmissionRejectedException
+ * @Description 导入导出任务超出内存或CPU预算且无法排队(队列已满、等待超时或不允许等待)时抛出
+ * @date 2026/10/18 21:12:40
+ */
+public class AdmissionRejectedException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public AdmissionRejectedException(final String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,167 @@
+package com.xc.common.util;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * @author Jq
+ * @Title BatchImportPipeline
+ * @Description 分批导入：调用线程SAX解析并绑定行，消费线程处理上一批，二者经有界队列衔接，sink处理慢时解析线程阻塞等待
+ * @date 2026/10/18 18:47:55
+ */
+final class BatchImportPipeline<T> {
+
+    /**
+     * 队列中最多等待的批次，加上解析中与处理中的各一批，内存中最多同时存在四批
+     */
+    private static final int QUEUE_CAPACITY = 2;
+
+    private static final long OFFER_TIMEOUT_MILLIS = 100;
+
+    private final List<T> end = Collections.emptyList();
+
+    private final BlockingQueue<List<T>> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+
+    private final Class<T> cls;
+
+    private final int batchSize;
+
+    private final Consumer<List<T>> sink;
+
+    private final ImportProgressListener listener;
+
+    private volatile Throwable sinkError;
+
+    private long rows;
+
+    private int batches;
+
+    private List<T> current;
+
+    BatchImportPipeline(final Class<T> cls,
+                        final int batchSize,
+                        final Consumer<List<T>> sink,
+                        final ImportProgressListener listener) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive : " + batchSize);
+        }
+        this.cls = cls;
+        this.batchSize = batchSize;
+        this.sink = sink;
+        this.listener = listener;
+    }
+
+    ImportResult run(final File file) {
+        final Thread consumer = new Thread(this::consume, "excel-import-sink");
+        consumer.setDaemon(true);
+        consumer.start();
+        final JobRecorder recorder = JobRecorder.importing(cls);
+        recorder.bytes(file.length());
+        Throwable parseError = null;
+        try {
+            final RowBinder.SheetBinding<T> binding = new RowBinder.SheetBinding<>(RowBinder.of(cls));
+            binding.scope().setRecorder(recorder);
+            current = new ArrayList<>(batchSize);
+            ExcelSaxReader.read(file, 0, binding.width(), binding.scope(), (rowNum, values) -> {
+                //第一行为表头
+                if (binding.header(rowNum, values)) {
+                    return;
+                }
+                final long start = recorder.start();
+                current.add(binding.binder().bind(rowNum, values));
+                recorder.stop(ExcelPhase.BIND, start);
+                if (current.size() >= batchSize) {
+                    put(current);
+                    current = new ArrayList<>(batchSize);
+                }
+            });
+            if (!current.isEmpty()) {
+                put(current);
+            }
+        } catch (final Throwable e) {
+            parseError = e;
+        } finally {
+            current = null;
+        }
+        if (parseError != null) {
+            //解析失败时丢弃排队中的批次，正在处理的一批允许正常完成
+            queue.clear();
+        }
+        try {
+            put(end);
+            consumer.join();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            consumer.interrupt();
+            if (parseError == null) {
+                parseError = e;
+            }
+        } catch (final RuntimeException e) {
+            //sink已失败或等待被中断，消费线程不会再取队列
+            consumer.interrupt();
+        }
+        //消费线程已结束，rows与batches对当前线程可见
+        final Throwable error = sinkError != null ? sinkError : parseError;
+        recorder.rows(rows);
+        if (error != null) {
+            recorder.failed(error);
+        }
+        recorder.finish();
+        return new ImportResult(rows, batches, error);
+    }
+
+    /**
+     * 队列满时阻塞，sink失败后不再等待
+     */
+    private void put(final List<T> batch) {
+        try {
+            while (!queue.offer(batch, OFFER_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                if (sinkError != null) {
+                    throw new SinkFailedException();
+                }
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Batch import interrupted", e);
+        }
+    }
+
+    private void consume() {
+        try {
+            while (true) {
+                final List<T> batch = queue.take();
+                if (batch == end) {
+                    return;
+                }
+                sink.accept(batch);
+                rows += batch.size();
+                batches++;
+                if (listener != null) {
+                    listener.onBatch(batches, batch.size(), rows);
+                }
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (final Throwable e) {
+            sinkError = e;
+        }
+    }
+
+    /**
+     * sink抛出异常后中止解析
+     */
+    private static final class SinkFailedException extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        private SinkFailedException() {
+            super(null, null, false, false);
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.xc.common.util;
+
+import java.util.BitSet;
+import java.util.Objects;
+
+/**
+ * @author Jq
+ * @Title ColumnBatch
+ * @Description 列式导入结果，每列一个基本类型数组，字符串列为字典编码，不为每行创建对象也不装箱
+ * @date 2026/10/18 18:06:40
+ */
+public final class ColumnBatch {
+
+    /**
+     * 列的输出类型
+     */
+    public enum ColumnType {
+        INT, LONG, DOUBLE,
+        /**
+         * 字典编码：codes为每行在dictionary中的下标，空值为-1
+         */
+        STRING
+    }
+
+    private final int rowCount;
+
+    private final ColumnVector[] columns;
+
+    ColumnBatch(final int rowCount, final ColumnVector[] columns) {
+        this.rowCount = rowCount;
+        this.columns = columns;
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    public ColumnVector[] getColumns() {
+        return columns.clone();
+    }
+
+    /**
+     * 按表头名取列，按下标选择的列也会记录表头
+     */
+    public ColumnVector column(final String header) {
+        for (final ColumnVector column : columns) {
+            if (Objects.equals(column.header, header)) {
+                return column;
+            }
+        }
+        throw new IllegalArgumentException("Column not selected : " + header);
+    }
+
+    /**
+     * 按sheet中的列下标(从0开始)取列
+     */
+    public ColumnVector column(final int index) {
+        for (final ColumnVector column : columns) {
+            if (column.index == index) {
+                return column;
+            }
+        }
+        throw new IllegalArgumentException("Column not selected : " + index);
+    }
+
+    public int[] getInts(final String header) {
+        return column(header).getInts();
+    }
+
+    public long[] getLongs(final String header) {
+        return column(header).getLongs();
+    }
+
+    public double[] getDoubles(final String header) {
+        return column(header).getDoubles();
+    }
+
+    /**
+     * 单列数据，数组长度与rowCount一致，调用方可直接用于聚合计算，不做拷贝
+     */
+    public static final class ColumnVector {
+
+        private final String header;
+
+        private final int index;
+
+        private final ColumnType type;
+
+        private final int[] ints;
+
+        private final long[] longs;
+
+        private final double[] doubles;
+
+        private final String[] dictionary;
+
+        /**
+         * 空单元格对应的行，数值列空值处为0
+         */
+        private final BitSet nulls;
+
+        ColumnVector(final String header,
+                     final int index,
+                     final ColumnType type,
+                     final int[] ints,
+                     final long[] longs,
+                     final double[] doubles,
+                     final String[] dictionary,
+                     final BitSet nulls) {
+            this.header = header;
+            this.index = index;
+            this.type = type;
+            this.ints = ints;
+            this.longs = longs;
+            this.doubles = doubles;
+            this.dictionary = dictionary;
+            this.nulls = nulls;
+        }
+
+        public String getHeader() {
+            return header;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public ColumnType getType() {
+            return type;
+        }
+
+        public int[] getInts() {
+            check(ColumnType.INT);
+            return ints;
+        }
+
+        public long[] getLongs() {
+            check(ColumnType.LONG);
+            return longs;
+        }
+
+        public double[] getDoubles() {
+            check(ColumnType.DOUBLE);
+            return doubles;
+        }
+
+        /**
+         * 字符串列每行的字典下标
+         */
+        public int[] getCodes() {
+            check(ColumnType.STRING);
+            return ints;
+        }
+
+        public String[] getDictionary() {
+            check(ColumnType.STRING);
+            return dictionary;
+        }
+
+        public String getString(final int row) {
+            check(ColumnType.STRING);
+            final int code = ints[row];
+            return code < 0 ? null : dictionary[code];
+        }
+
+        public boolean isNull(final int row) {
+            return nulls.get(row);
+        }
+
+        public BitSet getNulls() {
+            return nulls;
+        }
+
+        private void check(final ColumnType expected) {
+            if (type != expected) {
+                throw new IllegalStateException("Column " + (header != null ? header : index) + " is " + type + ", not " + expected);
+            }
+        }
+    }
+}
@@ -0,0 +1,289 @@
+package com.xc.common.util;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.poi.ss.util.NumberToTextConverter;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @author Jq
+ * @Title ColumnCollector
+ * @Description 逐行把SAX回调中选中列的原始值追加到可增长的基本类型数组，最后生成ColumnBatch
+ * @date 2026/10/18 18:14:52
+ */
+final class ColumnCollector {
+
+    private static final int MIN_CAPACITY = 16;
+
+    private final Slot[] slots;
+
+    private int rowCount;
+
+    private boolean headerRead;
+
+    ColumnCollector(final ColumnSelection selection, final int expectedRows) {
+        final List<ColumnSelection.Entry> entries = selection.entries();
+        this.slots = new Slot[entries.size()];
+        final int capacity = Math.max(expectedRows, MIN_CAPACITY);
+        for (int i = 0; i < slots.length; i++) {
+            slots[i] = new Slot(entries.get(i), capacity);
+        }
+    }
+
+    /**
+     * 已读取表头行后为选中列的下标，按表头名选择且尚未读到表头行时为空，表示全部列
+     */
+    boolean[] columns() {
+        int width = 0;
+        for (final Slot slot : slots) {
+            if (slot.index < 0) {
+                return null;
+            }
+            width = Math.max(width, slot.index + 1);
+        }
+        final boolean[] columns = new boolean[width];
+        for (final Slot slot : slots) {
+            columns[slot.index] = true;
+        }
+        return columns;
+    }
+
+    /**
+     * 初始取值数组长度，按下标选择的最大列
+     */
+    int width() {
+        int width = 1;
+        for (final Slot slot : slots) {
+            width = Math.max(width, slot.index + 1);
+        }
+        return width;
+    }
+
+    boolean hasHeader() {
+        return headerRead;
+    }
+
+    /**
+     * 按表头行解析表头名对应的列下标，并为按下标选择的列记录表头
+     *
+     * @param values 表头行的原始值，表头行为空时为null
+     */
+    void header(final Object[] values) {
+        headerRead = true;
+        for (final Slot slot : slots) {
+            if (slot.header != null) {
+                slot.index = findHeader(values, slot.header);
+            } else if (values != null) {
+                slot.header = text(value(values, slot.index));
+            }
+        }
+    }
+
+    private static int findHeader(final Object[] values, final String header) {
+        if (values != null) {
+            for (int i = 0; i < values.length; i++) {
+                //数字表头按excel显示的文本匹配，与RowBinder按表头解析列映射一致
+                if (header.equals(text(values[i]))) {
+                    return i;
+                }
+            }
+        }
+        throw new IllegalArgumentException("Header not found : " + header);
+    }
+
+    /**
+     * @param values 单元格原始值(Double/String/Boolean/null)，只在调用期间有效
+     */
+    void add(final int rowNum, final Object[] values) {
+        final int rowIndex = rowCount++;
+        for (final Slot slot : slots) {
+            try {
+                slot.append(rowIndex, value(values, slot.index));
+            } catch (final RuntimeException e) {
+                throw new IllegalArgumentException("Read row " + (rowNum + 1) + " column " + (slot.index + 1)
+                        + " as " + slot.type + " error : " + e.getMessage(), e);
+            }
+        }
+    }
+
+    private static Object value(final Object[] values, final int index) {
+        return index < values.length ? values[index] : null;
+    }
+
+    private static String text(final Object value) {
+        if (value == null) {
+            return null;
+        }
+        return value instanceof Double ? NumberToTextConverter.toText((Double) value) : StringUtils.trim(value.toString());
+    }
+
+    ColumnBatch finish() {
+        final ColumnBatch.ColumnVector[] columns = new ColumnBatch.ColumnVector[slots.length];
+        for (int i = 0; i < slots.length; i++) {
+            columns[i] = slots[i].toVector(rowCount);
+        }
+        return new ColumnBatch(rowCount, columns);
+    }
+
+    /**
+     * 单列的可增长缓冲区，只分配该列类型对应的数组
+     */
+    private static final class Slot {
+
+        private final ColumnBatch.ColumnType type;
+
+        private final BitSet nulls = new BitSet();
+
+        private String header;
+
+        private int index;
+
+        /**
+         * INT列的值或STRING列的字典下标
+         */
+        private int[] ints;
+
+        private long[] longs;
+
+        private double[] doubles;
+
+        private Map<String, Integer> codes;
+
+        private String[] dictionary;
+
+        private Slot(final ColumnSelection.Entry entry, final int capacity) {
+            this.type = entry.getType();
+            this.header = entry.getHeader();
+            this.index = entry.getIndex();
+            switch (type) {
+                case LONG:
+                    longs = new long[capacity];
+                    break;
+                case DOUBLE:
+                    doubles = new double[capacity];
+                    break;
+                case STRING:
+                    ints = new int[capacity];
+                    codes = new HashMap<>();
+                    dictionary = new String[MIN_CAPACITY];
+                    break;
+                default:
+                    ints = new int[capacity];
+                    break;
+            }
+        }
+
+        private void append(final int row, final Object value) {
+            ensureCapacity(row);
+            if (value instanceof Double) {
+                numeric(row, (Double) value);
+            } else if (value instanceof String) {
+                text(row, StringUtils.trim((String) value));
+            } else if (value instanceof Boolean) {
+                if (type == ColumnBatch.ColumnType.STRING) {
+                    text(row, value.toString());
+                } else {
+                    numeric(row, (Boolean) value ? 1 : 0);
+                }
+            } else {
+                blank(row);
+            }
+        }
+
+        /**
+         * 整数列与RowBinder一致按四舍六入五成双取整，与文本一样超出int范围时报错
+         */
+        private void numeric(final int row, final double value) {
+            switch (type) {
+                case INT:
+                    ints[row] = Math.toIntExact((long) Math.rint(value));
+                    break;
+                case LONG:
+                    longs[row] = (long) Math.rint(value);
+                    break;
+                case DOUBLE:
+                    doubles[row] = value;
+                    break;
+                default:
+                    ints[row] = encode(NumberToTextConverter.toText(value));
+                    break;
+            }
+        }
+
+        private void text(final int row, final String value) {
+            if (value.isEmpty()) {
+                blank(row);
+                return;
+            }
+            switch (type) {
+                case INT:
+                    ints[row] = Math.toIntExact(RowBinder.parseLong(value));
+                    break;
+                case LONG:
+                    longs[row] = RowBinder.parseLong(value);
+                    break;
+                case DOUBLE:
+                    doubles[row] = Double.parseDouble(value);
+                    break;
+                default:
+                    ints[row] = encode(value);
+                    break;
+            }
+        }
+
+        /**
+         * 数值列保持0，字符串列记为-1
+         */
+        private void blank(final int row) {
+            nulls.set(row);
+            if (type == ColumnBatch.ColumnType.STRING) {
+                ints[row] = -1;
+            }
+        }
+
+        private int encode(final String value) {
+            final Integer code = codes.get(value);
+            if (code != null) {
+                return code;
+            }
+            final int next = codes.size();
+            if (next == dictionary.length) {
+                dictionary = Arrays.copyOf(dictionary, next << 1);
+            }
+            dictionary[next] = value;
+            codes.put(value, next);
+            return next;
+        }
+
+        private void ensureCapacity(final int row) {
+            if (ints != null && row == ints.length) {
+                ints = Arrays.copyOf(ints, grow(row));
+            } else if (longs != null && row == longs.length) {
+                longs = Arrays.copyOf(longs, grow(row));
+            } else if (doubles != null && row == doubles.length) {
+                doubles = Arrays.copyOf(doubles, grow(row));
+            }
+        }
+
+        private static int grow(final int length) {
+            return length + (length >> 1) + 1;
+        }
+
+        private ColumnBatch.ColumnVector toVector(final int rowCount) {
+            return new ColumnBatch.ColumnVector(header, index, type,
+                    ints == null ? null : trim(ints, rowCount),
+                    longs == null ? null : (longs.length == rowCount ? longs : Arrays.copyOf(longs, rowCount)),
+                    doubles == null ? null : (doubles.length == rowCount ? doubles : Arrays.copyOf(doubles, rowCount)),
+                    dictionary == null ? null : Arrays.copyOf(dictionary, codes.size()),
+                    nulls);
+        }
+
+        private static int[] trim(final int[] values, final int length) {
+            return values.length == length ? values : Arrays.copyOf(values, length);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.xc.common.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * @author Jq
+ * @Title ColumnSelection
+ * @Description 列式导入时要读取的列，按表头名或列下标(从0开始)选择，并指定输出的基本类型数组
+ * @date 2026/10/18 18:02:15
+ */
+public final class ColumnSelection {
+
+    private final List<Entry> entries = new ArrayList<>();
+
+    private ColumnSelection() {
+
+    }
+
+    public static ColumnSelection create() {
+        return new ColumnSelection();
+    }
+
+    public ColumnSelection intColumn(final String header) {
+        return add(header, -1, ColumnBatch.ColumnType.INT);
+    }
+
+    public ColumnSelection intColumn(final int index) {
+        return add(null, index, ColumnBatch.ColumnType.INT);
+    }
+
+    public ColumnSelection longColumn(final String header) {
+        return add(header, -1, ColumnBatch.ColumnType.LONG);
+    }
+
+    public ColumnSelection longColumn(final int index) {
+        return add(null, index, ColumnBatch.ColumnType.LONG);
+    }
+
+    public ColumnSelection doubleColumn(final String header) {
+        return add(header, -1, ColumnBatch.ColumnType.DOUBLE);
+    }
+
+    public ColumnSelection doubleColumn(final int index) {
+        return add(null, index, ColumnBatch.ColumnType.DOUBLE);
+    }
+
+    /**
+     * 字符串列按字典编码存储，重复值只保留一份
+     */
+    public ColumnSelection stringColumn(final String header) {
+        return add(header, -1, ColumnBatch.ColumnType.STRING);
+    }
+
+    public ColumnSelection stringColumn(final int index) {
+        return add(null, index, ColumnBatch.ColumnType.STRING);
+    }
+
+    List<Entry> entries() {
+        return Collections.unmodifiableList(entries);
+    }
+
+    private ColumnSelection add(final String header, final int index, final ColumnBatch.ColumnType type) {
+        if (header == null && index < 0) {
+            throw new IllegalArgumentException("Column index must not be negative : " + index);
+        }
+        entries.add(new Entry(header, index, type));
+        return this;
+    }
+
+    static final class Entry {
+
+        /**
+         * 按表头选择时不为空
+         */
+        private final String header;
+
+        /**
+         * 按下标选择时不小于0
+         */
+        private final int index;
+
+        private final ColumnBatch.ColumnType type;
+
+        private Entry(final String header, final int index, final ColumnBatch.ColumnType type) {
+            this.header = header;
+            this.index = index;
+            this.type = type;
+        }
+
+        String getHeader() {
+            return header;
+        }
+
+        int getIndex() {
+            return index;
+        }
+
+        ColumnBatch.ColumnType getType() {
+            return type;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.xc.common.util;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * @author Jq
+ * @Title CsvOptions
+ * @Description 文本导出参数：分隔符、字符集、BOM与gzip
+ * @date 2026/10/19 14:05:12
+ */
+@Getter
+@Builder
+public class CsvOptions {
+
+    /**
+     * 字段分隔符，','为csv，'\t'为tsv
+     */
+    @Builder.Default
+    private final char delimiter = ',';
+
+    @Builder.Default
+    private final Charset charset = StandardCharsets.UTF_8;
+
+    /**
+     * 文件开头写入BOM，excel打开UTF-8的csv时据此识别编码
+     */
+    @Builder.Default
+    private final boolean bom = false;
+
+    /**
+     * 边写边gzip压缩，输出为.csv.gz/.tsv.gz
+     */
+    @Builder.Default
+    private final boolean gzip = false;
+
+    @Builder.Default
+    private final String lineSeparator = "\r\n";
+
+    public static CsvOptions defaults() {
+        return CsvOptions.builder().build();
+    }
+
+    public static CsvOptions tsv() {
+        return CsvOptions.builder().delimiter('\t').build();
+    }
+
+    String fileSuffix() {
+        return (delimiter == '\t' ? ".tsv" : ".csv") + (gzip ? ".gz" : "");
+    }
+
+    String contentType() {
+        if (gzip) {
+            return "application/gzip";
+        }
+        return (delimiter == '\t' ? "text/tab-separated-values" : "text/csv") + ";charset=" + charset.name();
+    }
+}
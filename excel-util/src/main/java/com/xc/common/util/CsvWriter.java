@@ -0,0 +1,239 @@
+package com.xc.common.util;
+
+import org.apache.poi.ss.usermodel.DateUtil;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.text.DateFormat;
+import java.text.SimpleDateFormat;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * @author Jq
+ * @Title CsvWriter
+ * @Description csv/tsv导出引擎，与xlsx共用导出计划与字段遍历(含集合平铺/展开)，单元格按RFC 4180转义后经复用的编码缓冲区直接写入输出流，没有行数上限
+ * @date 2026/10/19 14:12:37
+ */
+final class CsvWriter extends AbstractRowWriter {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private static final int GZIP_BUFFER_SIZE = 65536;
+
+    private static final char BOM = '\uFEFF';
+
+    /**
+     * 2^53以内的整数可按long精确输出
+     */
+    private static final double MAX_EXACT_INTEGER = 9007199254740992d;
+
+    private final OutputStream out;
+
+    private final CsvOptions options;
+
+    private final CharsetEncoder encoder;
+
+    private final CharBuffer chars = CharBuffer.allocate(BUFFER_SIZE);
+
+    private final ByteBuffer bytes;
+
+    /**
+     * 表头列数，数据行不足时补齐分隔符
+     */
+    private final int width;
+
+    private final DateFormat dateTimeFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+
+    private final DateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd");
+
+    /**
+     * 当前行已写到的列，未写任何单元格时为0
+     */
+    private int column;
+
+    /**
+     * @param out 不关闭，gzip时只finish
+     */
+    CsvWriter(final SheetTemplate template, final OutputStream out, final CsvOptions options) throws IOException {
+        super(false, 1, template.isTypedCells(), template.isExpandRows());
+        this.out = options.isGzip() ? new GZIPOutputStream(out, GZIP_BUFFER_SIZE) : out;
+        this.options = options;
+        this.encoder = options.getCharset().newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        this.bytes = ByteBuffer.allocate((int) Math.ceil(BUFFER_SIZE * encoder.maxBytesPerChar()));
+        final String[] headers = template.getHeaders();
+        this.width = headers.length;
+        try {
+            if (options.isBom()) {
+                append(BOM);
+            }
+            //只写表头，标题与合并单元格不适用于文本格式
+            startRow(0);
+            for (int i = 0; i < headers.length; i++) {
+                stringCell(i, headers[i], false);
+            }
+            endRow();
+        } catch (final DirectXlsxWriter.SheetWriteException e) {
+            throw e.getCause();
+        }
+    }
+
+    @Override
+    protected void startRow(final int rowNum) {
+        column = 0;
+    }
+
+    @Override
+    protected void endRow() {
+        moveTo(width - 1);
+        append(options.getLineSeparator());
+    }
+
+    @Override
+    protected void blankCell(final int cellnum) {
+        moveTo(cellnum);
+    }
+
+    @Override
+    protected void stringCell(final int cellnum, final String value, final boolean special) {
+        moveTo(cellnum);
+        //表头为空时留空
+        if (value == null) {
+            return;
+        }
+        if (!needsQuote(value)) {
+            append(value);
+            return;
+        }
+        append('"');
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (c == '"') {
+                append('"');
+            }
+            append(c);
+        }
+        append('"');
+    }
+
+    @Override
+    protected void numericCell(final int cellnum, final double value) {
+        moveTo(cellnum);
+        if (value == Math.rint(value) && Math.abs(value) < MAX_EXACT_INTEGER) {
+            append(Long.toString((long) value));
+        } else {
+            append(Double.toString(value));
+        }
+    }
+
+    @Override
+    protected void dateCell(final int cellnum, final double serial, final boolean dateOnly) {
+        moveTo(cellnum);
+        append((dateOnly ? dateFormat : dateTimeFormat).format(DateUtil.getJavaDate(serial)));
+    }
+
+    /**
+     * 文本格式没有列宽，按最大值返回后不再计算内容宽度
+     */
+    @Override
+    protected int initialColumnWidth(final int cellnum) {
+        return Integer.MAX_VALUE;
+    }
+
+    @Override
+    protected void setColumnWidth(final int cellnum, final int width) {
+        //文本格式没有列宽
+    }
+
+    /**
+     * 展开为多行时其余字段只写在首行，后续行留空
+     */
+    @Override
+    protected void mergeRows(final int firstRow, final int lastRow, final int cellnum) {
+        //文本格式没有合并单元格
+    }
+
+    /**
+     * 输出剩余字符并结束gzip，不关闭下层输出流
+     */
+    void finish() throws IOException {
+        encode(true);
+        encoder.flush(bytes);
+        writeBytes();
+        if (out instanceof GZIPOutputStream) {
+            ((GZIPOutputStream) out).finish();
+        }
+        out.flush();
+    }
+
+    /**
+     * 补齐跳过的空列的分隔符
+     */
+    private void moveTo(final int cellnum) {
+        for (; column < cellnum; column++) {
+            append(options.getDelimiter());
+        }
+    }
+
+    private boolean needsQuote(final String value) {
+        final char delimiter = options.getDelimiter();
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (c == delimiter || c == '"' || c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void append(final char c) {
+        if (!chars.hasRemaining()) {
+            encode(false);
+        }
+        chars.put(c);
+    }
+
+    private void append(final String s) {
+        final int length = s.length();
+        int offset = 0;
+        while (offset < length) {
+            if (!chars.hasRemaining()) {
+                encode(false);
+            }
+            final int count = Math.min(length - offset, chars.remaining());
+            chars.put(s, offset, offset + count);
+            offset += count;
+        }
+    }
+
+    /**
+     * 编码缓冲区中的字符并写出，被缓冲区边界截断的代理对留到下一次
+     */
+    private void encode(final boolean endOfInput) {
+        //按Buffer调用，java 9+编译时不链接到协变返回的重载，java 8可运行
+        ((Buffer) chars).flip();
+        try {
+            CoderResult result;
+            do {
+                result = encoder.encode(chars, bytes, endOfInput);
+                writeBytes();
+            } while (result.isOverflow());
+        } catch (final IOException e) {
+            throw new DirectXlsxWriter.SheetWriteException(e);
+        } finally {
+            chars.compact();
+        }
+    }
+
+    private void writeBytes() throws IOException {
+        out.write(bytes.array(), 0, bytes.position());
+        ((Buffer) bytes).clear();
+    }
+}
@@ -0,0 +1,522 @@
+package com.xc.common.util;
+
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.poi.ss.usermodel.FormulaError;
+import org.apache.poi.ss.util.CellRangeAddress;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.ss.util.WorkbookUtil;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * @author Jq
+ * @Title DirectXlsxWriter
+ * @Description 直接输出SpreadsheetML的单sheet导出引擎，数据行写入临时sheetData后统一打包，标题、表头、合并单元格与四种样式和createSheet一致
+ * @date 2026/10/18 16:02:51
+ */
+final class DirectXlsxWriter extends AbstractRowWriter implements Closeable {
+
+    private static final String XML_HEADER = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n";
+
+    private static final String CONTENT_TYPES_START = XML_HEADER
+            + "<Types xmlns=\"http://schemas.openxmlformats.org/package/2006/content-types\">"
+            + "<Default Extension=\"rels\" ContentType=\"application/vnd.openxmlformats-package.relationships+xml\"/>"
+            + "<Default Extension=\"xml\" ContentType=\"application/xml\"/>"
+            + "<Override PartName=\"/xl/workbook.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.sheet.main+xml\"/>"
+            + "<Override PartName=\"/xl/styles.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.styles+xml\"/>";
+
+    private static final String WORKSHEET_CONTENT_TYPE = "\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.worksheet+xml\"/>";
+
+    private static final String ROOT_RELS = XML_HEADER
+            + "<Relationships xmlns=\"http://schemas.openxmlformats.org/package/2006/relationships\">"
+            + "<Relationship Id=\"rId1\" Type=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships/officeDocument\" Target=\"xl/workbook.xml\"/>"
+            + "</Relationships>";
+
+    private static final String RELATIONSHIPS_START = XML_HEADER
+            + "<Relationships xmlns=\"http://schemas.openxmlformats.org/package/2006/relationships\">";
+
+    private static final String WORKSHEET_RELATIONSHIP = "\" Type=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships/worksheet\" Target=\"worksheets/sheet";
+
+    private static final String STYLES_RELATIONSHIP = "\" Type=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships/styles\" Target=\"styles.xml\"/>";
+
+    /**
+     * 字体、填充、边框与createSheet中的style/style2/style3/style4一一对应
+     */
+    private static final String STYLES = XML_HEADER
+            + "<styleSheet xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\">"
+            + "<numFmts count=\"2\"><numFmt numFmtId=\"164\" formatCode=\"yyyy-mm-dd hh:mm:ss\"/><numFmt numFmtId=\"165\" formatCode=\"yyyy-mm-dd\"/></numFmts>"
+            + "<fonts count=\"5\">"
+            + "<font><sz val=\"11\"/><color indexed=\"8\"/><name val=\"Calibri\"/><family val=\"2\"/><scheme val=\"minor\"/></font>"
+            + "<font><b/><sz val=\"11\"/><name val=\"宋体\"/></font>"
+            + "<font><sz val=\"10\"/><name val=\"宋体\"/></font>"
+            + "<font><b/><sz val=\"18\"/><name val=\"宋体\"/></font>"
+            + "<font><b/><sz val=\"10\"/><name val=\"宋体\"/></font>"
+            + "</fonts>"
+            + "<fills count=\"3\">"
+            + "<fill><patternFill patternType=\"none\"/></fill>"
+            + "<fill><patternFill patternType=\"gray125\"/></fill>"
+            + "<fill><patternFill patternType=\"solid\"><fgColor indexed=\"9\"/></patternFill></fill>"
+            + "</fills>"
+            + "<borders count=\"3\">"
+            + "<border><left/><right/><top/><bottom/><diagonal/></border>"
+            + "<border><left/><right style=\"thin\"/><top style=\"thin\"/><bottom style=\"thin\"/><diagonal/></border>"
+            + "<border><left style=\"thin\"/><right style=\"thin\"/><top style=\"thin\"/><bottom style=\"thin\"/><diagonal/></border>"
+            + "</borders>"
+            + "<cellStyleXfs count=\"1\"><xf numFmtId=\"0\" fontId=\"0\" fillId=\"0\" borderId=\"0\"/></cellStyleXfs>"
+            + "<cellXfs count=\"7\">"
+            + "<xf numFmtId=\"0\" fontId=\"0\" fillId=\"0\" borderId=\"0\" xfId=\"0\"/>"
+            + "<xf numFmtId=\"0\" fontId=\"1\" fillId=\"2\" borderId=\"1\" xfId=\"0\" applyFont=\"1\" applyFill=\"1\" applyBorder=\"1\" applyAlignment=\"1\"><alignment horizontal=\"center\"/></xf>"
+            + "<xf numFmtId=\"0\" fontId=\"2\" fillId=\"2\" borderId=\"2\" xfId=\"0\" applyFont=\"1\" applyFill=\"1\" applyBorder=\"1\" applyAlignment=\"1\"><alignment horizontal=\"center\" vertical=\"center\"/></xf>"
+            + "<xf numFmtId=\"0\" fontId=\"3\" fillId=\"2\" borderId=\"2\" xfId=\"0\" applyFont=\"1\" applyFill=\"1\" applyBorder=\"1\" applyAlignment=\"1\"><alignment horizontal=\"center\"/></xf>"
+            + "<xf numFmtId=\"0\" fontId=\"4\" fillId=\"2\" borderId=\"2\" xfId=\"0\" applyFont=\"1\" applyFill=\"1\" applyBorder=\"1\" applyAlignment=\"1\"><alignment horizontal=\"center\" vertical=\"center\"/></xf>"
+            + "<xf numFmtId=\"164\" fontId=\"2\" fillId=\"2\" borderId=\"2\" xfId=\"0\" applyNumberFormat=\"1\" applyFont=\"1\" applyFill=\"1\" applyBorder=\"1\" applyAlignment=\"1\"><alignment horizontal=\"center\" vertical=\"center\"/></xf>"
+            + "<xf numFmtId=\"165\" fontId=\"2\" fillId=\"2\" borderId=\"2\" xfId=\"0\" applyNumberFormat=\"1\" applyFont=\"1\" applyFill=\"1\" applyBorder=\"1\" applyAlignment=\"1\"><alignment horizontal=\"center\" vertical=\"center\"/></xf>"
+            + "</cellXfs>"
+            + "<cellStyles count=\"1\"><cellStyle name=\"Normal\" xfId=\"0\" builtinId=\"0\"/></cellStyles>"
+            + "</styleSheet>";
+
+    private static final String WORKSHEET_START = XML_HEADER
+            + "<worksheet xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\">";
+
+    /**
+     * 只有第一个sheet选中，多个sheet同时选中时excel按成组编辑打开
+     */
+    private static final String SELECTED_SHEET_VIEW = "<sheetViews><sheetView workbookViewId=\"0\" tabSelected=\"1\"/></sheetViews>";
+
+    private static final String SHEET_VIEW = "<sheetViews><sheetView workbookViewId=\"0\"/></sheetViews>";
+
+    private static final String SHEET_FORMAT = "<sheetFormatPr defaultRowHeight=\"15\"/>";
+
+    private static final String WORKSHEET_END = "<pageMargins left=\"0.7\" right=\"0.7\" top=\"0.75\" bottom=\"0.75\" header=\"0.3\" footer=\"0.3\"/></worksheet>";
+
+    /**
+     * 预编码的样式下标，对应STYLES中cellXfs顺序
+     */
+    private static final String HEADER_STYLE = "\" s=\"1\"";
+
+    private static final String TEXT_STYLE = "\" s=\"2\"";
+
+    private static final String TITLE_STYLE = "\" s=\"3\"";
+
+    private static final String BOLD_STYLE = "\" s=\"4\"";
+
+    private static final String DATE_TIME_STYLE = "\" s=\"5\"";
+
+    private static final String DATE_STYLE = "\" s=\"6\"";
+
+    /**
+     * 2^53以内的整数可按long精确输出
+     */
+    private static final double MAX_EXACT_INTEGER = 9007199254740992d;
+
+    private static final int DEFAULT_COLUMN_WIDTH = 8;
+
+    /**
+     * excel允许的sheet名最大长度
+     */
+    private static final int MAX_SHEET_NAME_LENGTH = 31;
+
+    private final String sheetName;
+
+    private final List<CellRangeAddress> mergedRegions;
+
+    /**
+     * sheetData临时文件所在目录与配额
+     */
+    private final SpillManager spillManager;
+
+    private final File sheetDataFile;
+
+    /**
+     * 已向SpillManager预占的字节数，删除临时文件时归还
+     */
+    private long reservedBytes;
+
+    private boolean deleted;
+
+    private final XmlCharWriter xml;
+
+    /**
+     * 列名缓存("A","B"...)，避免逐格计算
+     */
+    private String[] columnNames = new String[0];
+
+    /**
+     * 调整过的列宽，以1/256字符为单位，0表示未调整
+     */
+    private int[] columnWidths = new int[16];
+
+    private int rowNum;
+
+    DirectXlsxWriter(final SheetTemplate template, final String sheetName, final SpillManager spillManager) throws IOException {
+        super(template.hasTitle(), template.firstDataRowNum(), template.isTypedCells(), template.isExpandRows());
+        //与XSSFWorkbook.createSheet一致：超过31个字符时截断，非法字符时抛出，否则excel会报文件损坏
+        final String name = StringUtils.isBlank(sheetName) ? "Sheet1" : sheetName;
+        this.sheetName = name.length() > MAX_SHEET_NAME_LENGTH ? name.substring(0, MAX_SHEET_NAME_LENGTH) : name;
+        WorkbookUtil.validateSheetName(this.sheetName);
+        this.mergedRegions = new ArrayList<>(template.getMergedRegions());
+        final int[] presetWidths = template.columnWidths();
+        for (int i = 0; i < presetWidths.length; i++) {
+            if (presetWidths[i] > 0) {
+                setColumnWidth(i, presetWidths[i]);
+            }
+        }
+        this.spillManager = spillManager;
+        this.sheetDataFile = spillManager.createTempFile(".xml");
+        this.xml = new XmlCharWriter(new OutputStreamWriter(new QuotaOutputStream(openSheetData()), StandardCharsets.UTF_8));
+        try {
+            int headerRowNum = 0;
+            if (template.hasTitle()) {
+                startRow(0);
+                inlineString(0, template.getTitleName(), TITLE_STYLE);
+                endRow();
+                headerRowNum = 1;
+            }
+            //表头
+            final String[] headers = template.getHeaders();
+            startRow(headerRowNum);
+            for (int i = 0; i < headers.length; i++) {
+                inlineString(i, headers[i], HEADER_STYLE);
+            }
+            endRow();
+        } catch (final RuntimeException e) {
+            //构造失败时调用方拿不到实例，在此删除临时文件
+            try {
+                close();
+            } catch (final IOException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            throw e;
+        }
+    }
+
+    private FileOutputStream openSheetData() throws IOException {
+        try {
+            return new FileOutputStream(sheetDataFile);
+        } catch (final IOException e) {
+            deleteSheetData();
+            throw e;
+        }
+    }
+
+    @Override
+    protected void startRow(final int rowNum) {
+        this.rowNum = rowNum + 1;
+        try {
+            xml.append("<row r=\"").append(this.rowNum).append("\">");
+        } catch (final IOException e) {
+            throw new SheetWriteException(e);
+        }
+    }
+
+    @Override
+    protected void endRow() {
+        try {
+            xml.append("</row>\n");
+        } catch (final IOException e) {
+            throw new SheetWriteException(e);
+        }
+    }
+
+    @Override
+    protected void blankCell(final int cellnum) {
+        try {
+            cellStart(cellnum).append(TEXT_STYLE).append("/>");
+        } catch (final IOException e) {
+            throw new SheetWriteException(e);
+        }
+    }
+
+    @Override
+    protected void stringCell(final int cellnum, final String value, final boolean special) {
+        inlineString(cellnum, value, special ? BOLD_STYLE : TEXT_STYLE);
+    }
+
+    @Override
+    protected void numericCell(final int cellnum, final double value) {
+        numberCell(cellnum, value, TEXT_STYLE);
+    }
+
+    @Override
+    protected void dateCell(final int cellnum, final double serial, final boolean dateOnly) {
+        numberCell(cellnum, serial, dateOnly ? DATE_STYLE : DATE_TIME_STYLE);
+    }
+
+    private void numberCell(final int cellnum, final double value, final String style) {
+        try {
+            if (Double.isInfinite(value) || Double.isNaN(value)) {
+                //与Cell.setCellValue(double)一致写为错误值，NaN/Infinity不是合法的数字单元格
+                cellStart(cellnum).append(style).append(" t=\"e\"><v>")
+                        .append(Double.isNaN(value) ? FormulaError.NUM.getString() : FormulaError.DIV0.getString())
+                        .append("</v></c>");
+                return;
+            }
+            cellStart(cellnum).append(style).append("><v>");
+            if (value == Math.rint(value) && Math.abs(value) < MAX_EXACT_INTEGER) {
+                xml.append((long) value);
+            } else {
+                xml.append(Double.toString(value));
+            }
+            xml.append("</v></c>");
+        } catch (final IOException e) {
+            throw new SheetWriteException(e);
+        }
+    }
+
+    @Override
+    protected int initialColumnWidth(final int cellnum) {
+        if (cellnum < columnWidths.length && columnWidths[cellnum] > 0) {
+            return columnWidths[cellnum] / 256;
+        }
+        return DEFAULT_COLUMN_WIDTH;
+    }
+
+    @Override
+    protected void setColumnWidth(final int cellnum, final int width) {
+        if (cellnum >= columnWidths.length) {
+            columnWidths = Arrays.copyOf(columnWidths, Math.max(cellnum + 1, columnWidths.length * 2));
+        }
+        columnWidths[cellnum] = width;
+    }
+
+    @Override
+    protected void mergeRows(final int firstRow, final int lastRow, final int cellnum) {
+        mergedRegions.add(new CellRangeAddress(firstRow, lastRow, cellnum, cellnum));
+    }
+
+    /**
+     * @param value 为空时与SXSSF一致写带样式的空单元格
+     */
+    private void inlineString(final int cellnum, final String value, final String style) {
+        try {
+            if (value == null) {
+                cellStart(cellnum).append(style).append("/>");
+                return;
+            }
+            cellStart(cellnum).append(style).append(" t=\"inlineStr\"><is><t");
+            if (!value.isEmpty() && (Character.isWhitespace(value.charAt(0)) || Character.isWhitespace(value.charAt(value.length() - 1)))) {
+                xml.append(" xml:space=\"preserve\"");
+            }
+            xml.append('>').appendEscaped(value).append("</t></is></c>");
+        } catch (final IOException e) {
+            throw new SheetWriteException(e);
+        }
+    }
+
+    private XmlCharWriter cellStart(final int cellnum) throws IOException {
+        return xml.append("<c r=\"").append(columnName(cellnum)).append(rowNum);
+    }
+
+    private String columnName(final int cellnum) {
+        if (cellnum >= columnNames.length) {
+            final int oldLength = columnNames.length;
+            columnNames = Arrays.copyOf(columnNames, Math.max(cellnum + 1, Math.max(16, oldLength * 2)));
+            for (int i = oldLength; i < columnNames.length; i++) {
+                columnNames[i] = CellReference.convertNumToColString(i);
+            }
+        }
+        return columnNames[cellnum];
+    }
+
+    /**
+     * 打包输出xlsx，sheet xml在此拼装：列宽 + 临时sheetData + 合并单元格；
+     * 多个writer按顺序打包为sheet1..n并共用样式表，用于超出单sheet行数上限时续写
+     *
+     * @param zip 由ParallelZipOutputStream.open按压缩参数创建，只finish不关闭下层输出流
+     */
+    static void write(final ZipArchiveOutputStream zip, final List<DirectXlsxWriter> sheets) throws IOException {
+        for (final DirectXlsxWriter sheet : sheets) {
+            sheet.xml.close();
+        }
+        final XmlCharWriter part = new XmlCharWriter(new OutputStreamWriter(zip, StandardCharsets.UTF_8));
+        zip.putArchiveEntry(new ZipArchiveEntry("[Content_Types].xml"));
+        part.append(CONTENT_TYPES_START);
+        for (int i = 1; i <= sheets.size(); i++) {
+            part.append("<Override PartName=\"/xl/worksheets/sheet").append(i).append(".xml").append(WORKSHEET_CONTENT_TYPE);
+        }
+        part.append("</Types>").flush();
+        zip.closeArchiveEntry();
+        putEntry(zip, part, "_rels/.rels", ROOT_RELS);
+        zip.putArchiveEntry(new ZipArchiveEntry("xl/workbook.xml"));
+        part.append(XML_HEADER)
+                .append("<workbook xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\" xmlns:r=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships\">")
+                .append("<bookViews><workbookView activeTab=\"0\"/></bookViews><sheets>");
+        for (int i = 1; i <= sheets.size(); i++) {
+            part.append("<sheet name=\"").appendEscaped(sheets.get(i - 1).sheetName)
+                    .append("\" sheetId=\"").append(i).append("\" r:id=\"rId").append(i).append("\"/>");
+        }
+        part.append("</sheets></workbook>").flush();
+        zip.closeArchiveEntry();
+        //样式关系排在各sheet之后
+        zip.putArchiveEntry(new ZipArchiveEntry("xl/_rels/workbook.xml.rels"));
+        part.append(RELATIONSHIPS_START);
+        for (int i = 1; i <= sheets.size(); i++) {
+            part.append("<Relationship Id=\"rId").append(i).append(WORKSHEET_RELATIONSHIP).append(i).append(".xml\"/>");
+        }
+        part.append("<Relationship Id=\"rId").append(sheets.size() + 1).append(STYLES_RELATIONSHIP)
+                .append("</Relationships>").flush();
+        zip.closeArchiveEntry();
+        putEntry(zip, part, "xl/styles.xml", STYLES);
+
+        for (int i = 1; i <= sheets.size(); i++) {
+            final DirectXlsxWriter sheet = sheets.get(i - 1);
+            zip.putArchiveEntry(new ZipArchiveEntry("xl/worksheets/sheet" + i + ".xml"));
+            part.append(WORKSHEET_START).append(i == 1 ? SELECTED_SHEET_VIEW : SHEET_VIEW).append(SHEET_FORMAT);
+            sheet.writeColumns(part);
+            part.append("<sheetData>").flush();
+            sheet.spillManager.read(Files.copy(sheet.sheetDataFile.toPath(), zip));
+            part.append("</sheetData>");
+            sheet.writeMergedRegions(part);
+            part.append(WORKSHEET_END).flush();
+            zip.closeArchiveEntry();
+        }
+        zip.finish();
+        zip.flush();
+    }
+
+    private void writeColumns(final XmlCharWriter part) throws IOException {
+        boolean started = false;
+        for (int i = 0; i < columnWidths.length; i++) {
+            if (columnWidths[i] == 0) {
+                continue;
+            }
+            if (!started) {
+                part.append("<cols>");
+                started = true;
+            }
+            //与XSSFSheet.setColumnWidth一致，宽度为width/256个字符
+            part.append("<col min=\"").append(i + 1).append("\" max=\"").append(i + 1)
+                    .append("\" width=\"").append(Double.toString(columnWidths[i] / 256.0))
+                    .append("\" customWidth=\"1\"/>");
+        }
+        if (started) {
+            part.append("</cols>");
+        }
+    }
+
+    private void writeMergedRegions(final XmlCharWriter part) throws IOException {
+        if (mergedRegions.isEmpty()) {
+            return;
+        }
+        part.append("<mergeCells count=\"").append(mergedRegions.size()).append("\">");
+        for (final CellRangeAddress region : mergedRegions) {
+            part.append("<mergeCell ref=\"").append(region.formatAsString()).append("\"/>");
+        }
+        part.append("</mergeCells>");
+    }
+
+    private static void putEntry(final ZipArchiveOutputStream zip, final XmlCharWriter part, final String name, final String content) throws IOException {
+        zip.putArchiveEntry(new ZipArchiveEntry(name));
+        part.append(content).flush();
+        zip.closeArchiveEntry();
+    }
+
+    /**
+     * 临时sheetData文件大小，write之后为最终大小
+     */
+    long getSheetDataBytes() {
+        return sheetDataFile.length();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            xml.close();
+        } finally {
+            deleteSheetData();
+        }
+    }
+
+    /**
+     * 删除临时文件并归还配额，可重复调用
+     */
+    private void deleteSheetData() throws IOException {
+        if (deleted) {
+            return;
+        }
+        deleted = true;
+        try {
+            Files.deleteIfExists(sheetDataFile.toPath());
+        } finally {
+            spillManager.fileDeleted(1);
+            spillManager.release(reservedBytes);
+            reservedBytes = 0;
+        }
+    }
+
+    /**
+     * 逐个关闭，某个失败时其余的临时文件仍会删除，抛出第一个异常
+     */
+    static void closeAll(final List<DirectXlsxWriter> sheets) throws IOException {
+        IOException error = null;
+        for (final DirectXlsxWriter sheet : sheets) {
+            try {
+                sheet.close();
+            } catch (final IOException e) {
+                if (error == null) {
+                    error = e;
+                }
+            }
+        }
+        if (error != null) {
+            throw error;
+        }
+    }
+
+    /**
+     * 写入前向SpillManager预占配额，与SXSSF的溢写文件共用同一配额
+     */
+    private final class QuotaOutputStream extends FilterOutputStream {
+
+        private QuotaOutputStream(final OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(final int b) throws IOException {
+            reserve(1);
+            out.write(b);
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) throws IOException {
+            reserve(len);
+            out.write(b, off, len);
+        }
+
+        private void reserve(final int bytes) throws IOException {
+            spillManager.reserve(bytes);
+            reservedBytes += bytes;
+        }
+    }
+
+    /**
+     * 行渲染回调中无法声明IOException，包装后在导出入口处还原
+     */
+    static final class SheetWriteException extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        SheetWriteException(final IOException cause) {
+            super(cause.getMessage(), cause);
+        }
+
+        @Override
+        public synchronized IOException getCause() {
+            return (IOException) super.getCause();
+        }
+    }
+}
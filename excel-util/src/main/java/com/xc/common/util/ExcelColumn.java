@@ -0,0 +1,39 @@
+package com.xc.common.util;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * @author Jq
+ * @Title ExcelColumn
+ * @Description 字段与excel列的映射；类中任一字段带此注解后，导入按表头名查找列、导出按注解顺序输出，未注解的字段不参与
+ * @date 2026/10/18 22:02:37
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.FIELD)
+public @interface ExcelColumn {
+
+    /**
+     * 表头名，为空时取字段名
+     */
+    String name() default "";
+
+    /**
+     * 列号(从0开始)，导入时不再按表头名查找，导出时按列号排序；小于0表示按表头名查找，导出时排在指定列号的字段之后
+     */
+    int index() default -1;
+
+    /**
+     * 日期格式(DateTimeFormatter)，导入时解析文本日期，导出时按文本输出日期
+     */
+    String format() default "";
+
+    /**
+     * 导入时表头必须存在且单元格不能为空
+     */
+    boolean required() default false;
+}
@@ -0,0 +1,22 @@
+package com.xc.common.util;
+
+/**
+ * @author Jq
+ * @Title ExcelMetricsListener
+ * @Description 导入导出统计回调SPI，通过ExcelUtil.setMetricsListener注册；默认为NOOP，此时不计时、不统计
+ * @date 2026/10/19 09:12:20
+ */
+@FunctionalInterface
+public interface ExcelMetricsListener {
+
+    /**
+     * 不做任何统计，ExcelUtil据此跳过全部计时
+     */
+    ExcelMetricsListener NOOP = metrics -> {
+    };
+
+    /**
+     * 任务结束(成功或失败)后在执行任务的线程中调用，不应阻塞；抛出的异常会被忽略
+     */
+    void onJobFinished(JobMetrics metrics);
+}
@@ -0,0 +1,51 @@
+package com.xc.common.util;
+
+/**
+ * @author Jq
+ * @Title ExcelPhase
+ * @Description 导入导出任务的阶段，各阶段耗时互不包含(嵌套阶段的耗时从外层阶段中扣除)
+ * @date 2026/10/19 09:05:11
+ */
+public enum ExcelPhase {
+    /**
+     * 导出：创建sheet、样式、标题与表头
+     */
+    STYLE_SETUP("style_setup"),
+    /**
+     * 导出：数据行渲染为行与单元格(DIRECT引擎直接序列化为xml)
+     */
+    RENDER_ROWS("render_rows"),
+    /**
+     * 导出：SXSSF把超出窗口的行序列化到溢写文件
+     */
+    FLUSH("flush"),
+    /**
+     * 导出：workbook.write打包输出(DIRECT引擎为拼装打包)
+     */
+    WRITE("write"),
+    /**
+     * 导入：打开文件，整体加载时包含全部sheet的解析，SAX时为包结构与共享字符串表
+     */
+    OPEN("open"),
+    /**
+     * 导入：SAX/HSSF事件解析单元格
+     */
+    PARSE("parse"),
+    /**
+     * 导入：单元格取值转换并赋值到对象
+     */
+    BIND("bind");
+
+    private final String tag;
+
+    ExcelPhase(final String tag) {
+        this.tag = tag;
+    }
+
+    /**
+     * 用作指标标签的小写名称
+     */
+    public String getTag() {
+        return tag;
+    }
+}
@@ -0,0 +1,409 @@
+package com.xc.common.util;
+
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.openxml4j.opc.PackagePart;
+import org.apache.poi.poifs.filesystem.FileMagic;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
+
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * @author Jq
+ * @Title ExcelSaxReader
+ * @Description 基于XSSFReader的SAX流式读取，逐行回调，内存占用不随文件大小增长
+ * @date 2026/10/18 09:12:40
+ */
+final class ExcelSaxReader {
+
+    private static final String ROW = "row";
+
+    private static final String CELL = "c";
+
+    private static final String VALUE = "v";
+
+    private static final String INLINE_TEXT = "t";
+
+    private static final String TYPE_SHARED_STRING = "s";
+
+    private static final String TYPE_INLINE_STRING = "inlineStr";
+
+    private static final String TYPE_FORMULA_STRING = "str";
+
+    private static final String TYPE_BOOLEAN = "b";
+
+    private static final String TYPE_ERROR = "e";
+
+    private static final String TYPE_DATE = "d";
+
+    /**
+     * 行回调
+     */
+    interface RowCallback {
+        /**
+         * @param rowNum 行号(从0开始)
+         * @param values 单元格原始值(Double/String/Boolean/null)，数组在行之间复用，回调内不可持有
+         */
+        void onRow(int rowNum, Object[] values);
+    }
+
+    private ExcelSaxReader(){
+
+    }
+
+    /**
+     * 直接基于文件随机访问读取，不会把整个文件拷贝进内存
+     */
+    static void read(final File file,
+                     final int sheetIndex,
+                     final int columnCount,
+                     final RowCallback callback) throws IOException, OpenXML4JException, SAXException, ParserConfigurationException {
+        read(file, sheetIndex, columnCount, new ReadScope(), callback);
+    }
+
+    /**
+     * 按文件头识别格式，.xls(OLE2)交给XlsEventReader按HSSF事件模型读取，回调的行与取值规则一致
+     *
+     * @param scope 只解析选中的列，超过最后一行后停止解析
+     */
+    static void read(final File file,
+                     final int sheetIndex,
+                     final int columnCount,
+                     final ReadScope scope,
+                     final RowCallback callback) throws IOException, OpenXML4JException, SAXException, ParserConfigurationException {
+        if (FileMagic.valueOf(file) == FileMagic.OLE2) {
+            XlsEventReader.read(file, sheetIndex, columnCount, scope, callback);
+            return;
+        }
+        final JobRecorder.Span open = scope.recorder.begin(ExcelPhase.OPEN);
+        try (OPCPackage pkg = OPCPackage.open(file, PackageAccess.READ)) {
+            open.end();
+            read(pkg, sheetIndex, columnCount, scope, callback);
+        }
+    }
+
+    /**
+     * @throws IllegalArgumentException sheetIndex超出sheet数
+     */
+    static void read(final OPCPackage pkg,
+                     final int sheetIndex,
+                     final int columnCount,
+                     final ReadScope scope,
+                     final RowCallback callback) throws IOException, OpenXML4JException, SAXException, ParserConfigurationException {
+        final JobRecorder.Span open = scope.recorder.begin(ExcelPhase.OPEN);
+        final XSSFReader reader = new XSSFReader(pkg);
+        final ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg);
+        final XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) reader.getSheetsData();
+        open.end();
+        int index = 0;
+        while (sheets.hasNext()) {
+            try (InputStream sheet = sheets.next()) {
+                if (index++ == sheetIndex) {
+                    parse(sheet, strings, columnCount, scope, callback);
+                    return;
+                }
+            }
+        }
+        throw new IllegalArgumentException("Sheet not found : " + sheetIndex);
+    }
+
+    /**
+     * 按workbook中的顺序列出全部sheet，只解析workbook.xml，不读取sheet内容
+     */
+    static List<SheetSource> sheets(final XSSFReader reader) throws IOException, InvalidFormatException {
+        final XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) reader.getSheetsData();
+        final List<SheetSource> sources = new ArrayList<>();
+        while (sheets.hasNext()) {
+            //next()会打开sheet流，这里只取名称与PackagePart后立即关闭
+            try (InputStream ignored = sheets.next()) {
+                sources.add(new SheetSource(sources.size(), sheets.getSheetName(), sheets.getSheetPart()));
+            }
+        }
+        return sources;
+    }
+
+    /**
+     * 读取单个sheet，不同sheet可在不同线程中同时读取，共享的字符串表只读
+     */
+    static void read(final SheetSource sheet,
+                     final ReadOnlySharedStringsTable strings,
+                     final int columnCount,
+                     final ReadScope scope,
+                     final RowCallback callback) throws IOException, SAXException, ParserConfigurationException {
+        try (InputStream in = sheet.part.getInputStream()) {
+            parse(in, strings, columnCount, scope, callback);
+        }
+    }
+
+    private static void parse(final InputStream sheet,
+                              final ReadOnlySharedStringsTable strings,
+                              final int columnCount,
+                              final ReadScope scope,
+                              final RowCallback callback) throws IOException, SAXException, ParserConfigurationException {
+        final XMLReader parser = XMLHelper.newXMLReader();
+        parser.setContentHandler(new SheetHandler(strings, columnCount, scope, callback));
+        //回调中的绑定耗时由调用方计入BIND，从PARSE中扣除
+        final JobRecorder.Span parse = scope.recorder.begin(ExcelPhase.PARSE);
+        try {
+            parser.parse(new InputSource(sheet));
+        } catch (final StopParsingException e) {
+            //已读到最后一行，剩余部分不再解析
+        } finally {
+            parse.end();
+        }
+    }
+
+    /**
+     * 将"AB12"形式的单元格引用转为列下标(从0开始)
+     */
+    static int columnIndex(final String ref) {
+        int column = 0;
+        for (int i = 0; i < ref.length(); i++) {
+            final char c = ref.charAt(i);
+            if (c < 'A' || c > 'Z') {
+                break;
+            }
+            column = column * 26 + (c - 'A' + 1);
+        }
+        return column - 1;
+    }
+
+    /**
+     * 读取范围，回调中可修改(如读到表头后再确定列)
+     */
+    static final class ReadScope {
+
+        /**
+         * 为空表示全部列，未选中的列不取值、不查共享字符串表
+         */
+        private boolean[] columns;
+
+        /**
+         * 最后一行行号(从0开始，含)
+         */
+        private int lastRow = Integer.MAX_VALUE;
+
+        /**
+         * 列号超出columnCount时扩展取值数组，否则丢弃
+         */
+        private boolean growable;
+
+        /**
+         * 打开与解析耗时记入该任务
+         */
+        private JobRecorder recorder = JobRecorder.NONE;
+
+        boolean[] getColumns() {
+            return columns;
+        }
+
+        void setColumns(final boolean[] columns) {
+            this.columns = columns;
+        }
+
+        void setLastRow(final int lastRow) {
+            this.lastRow = lastRow;
+        }
+
+        void setGrowable(final boolean growable) {
+            this.growable = growable;
+        }
+
+        int getLastRow() {
+            return lastRow;
+        }
+
+        boolean isGrowable() {
+            return growable;
+        }
+
+        JobRecorder getRecorder() {
+            return recorder;
+        }
+
+        void setRecorder(final JobRecorder recorder) {
+            this.recorder = recorder;
+        }
+
+        boolean skip(final int column) {
+            return columns != null && (column >= columns.length || !columns[column]);
+        }
+    }
+
+    private static final class StopParsingException extends SAXException {
+
+        private static final long serialVersionUID = 1L;
+    }
+
+    /**
+     * workbook中的一个sheet
+     */
+    static final class SheetSource {
+
+        private final int index;
+
+        private final String name;
+
+        private final PackagePart part;
+
+        private SheetSource(final int index, final String name, final PackagePart part) {
+            this.index = index;
+            this.name = name;
+            this.part = part;
+        }
+
+        int getIndex() {
+            return index;
+        }
+
+        String getName() {
+            return name;
+        }
+    }
+
+    private static final class SheetHandler extends DefaultHandler {
+
+        private final ReadOnlySharedStringsTable strings;
+
+        private Object[] values;
+
+        private final RowCallback callback;
+
+        private final ReadScope scope;
+
+        private final StringBuilder text = new StringBuilder(64);
+
+        private boolean collecting;
+
+        private boolean skipCell;
+
+        private boolean rowHasValue;
+
+        private String cellType;
+
+        private int column;
+
+        private int nextColumn;
+
+        private int rowNum;
+
+        private int nextRowNum;
+
+        private SheetHandler(final ReadOnlySharedStringsTable strings,
+                             final int columnCount,
+                             final ReadScope scope,
+                             final RowCallback callback) {
+            this.strings = strings;
+            this.values = new Object[columnCount];
+            this.scope = scope;
+            this.callback = callback;
+        }
+
+        @Override
+        public void startElement(final String uri, final String localName, final String qName, final Attributes attributes) throws SAXException {
+            switch (localName) {
+                case ROW:
+                    final String r = attributes.getValue("r");
+                    rowNum = r == null ? nextRowNum : Integer.parseInt(r) - 1;
+                    if (rowNum > scope.lastRow) {
+                        throw new StopParsingException();
+                    }
+                    Arrays.fill(values, null);
+                    rowHasValue = false;
+                    nextColumn = 0;
+                    break;
+                case CELL:
+                    final String ref = attributes.getValue("r");
+                    column = ref == null ? nextColumn : columnIndex(ref);
+                    nextColumn = column + 1;
+                    skipCell = scope.skip(column);
+                    cellType = attributes.getValue("t");
+                    text.setLength(0);
+                    break;
+                case VALUE:
+                case INLINE_TEXT:
+                    collecting = !skipCell;
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        @Override
+        public void endElement(final String uri, final String localName, final String qName) {
+            switch (localName) {
+                case VALUE:
+                case INLINE_TEXT:
+                    collecting = false;
+                    break;
+                case CELL:
+                    if (skipCell) {
+                        break;
+                    }
+                    final Object value = cellValue();
+                    if (value != null) {
+                        rowHasValue = true;
+                        if (column >= values.length && scope.growable) {
+                            values = Arrays.copyOf(values, Math.max(column + 1, values.length * 2));
+                        }
+                        if (column < values.length) {
+                            values[column] = value;
+                        }
+                    }
+                    break;
+                case ROW:
+                    //与isRowEmpty保持一致，空行不回调
+                    if (rowHasValue) {
+                        callback.onRow(rowNum, values);
+                    }
+                    nextRowNum = rowNum + 1;
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        @Override
+        public void characters(final char[] ch, final int start, final int length) {
+            if (collecting) {
+                text.append(ch, start, length);
+            }
+        }
+
+        private Object cellValue() {
+            if (cellType == null) {
+                return text.length() == 0 ? null : Double.valueOf(text.toString());
+            }
+            switch (cellType) {
+                case TYPE_SHARED_STRING:
+                    //<v>为空时没有共享字符串下标，与空单元格相同
+                    return text.length() == 0 ? null : strings.getItemAt(Integer.parseInt(text.toString())).getString();
+                case TYPE_INLINE_STRING:
+                case TYPE_FORMULA_STRING:
+                case TYPE_DATE:
+                    return text.toString();
+                case TYPE_BOOLEAN:
+                    return text.length() == 0 ? null : Boolean.valueOf(text.charAt(0) == '1');
+                case TYPE_ERROR:
+                    return null;
+                default:
+                    return text.length() == 0 ? null : Double.valueOf(text.toString());
+            }
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.xc.common.util;
+
+import org.apache.commons.lang3.StringUtils;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * @author Jq
+ * @Title ExcelSchema
+ * @Description 按Class缓存的列映射，由ExcelColumn注解解析一次，导入的表头查找与导出的列顺序、表头共用
+ * @date 2026/10/18 22:06:15
+ */
+final class ExcelSchema {
+
+    private static final ConcurrentMap<Class<?>, ExcelSchema> SCHEMAS = new ConcurrentHashMap<>();
+
+    static final class Column {
+
+        private final Field field;
+
+        private final String name;
+
+        private final int index;
+
+        /**
+         * 未设置format时为空
+         */
+        private final DateTimeFormatter formatter;
+
+        private final boolean required;
+
+        private Column(final Field field, final String name, final int index, final DateTimeFormatter formatter, final boolean required) {
+            this.field = field;
+            this.name = name;
+            this.index = index;
+            this.formatter = formatter;
+            this.required = required;
+        }
+
+        Field getField() {
+            return field;
+        }
+
+        String getName() {
+            return name;
+        }
+
+        int getIndex() {
+            return index;
+        }
+
+        DateTimeFormatter getFormatter() {
+            return formatter;
+        }
+
+        boolean isRequired() {
+            return required;
+        }    }
+
+    /**
+     * 是否带ExcelColumn注解，否则保持按字段声明顺序对应列号
+     */
+    private final boolean annotated;
+
+    /**
+     * 导出顺序：指定列号的按列号排序在前，其余按声明顺序在后
+     */
+    private final Column[] columns;
+
+    private ExcelSchema(final boolean annotated, final Column[] columns) {
+        this.annotated = annotated;
+        this.columns = columns;
+    }
+
+    static ExcelSchema of(final Class<?> cls) {
+        return SCHEMAS.computeIfAbsent(cls, ExcelSchema::compile);
+    }
+
+    boolean isAnnotated() {
+        return annotated;
+    }
+
+    Column[] getColumns() {
+        return columns;
+    }
+
+    /**
+     * 是否有按元素类型展开的集合字段
+     */
+    boolean hasElementColumns() {
+        for (final Column column : columns) {
+            if (elementClass(column.field) != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 集合字段按元素类型的列展开一层，与展开为多行导出时的列布局一致；指定列号的写在该列，跳过的列表头为空
+     */
+    String[] headers() {
+        final List<String> headers = new ArrayList<>(columns.length);
+        for (final Column column : columns) {
+            pad(headers, exportIndex(column));
+            final Class<?> elementClass = elementClass(column.field);
+            if (elementClass == null) {
+                headers.add(column.name);
+                continue;
+            }
+            final int start = headers.size();
+            final ExcelSchema elementSchema = of(elementClass);
+            for (final Column element : elementSchema.columns) {
+                pad(headers, start + elementSchema.exportIndex(element));
+                headers.add(element.name);
+            }
+        }
+        return headers.toArray(new String[0]);
+    }
+
+    /**
+     * 导出时相对于起始列的列号：注解指定的index；未指定或未带注解的类为-1，紧接前一列写出
+     */
+    int exportIndex(final Column column) {
+        return annotated ? column.index : -1;
+    }
+
+    private static void pad(final List<String> headers, final int index) {
+        while (headers.size() < index) {
+            headers.add("");
+        }
+    }
+
+    /**
+     * 集合字段声明的元素类型，如List&lt;Item&gt;中的Item；非集合、未声明泛型或元素为String等简单类型时为空
+     */
+    static Class<?> elementClass(final Field field) {
+        //与导出时判断集合的规则一致
+        if (ExportPlan.resolveType(field.getType()) != ExportPlan.ValueType.COLLECTION
+                || !Collection.class.isAssignableFrom(field.getType())
+                || !(field.getGenericType() instanceof ParameterizedType)) {
+            return null;
+        }
+        final Type[] arguments = ((ParameterizedType) field.getGenericType()).getActualTypeArguments();
+        if (arguments.length != 1 || !(arguments[0] instanceof Class)) {
+            return null;
+        }
+        final Class<?> elementClass = (Class<?>) arguments[0];
+        if (elementClass.isPrimitive() || elementClass.isArray() || elementClass.getName().startsWith("java.")) {
+            return null;
+        }
+        return elementClass;
+    }
+
+    private static ExcelSchema compile(final Class<?> cls) {
+        final Field[] fields = cls.getDeclaredFields();
+        final List<Column> columns = new ArrayList<>(fields.length);
+        for (final Field field : fields) {
+            final ExcelColumn annotation = field.getAnnotation(ExcelColumn.class);
+            if (annotation != null) {
+                columns.add(new Column(field,
+                        StringUtils.isEmpty(annotation.name()) ? field.getName() : annotation.name(),
+                        annotation.index(),
+                        StringUtils.isEmpty(annotation.format()) ? null : DateTimeFormatter.ofPattern(annotation.format()),
+                        annotation.required()));
+            }
+        }
+        if (columns.isEmpty()) {
+            final Column[] declared = new Column[fields.length];
+            for (int i = 0; i < fields.length; i++) {
+                declared[i] = new Column(fields[i], fields[i].getName(), i, null, false);
+            }
+            return new ExcelSchema(false, declared);
+        }
+        //稳定排序，未指定列号的保持声明顺序
+        columns.sort(Comparator.comparingInt(column -> column.index < 0 ? Integer.MAX_VALUE : column.index));
+        final Set<Integer> indexes = new HashSet<>();
+        for (final Column column : columns) {
+            if (column.index >= 0 && !indexes.add(column.index)) {
+                throw new IllegalStateException(cls.getName() + " has more than one field mapped to column " + column.index);
+            }
+        }
+        return new ExcelSchema(true, columns.toArray(new Column[0]));
+    }
+}
@@ -0,0 +1,1231 @@
+package com.xc.common.util;
+
+import lombok.extern.log4j.Log4j2;
+import org.apache.commons.collections4.CollectionUtils;
+import org.apache.commons.collections4.iterators.PeekingIterator;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.poi.poifs.filesystem.FileMagic;
+import org.apache.poi.ss.usermodel.*;
+import org.apache.poi.ss.util.CellRangeAddress;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFRow;
+import org.apache.poi.xssf.usermodel.XSSFSheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.text.SimpleDateFormat;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * @author Jq
+ * @Title ExcelUtil
+ * @Description
+ * @date 2020/3/19 17:01:24
+ */
+@Log4j2
+public class ExcelUtil {
+    private static final String APPLICATION_HEADER = "application/vnd.ms-excel;charset=UTF-8";
+
+    private static final String CONTENT_DISPOSITION = "Content-disposition";
+
+    private static final String SUFFIX = ".xlsx";
+
+    private static final String FILE_NAME_EXCHANGE_ORDER = "attachment;filename=";
+
+    private static final int MAX_SHEET_NAME_LENGTH = 31;
+
+    public static final String BOLD = "bold";
+
+    /**
+     * 导入导出准入控制，超出内存或CPU预算的任务排队或抛出AdmissionRejectedException
+     */
+    private static volatile AdmissionController admissionController = AdmissionController.defaults();
+
+    /**
+     * 导入导出统计回调，默认不统计
+     */
+    private static volatile ExcelMetricsListener metricsListener = ExcelMetricsListener.NOOP;
+
+    private ExcelUtil(){
+
+    }
+
+    public static <T> void export(final String fileNamePrefix,
+                                  final String[] rowName,
+                                  final List<T> data,
+                                  final String sheetName,
+                                  final HttpServletResponse response,
+                                  final String titleName,
+                                  final List<CellRangeAddress> cellRangeAddressList) {
+        //数据为空时与原先一致，在导出中失败并记录日志，不抛给调用方
+        export(fileNamePrefix,rowName,data != null ? data.iterator() : null,sheetName,response,titleName,cellRangeAddressList,ExportOptions.defaults());
+    }
+
+    /**
+     * 流式导出，数据按Stream逐条消费，导出结束后关闭Stream
+     */
+    public static <T> void export(final String fileNamePrefix,
+                                  final String[] rowName,
+                                  final Stream<T> data,
+                                  final String sheetName,
+                                  final HttpServletResponse response,
+                                  final String titleName,
+                                  final List<CellRangeAddress> cellRangeAddressList,
+                                  final ExportOptions options) {
+        try (Stream<T> stream = data) {
+            export(fileNamePrefix,rowName,stream != null ? stream.iterator() : null,sheetName,response,titleName,cellRangeAddressList,options);
+        }
+    }
+
+    /**
+     * 分页导出，每页写完后释放再拉取下一页
+     */
+    public static <T> void export(final String fileNamePrefix,
+                                  final String[] rowName,
+                                  final PageFetcher<T> fetcher,
+                                  final String sheetName,
+                                  final HttpServletResponse response,
+                                  final String titleName,
+                                  final List<CellRangeAddress> cellRangeAddressList,
+                                  final ExportOptions options) {
+        export(fileNamePrefix,rowName,new PagedIterator<>(fetcher,options.getPageSize()),sheetName,response,titleName,cellRangeAddressList,options);
+    }
+
+    /**
+     * 流式导出，数据按Iterator逐条消费，不要求一次性加载到内存
+     */
+    public static <T> void export(final String fileNamePrefix,
+                                  final String[] rowName,
+                                  final Iterator<T> data,
+                                  final String sheetName,
+                                  final HttpServletResponse response,
+                                  final String titleName,
+                                  final List<CellRangeAddress> cellRangeAddressList,
+                                  final ExportOptions options) {
+        final SheetTemplate template;
+        try {
+            template = SheetTemplate.of(rowName,titleName,cellRangeAddressList);
+        }catch (final Exception e){
+            //表头为空、合并单元格无效或重叠时与原先一致，记录日志不抛给调用方
+            log.warn("Export Excel error : {}",e.getMessage());
+            return;
+        }
+        export(fileNamePrefix,template,data,sheetName,response,options);
+    }
+
+    /**
+     * 按编译好的sheet模板流式导出，模板可在多次请求间复用
+     */
+    public static <T> void export(final String fileNamePrefix,
+                                  final SheetTemplate template,
+                                  final Iterator<T> data,
+                                  final String sheetName,
+                                  final HttpServletResponse response,
+                                  final ExportOptions options) {
+        if (options.isCacheable()) {
+            exportCached(fileNamePrefix,template,data,sheetName,null,response,options);
+            return;
+        }
+        final AdmissionController.Permit permit = admissionController.acquire("export " + fileNamePrefix,
+                AdmissionController.exportCost(template, options), options.cpuSlots());
+        final JobRecorder recorder = JobRecorder.export(fileNamePrefix);
+        BufferedOutputStream bos = null;
+        try {
+            bos = getBufferedOutputStream(buildFileName(fileNamePrefix), response);
+            doExport(template,sheetName,data,bos,options,recorder);
+        }catch (final Exception e){
+            recorder.failed(e);
+            log.warn("Export Excel error : {}",e.getMessage());
+        }finally {
+            permit.close();
+            try {
+                if (bos != null) {
+                    bos.close();
+                }
+            } catch (IOException e) {
+                recorder.failed(e);
+                log.warn("Export Excel error :{} ",e.getMessage());
+            }
+            recorder.finish();
+        }
+
+    }
+
+    /**
+     * 带缓存的导出：options设置cache与reportKey时，同一reportKey + dataVersion只生成一次，命中时直接输出缓存文件，
+     * 请求带If-None-Match且与ETag一致时返回304；数据源只在未命中时消费，文件名每次按前缀重新生成
+     */
+    public static <T> void export(final String fileNamePrefix,
+                                  final SheetTemplate template,
+                                  final Iterator<T> data,
+                                  final String sheetName,
+                                  final HttpServletRequest request,
+                                  final HttpServletResponse response,
+                                  final ExportOptions options) {
+        if (!options.isCacheable()) {
+            export(fileNamePrefix,template,data,sheetName,response,options);
+            return;
+        }
+        exportCached(fileNamePrefix,template,data,sheetName,request,response,options);
+    }
+
+    /**
+     * 导出csv/tsv，表头与字段映射(含集合平铺)与export一致，没有xlsx的1048576行上限，适合超大数据量或程序读取
+     */
+    public static <T> void exportCsv(final String fileNamePrefix,
+                                     final String[] rowName,
+                                     final Iterator<T> data,
+                                     final HttpServletResponse response,
+                                     final CsvOptions options) {
+        exportCsv(fileNamePrefix,SheetTemplate.of(rowName,null,null),data,response,options);
+    }
+
+    /**
+     * 按sheet模板导出csv/tsv：只输出表头与数据行，标题与合并单元格不适用；逐行编码后直接写入响应流，gzip时边写边压缩
+     */
+    public static <T> void exportCsv(final String fileNamePrefix,
+                                     final SheetTemplate template,
+                                     final Iterator<T> data,
+                                     final HttpServletResponse response,
+                                     final CsvOptions options) {
+        final AdmissionController.Permit permit = admissionController.acquire("export " + fileNamePrefix,
+                AdmissionController.csvExportCost(), 1);
+        final JobRecorder recorder = JobRecorder.export(fileNamePrefix);
+        BufferedOutputStream bos = null;
+        try {
+            bos = getBufferedOutputStream(buildFileName(fileNamePrefix, options.fileSuffix()), options.contentType(), response);
+            doCsvExport(template,data,bos,options,recorder);
+        }catch (final Exception e){
+            recorder.failed(e);
+            log.warn("Export csv error : {}",e.getMessage());
+        }finally {
+            permit.close();
+            try {
+                if (bos != null) {
+                    bos.close();
+                }
+            } catch (IOException e) {
+                recorder.failed(e);
+                log.warn("Export csv error :{} ",e.getMessage());
+            }
+            recorder.finish();
+        }
+    }
+
+    /**
+     * 只在生成时申请准入预算，命中缓存与304不占用
+     */
+    private static <T> void exportCached(final String fileNamePrefix,
+                                         final SheetTemplate template,
+                                         final Iterator<T> data,
+                                         final String sheetName,
+                                         final HttpServletRequest request,
+                                         final HttpServletResponse response,
+                                         final ExportOptions options) {
+        try {
+            options.getCache().serve(options.getReportKey(), options.getDataVersion(), buildFileName(fileNamePrefix), request, response, out -> {
+                final JobRecorder recorder = JobRecorder.export(options.getReportKey());
+                try (AdmissionController.Permit ignored = admissionController.acquire("export " + fileNamePrefix,
+                        AdmissionController.exportCost(template, options), options.cpuSlots())) {
+                    doExport(template,sheetName,data,out,options,recorder);
+                } catch (final IOException | RuntimeException e) {
+                    recorder.failed(e);
+                    throw e;
+                } finally {
+                    recorder.finish();
+                }
+            });
+        } catch (final AdmissionRejectedException e) {
+            throw e;
+        } catch (final Exception e) {
+            log.warn("Export Excel error : {}",e.getMessage());
+        }
+    }
+
+    public static <T> void exportManySheet(final String[] rowName,
+                                           final List<T> data,
+                                           final String sheetName,
+                                           final String titleName,
+                                           final SXSSFWorkbook workbook) throws IllegalAccessException, NoSuchFieldException, IOException {
+        createSheet(workbook,SheetTemplate.of(rowName,titleName,null),data.iterator(),sheetName);
+
+    }
+
+    public static <T> void exportManySheet(final String[] rowName,
+                                           final Iterator<T> data,
+                                           final String sheetName,
+                                           final String titleName,
+                                           final SXSSFWorkbook workbook) throws IllegalAccessException, NoSuchFieldException, IOException {
+        createSheet(workbook,SheetTemplate.of(rowName,titleName,null),data,sheetName);
+
+    }
+
+    public static <T> void exportManySheet(final String[] rowName,
+                                           final Stream<T> data,
+                                           final String sheetName,
+                                           final String titleName,
+                                           final SXSSFWorkbook workbook) throws IllegalAccessException, NoSuchFieldException, IOException {
+        try (Stream<T> stream = data) {
+            createSheet(workbook,SheetTemplate.of(rowName,titleName,null),stream.iterator(),sheetName);
+        }
+    }
+
+    public static <T> void exportManySheet(final String[] rowName,
+                                           final PageFetcher<T> fetcher,
+                                           final int pageSize,
+                                           final String sheetName,
+                                           final String titleName,
+                                           final SXSSFWorkbook workbook) throws IllegalAccessException, NoSuchFieldException, IOException {
+        createSheet(workbook,SheetTemplate.of(rowName,titleName,null),new PagedIterator<>(fetcher,pageSize),sheetName);
+
+    }
+
+    /**
+     * 按编译好的sheet模板向调用方提供的workbook追加sheet，同一workbook内的字体与样式只创建一次
+     */
+    public static <T> void exportManySheet(final SheetTemplate template,
+                                           final Iterator<T> data,
+                                           final String sheetName,
+                                           final SXSSFWorkbook workbook) {
+        createSheet(workbook,template,data,sheetName);
+    }
+
+    /**
+     * 多sheet并行导出：各sheet数据行在独立线程中渲染并写入各自的临时sheet xml，最后统一打包为一个xlsx
+     *
+     * @param parallelism 并行度，小于等于0时取CPU核数
+     */
+    public static void exportManySheetParallel(final String fileNamePrefix,
+                                               final List<SheetSpec<?>> sheets,
+                                               final HttpServletResponse response,
+                                               final int parallelism,
+                                               final ExportOptions options) {
+        long cost = 0;
+        for (final SheetSpec<?> spec : sheets) {
+            cost += AdmissionController.exportCost(spec.getTemplate(), options);
+        }
+        final AdmissionController.Permit permit = admissionController.acquire("export " + fileNamePrefix, cost,
+                Math.max(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors(), options.cpuSlots()));
+        final JobRecorder recorder = JobRecorder.export(fileNamePrefix);
+        BufferedOutputStream bos = null;
+        ManagedSXSSFWorkbook workbook = null;
+        try {
+            bos = getBufferedOutputStream(buildFileName(fileNamePrefix), response);
+            workbook = createManagedWorkbook(options);
+            workbook.setRecorder(recorder);
+            doParallelManySheetExport(sheets,workbook,parallelism,recorder);
+            final JobRecorder.Span write = recorder.begin(ExcelPhase.WRITE);
+            workbook.write(recorder.count(bos));
+            write.end();
+        }catch (final Exception e){
+            recorder.failed(e);
+            log.warn("Export Excel error : {}",e.getMessage());
+        }finally {
+            if (workbook != null) {
+                recorder.spill(workbook.getSpillBytes(), workbook.getSpillFiles());
+            }
+            dispose(workbook);
+            recorder.finish();
+            permit.close();
+            try {
+                if (bos != null) {
+                    bos.close();
+                }
+            } catch (IOException e) {
+                log.warn("Export Excel error :{} ",e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 多sheet并行写入调用方提供的workbook，写出由调用方完成
+     *
+     * @param parallelism 并行度，小于等于0时取CPU核数
+     */
+    public static void exportManySheetParallel(final List<SheetSpec<?>> sheets,
+                                               final SXSSFWorkbook workbook,
+                                               final int parallelism) throws IOException {
+        doParallelManySheetExport(sheets,workbook,parallelism,JobRecorder.NONE);
+    }
+
+    public static AdmissionController getAdmissionController() {
+        return admissionController;
+    }
+
+    /**
+     * 替换准入控制器，AdmissionController.unlimited()可关闭限制
+     */
+    public static void setAdmissionController(final AdmissionController controller) {
+        admissionController = controller;
+    }
+
+    public static ExcelMetricsListener getMetricsListener() {
+        return metricsListener;
+    }
+
+    /**
+     * 注册导入导出统计回调(各阶段耗时、行数、字节数、溢写文件与失败)，ExcelMetricsListener.NOOP关闭统计
+     */
+    public static void setMetricsListener(final ExcelMetricsListener listener) {
+        metricsListener = listener != null ? listener : ExcelMetricsListener.NOOP;
+    }
+
+    /**
+     * 创建溢写文件受SpillManager管理的workbook，供exportManySheet使用，写出后需调用write或dispose删除溢写文件
+     */
+    public static SXSSFWorkbook createWorkbook(final ExportOptions options) {
+        return createManagedWorkbook(options);
+    }
+
+    private static ManagedSXSSFWorkbook createManagedWorkbook(final ExportOptions options) {
+        return new ManagedSXSSFWorkbook(options.getRowAccessWindowSize(), options.isCompressTempFiles(), options.getSpillManager(),
+                options.getCompressionLevel(), options.getCompressionThreads(), options.getCompressionExecutor());
+    }
+
+    /**
+     * 输出exportManySheet填充好的workbook，无论成功与否都会删除溢写文件并关闭workbook
+     */
+    public static void write(final String fileNamePrefix, final SXSSFWorkbook workbook, final HttpServletResponse response) {
+        try (BufferedOutputStream bos = getBufferedOutputStream(buildFileName(fileNamePrefix), response)) {
+            workbook.write(bos);
+        }catch (final Exception e){
+            log.warn("Export Excel error : {}",e.getMessage());
+        }finally {
+            dispose(workbook);
+        }
+    }
+
+    private static void dispose(final SXSSFWorkbook workbook) {
+        if (workbook == null) {
+            return;
+        }
+        workbook.dispose();
+        try {
+            workbook.close();
+        } catch (final IOException e) {
+            log.warn("Close Excel workbook error :{}",e.getMessage());
+        }
+    }
+
+    /**
+     * 生成导出文件名：前缀 + 时间戳 + 4位随机数
+     */
+    static String buildFileName(final String fileNamePrefix) {
+        return buildFileName(fileNamePrefix, SUFFIX);
+    }
+
+    private static String buildFileName(final String fileNamePrefix, final String suffix) {
+        final SimpleDateFormat sdf=new SimpleDateFormat("yyyyMMddHHmmss");
+        return fileNamePrefix + sdf.format(new Date()) + String.format("%04d", new Random().nextInt(10000)) + suffix;
+    }
+
+    /**
+     * 从excel中读内容
+     */
+    public static <T> List<T> readExcel(final MultipartFile file, final Class<T> cls) {
+        if (isLegacyExcel(file)) {
+            //.xls按HSSF事件模型流式读取，绑定规则一致
+            return readExcelBySax(file, cls);
+        }
+        final AdmissionController.Permit permit = admissionController.acquire("import " + file.getOriginalFilename(),
+                AdmissionController.domImportCost(file.getSize()), 1);
+        final JobRecorder recorder = JobRecorder.importing(cls);
+        recorder.bytes(file.getSize());
+        XSSFWorkbook workBook = null;
+        List<T> list = new ArrayList<>();
+        try (InputStream inputStream = file.getInputStream()){
+            //读取工作簿
+            final JobRecorder.Span open = recorder.begin(ExcelPhase.OPEN);
+            workBook = new XSSFWorkbook(inputStream);
+            open.end();
+            list = doRead(workBook,cls,recorder);
+            recorder.rows(list.size());
+        }catch (final Exception e){
+            recorder.failed(e);
+            log.warn("Read MultipartFile Excel error :{}",e.getMessage());
+        }finally {
+            permit.close();
+            recorder.finish();
+            if(workBook != null){
+                //关闭工作簿
+                try {
+                    workBook.close();
+                } catch (IOException e) {
+                    log.warn("Read MultipartFile Excel error : {}",e.getMessage());
+                }
+            }
+        }
+        return list;
+    }
+
+    /**
+     * 从excel中读获取头内容
+     */
+    public static <T> T readExcelTitle(final MultipartFile file, final Class<T> cls) {
+        if (isLegacyExcel(file)) {
+            return readLegacyTitle(file, cls);
+        }
+        final AdmissionController.Permit permit = admissionController.acquire("import " + file.getOriginalFilename(),
+                AdmissionController.domImportCost(file.getSize()), 1);
+        final JobRecorder recorder = JobRecorder.importing(cls);
+        recorder.bytes(file.getSize());
+        XSSFWorkbook workBook = null;
+        List<T> list = new ArrayList<>();
+        try (InputStream inputStream = file.getInputStream()){
+            //读取工作簿
+            final JobRecorder.Span open = recorder.begin(ExcelPhase.OPEN);
+            workBook = new XSSFWorkbook(inputStream);
+            open.end();
+            list = doReadHeader(workBook,cls,recorder);
+            recorder.rows(list.size());
+        }catch (final Exception e){
+            recorder.failed(e);
+            log.warn("Read MultipartFile Excel error :{}",e.getMessage());
+        }finally {
+            permit.close();
+            recorder.finish();
+            if(workBook != null){
+                //关闭工作簿
+                try {
+                    workBook.close();
+                } catch (IOException e) {
+                    log.warn("Read MultipartFile Excel error : {}",e.getMessage());
+                }
+            }
+        }
+        if(CollectionUtils.isNotEmpty(list)){
+            return list.get(0);
+        }
+        return null;
+    }
+
+    /**
+     * 从excel中读内容
+     */
+    public static <T> List<T> readExcel(final File file,final Class<T> cls) {
+        if (isLegacyExcel(file)) {
+            //.xls按HSSF事件模型流式读取，绑定规则一致
+            return readExcelBySax(file, cls);
+        }
+        final AdmissionController.Permit permit = admissionController.acquire("import " + file.getName(),
+                AdmissionController.domImportCost(file.length()), 1);
+        final JobRecorder recorder = JobRecorder.importing(cls);
+        recorder.bytes(file.length());
+        XSSFWorkbook workBook = null;
+        List<T> list = new ArrayList<>();
+        try (InputStream inputStream = new FileInputStream(file)){
+            //读取工作簿
+            final JobRecorder.Span open = recorder.begin(ExcelPhase.OPEN);
+            workBook = new XSSFWorkbook(inputStream);
+            open.end();
+            list = doRead(workBook,cls,recorder);
+            recorder.rows(list.size());
+        }catch (final Exception e){
+            recorder.failed(e);
+            log.warn("Read File Excel error :{}",e.getMessage());
+        }finally {
+            permit.close();
+            recorder.finish();
+            if(workBook != null){
+                //关闭工作簿
+                try {
+                    workBook.close();
+                } catch (IOException e) {
+                    log.warn("Read File Excel error :{}",e.getMessage(),e);
+                }
+            }
+        }
+        return list;
+    }
+
+    /**
+     * 流式读取excel内容(SAX)，适用于大文件导入，内存占用不随行数增长
+     */
+    public static <T> List<T> readExcelBySax(final File file, final Class<T> cls) {
+        List<T> list = new ArrayList<>();
+        try (AdmissionController.Permit ignored = admissionController.acquire("import " + file.getName(),
+                AdmissionController.saxImportCost(file.length()), 1)) {
+            list = doSaxRead(file, cls);
+        }catch (final AdmissionRejectedException e){
+            throw e;
+        }catch (final Exception e){
+            log.warn("Read File Excel by sax error :{}",e.getMessage());
+        }
+        return list;
+    }
+
+    /**
+     * 流式读取excel内容(SAX)，上传文件先落盘到临时文件再按文件读取，避免整包缓存在内存中
+     */
+    public static <T> List<T> readExcelBySax(final MultipartFile file, final Class<T> cls) {
+        final AdmissionController.Permit permit = admissionController.acquire("import " + file.getOriginalFilename(),
+                AdmissionController.saxImportCost(file.getSize()), 1);
+        List<T> list = new ArrayList<>();
+        File tempFile = null;
+        try {
+            tempFile = File.createTempFile("excel-import-", SUFFIX);
+            try (InputStream inputStream = file.getInputStream()) {
+                Files.copy(inputStream, tempFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+            list = doSaxRead(tempFile, cls);
+        }catch (final Exception e){
+            log.warn("Read MultipartFile Excel by sax error :{}",e.getMessage());
+        }finally {
+            permit.close();
+            if (tempFile != null && !tempFile.delete()) {
+                tempFile.deleteOnExit();
+            }
+        }
+        return list;
+    }
+
+    /**
+     * 流式读取excel内容(SAX)，只解析选中的列与行范围，过滤在绑定前按原始值进行
+     *
+     * @throws AdmissionRejectedException 超出准入预算
+     */
+    public static <T> List<T> readExcel(final File file, final Class<T> cls, final ImportOptions options) {
+        List<T> list = new ArrayList<>();
+        try (AdmissionController.Permit ignored = admissionController.acquire("import " + file.getName(),
+                AdmissionController.saxImportCost(file.length()), 1)) {
+            list = doSaxRead(file, cls, options);
+        }catch (final AdmissionRejectedException e){
+            throw e;
+        }catch (final Exception e){
+            log.warn("Read File Excel with options error :{}",e.getMessage());
+        }
+        return list;
+    }
+
+    /**
+     * 流式读取excel内容(SAX)，上传文件先落盘到临时文件再读取
+     */
+    public static <T> List<T> readExcel(final MultipartFile file, final Class<T> cls, final ImportOptions options) {
+        final AdmissionController.Permit permit = admissionController.acquire("import " + file.getOriginalFilename(),
+                AdmissionController.saxImportCost(file.getSize()), 1);
+        List<T> list = new ArrayList<>();
+        File tempFile = null;
+        try {
+            tempFile = File.createTempFile("excel-import-", SUFFIX);
+            try (InputStream inputStream = file.getInputStream()) {
+                Files.copy(inputStream, tempFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+            list = doSaxRead(tempFile, cls, options);
+        }catch (final Exception e){
+            log.warn("Read MultipartFile Excel with options error :{}",e.getMessage());
+        }finally {
+            permit.close();
+            if (tempFile != null && !tempFile.delete()) {
+                tempFile.deleteOnExit();
+            }
+        }
+        return list;
+    }
+
+    /**
+     * 分批读取excel内容，解析与sink处理在两个线程中并行，每满batchSize行交给sink一次
+     */
+    public static <T> ImportResult readExcel(final File file,
+                                             final Class<T> cls,
+                                             final int batchSize,
+                                             final Consumer<List<T>> sink) {
+        return readExcel(file, cls, batchSize, sink, null);
+    }
+
+    /**
+     * 分批读取excel内容
+     *
+     * @param listener 每批处理完成后的进度回调，可为空
+     */
+    public static <T> ImportResult readExcel(final File file,
+                                             final Class<T> cls,
+                                             final int batchSize,
+                                             final Consumer<List<T>> sink,
+                                             final ImportProgressListener listener) {
+        final ImportResult result;
+        try (AdmissionController.Permit ignored = admissionController.acquire("import " + file.getName(),
+                AdmissionController.saxImportCost(file.length()), 2)) {
+            result = new BatchImportPipeline<>(cls, batchSize, sink, listener).run(file);
+        }
+        if (!result.isSuccess()) {
+            log.warn("Read File Excel by batch error :{}",result.getError().getMessage());
+        }
+        return result;
+    }
+
+    /**
+     * 分批读取excel内容，上传文件先落盘到临时文件再读取
+     */
+    public static <T> ImportResult readExcel(final MultipartFile file,
+                                             final Class<T> cls,
+                                             final int batchSize,
+                                             final Consumer<List<T>> sink,
+                                             final ImportProgressListener listener) {
+        File tempFile = null;
+        try {
+            tempFile = File.createTempFile("excel-import-", SUFFIX);
+            try (InputStream inputStream = file.getInputStream()) {
+                Files.copy(inputStream, tempFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+            return readExcel(tempFile, cls, batchSize, sink, listener);
+        }catch (final IOException e){
+            log.warn("Read MultipartFile Excel by batch error :{}",e.getMessage());
+            return new ImportResult(0, 0, e);
+        }finally {
+            if (tempFile != null && !tempFile.delete()) {
+                tempFile.deleteOnExit();
+            }
+        }
+    }
+
+    /**
+     * 多sheet并行读取，按sheet名或下标映射到各自的pojo class，并行度为CPU核数与sheet数的较小值
+     *
+     * @return 与imports一一对应的结果
+     */
+    public static List<SheetImportResult<?>> readExcelSheets(final File file, final List<SheetImport<?>> imports) {
+        if (CollectionUtils.isEmpty(imports)) {
+            return new ArrayList<>();
+        }
+        final ForkJoinPool pool = new ForkJoinPool(Math.min(Runtime.getRuntime().availableProcessors(), imports.size()));
+        try {
+            return readExcelSheets(file, imports, pool);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * 多sheet并行读取，sheet在调用方提供的executor中解析
+     */
+    public static List<SheetImportResult<?>> readExcelSheets(final File file,
+                                                             final List<SheetImport<?>> imports,
+                                                             final Executor executor) {
+        if (CollectionUtils.isEmpty(imports)) {
+            log.warn("Read File Excel sheets error :{}","no sheet to import");
+            return new ArrayList<>();
+        }
+        final AdmissionController.Permit permit = admissionController.acquire("import " + file.getName(),
+                AdmissionController.saxImportCost(file.length()), imports.size());
+        final JobRecorder recorder = JobRecorder.importing(SheetImport.class);
+        recorder.bytes(file.length());
+        final List<SheetImportResult<?>> results;
+        try {
+            results = MultiSheetImporter.read(file, imports, executor, recorder);
+        }catch (final Exception e){
+            recorder.failed(e);
+            recorder.finish();
+            log.warn("Read File Excel sheets error :{}",e.getMessage());
+            return MultiSheetImporter.failed(imports, e);
+        }finally {
+            permit.close();
+        }
+        for (final SheetImportResult<?> result : results) {
+            recorder.rows(result.getRowCount());
+            if (!result.isSuccess()) {
+                recorder.failed(result.getError());
+                log.warn("Read File Excel sheet {} error :{}",result.getSheetName(),result.getError().getMessage());
+            }
+        }
+        recorder.finish();
+        return results;
+    }
+
+    /**
+     * 多sheet并行读取，上传文件先落盘到临时文件再读取
+     */
+    public static List<SheetImportResult<?>> readExcelSheets(final MultipartFile file,
+                                                             final List<SheetImport<?>> imports,
+                                                             final Executor executor) {
+        if (CollectionUtils.isEmpty(imports)) {
+            log.warn("Read MultipartFile Excel sheets error :{}","no sheet to import");
+            return new ArrayList<>();
+        }
+        File tempFile = null;
+        try {
+            tempFile = File.createTempFile("excel-import-", SUFFIX);
+            try (InputStream inputStream = file.getInputStream()) {
+                Files.copy(inputStream, tempFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+            return readExcelSheets(tempFile, imports, executor);
+        }catch (final IOException e){
+            log.warn("Read MultipartFile Excel sheets error :{}",e.getMessage());
+            return MultiSheetImporter.failed(imports, e);
+        }finally {
+            if (tempFile != null && !tempFile.delete()) {
+                tempFile.deleteOnExit();
+            }
+        }
+    }
+
+    /**
+     * 列式读取excel内容，只读取选中的列，按列输出int[]/long[]/double[]与字典编码字符串，适用于只取少量数值列做统计的场景
+     * 上传文件先落盘到临时文件再按SAX读取
+     */
+    public static ColumnBatch readExcelColumns(final MultipartFile file, final ColumnSelection selection) {
+        final AdmissionController.Permit permit = admissionController.acquire("import " + file.getOriginalFilename(),
+                AdmissionController.saxImportCost(file.getSize()), 1);
+        File tempFile = null;
+        try {
+            tempFile = File.createTempFile("excel-import-", SUFFIX);
+            try (InputStream inputStream = file.getInputStream()) {
+                Files.copy(inputStream, tempFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+            return doReadColumns(tempFile, selection);
+        }catch (final Exception e){
+            log.warn("Read MultipartFile Excel columns error :{}",e.getMessage());
+        }finally {
+            permit.close();
+            if (tempFile != null && !tempFile.delete()) {
+                tempFile.deleteOnExit();
+            }
+        }
+        return new ColumnCollector(selection, 0).finish();
+    }
+
+    /**
+     * 列式读取excel内容，SAX流式读取，读到表头行后只解析选中的列，支持.xlsx与.xls
+     */
+    public static ColumnBatch readExcelColumns(final File file, final ColumnSelection selection) {
+        try (AdmissionController.Permit ignored = admissionController.acquire("import " + file.getName(),
+                AdmissionController.saxImportCost(file.length()), 1)) {
+            return doReadColumns(file, selection);
+        }catch (final AdmissionRejectedException e){
+            throw e;
+        }catch (final Exception e){
+            log.warn("Read File Excel columns error :{}",e.getMessage());
+        }
+        return new ColumnCollector(selection, 0).finish();
+    }
+
+    /**
+     * .xls只读取表头行，读到第0行后停止
+     */
+    private static <T> T readLegacyTitle(final MultipartFile file, final Class<T> cls) {
+        final AdmissionController.Permit permit = admissionController.acquire("import " + file.getOriginalFilename(),
+                AdmissionController.saxImportCost(file.getSize()), 1);
+        final JobRecorder recorder = JobRecorder.importing(cls);
+        recorder.bytes(file.getSize());
+        final List<T> list = new ArrayList<>();
+        File tempFile = null;
+        try {
+            tempFile = File.createTempFile("excel-import-", ".xls");
+            try (InputStream inputStream = file.getInputStream()) {
+                Files.copy(inputStream, tempFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+            final RowBinder<T> binder = RowBinder.of(cls);
+            final ExcelSaxReader.ReadScope scope = new ExcelSaxReader.ReadScope();
+            scope.setLastRow(0);
+            scope.setRecorder(recorder);
+            ExcelSaxReader.read(tempFile, 0, binder.width(), scope, (rowNum, values) -> {
+                final long start = recorder.start();
+                list.add(binder.bind(rowNum, values));
+                recorder.stop(ExcelPhase.BIND, start);
+            });
+            recorder.rows(list.size());
+        }catch (final Exception e){
+            recorder.failed(e);
+            log.warn("Read MultipartFile Excel error :{}",e.getMessage());
+        }finally {
+            permit.close();
+            recorder.finish();
+            if (tempFile != null && !tempFile.delete()) {
+                tempFile.deleteOnExit();
+            }
+        }
+        return list.isEmpty() ? null : list.get(0);
+    }
+
+    /**
+     * 按文件头识别.xls(OLE2)，不依赖扩展名
+     */
+    private static boolean isLegacyExcel(final File file) {
+        try {
+            return FileMagic.valueOf(file) == FileMagic.OLE2;
+        } catch (final IOException e) {
+            return false;
+        }
+    }
+
+    private static boolean isLegacyExcel(final MultipartFile file) {
+        try (InputStream inputStream = FileMagic.prepareToCheckMagic(file.getInputStream())) {
+            return FileMagic.valueOf(inputStream) == FileMagic.OLE2;
+        } catch (final IOException e) {
+            return false;
+        }
+    }
+
+    private static <T> List<T> doSaxRead(final File file, final Class<T> cls) throws Exception {
+        return doSaxRead(file, cls, ImportOptions.defaults());
+    }
+
+    private static <T> List<T> doSaxRead(final File file, final Class<T> cls, final ImportOptions options) throws Exception {
+        final List<T> lists = new ArrayList<>();
+        final RowBinder.SheetBinding<T> binding = new RowBinder.SheetBinding<>(RowBinder.of(cls));
+        final ExcelSaxReader.ReadScope scope = binding.scope();
+        scope.setLastRow(options.getLastRow());
+        final String[] headers = options.getHeaders();
+        final boolean byHeader = headers != null && headers.length > 0;
+        if (!byHeader && !binding.isMapped()) {
+            scope.setColumns(selectFields(binding.binder(), options.getFields()));
+        }
+        final RawRowFilter filter = options.getFilter();
+        final JobRecorder recorder = JobRecorder.importing(cls);
+        recorder.bytes(file.length());
+        scope.setRecorder(recorder);
+        try {
+            ExcelSaxReader.read(file, 0, binding.width(), scope, (rowNum, values) -> {
+                if (binding.header(rowNum, values)) {
+                    //第一行为表头，按表头选列或带注解映射时在此确定要解析的列
+                    if (byHeader || binding.isMapped()) {
+                        final boolean[] selected = selectFields(binding.binder(), options.getFields());
+                        if (byHeader) {
+                            scope.setColumns(selectHeaders(values, headers, selected));
+                        } else if (selected != null) {
+                            scope.setColumns(selected);
+                        }
+                    }
+                    return;
+                }
+                if (byHeader && scope.getColumns() == null) {
+                    throw new IllegalArgumentException("Header row not found, can not select columns by header");
+                }
+                if (rowNum < options.getFirstRow() || (filter != null && !filter.accept(rowNum, values))) {
+                    return;
+                }
+                final long start = recorder.start();
+                lists.add(binding.binder().bind(rowNum, values, scope.getColumns()));
+                recorder.stop(ExcelPhase.BIND, start);
+            });
+        } catch (final Exception e) {
+            recorder.failed(e);
+            throw e;
+        } finally {
+            recorder.rows(lists.size());
+            recorder.finish();
+        }
+        return lists;
+    }
+
+    /**
+     * @return 未指定字段时为空，表示全部列
+     */
+    private static boolean[] selectFields(final RowBinder<?> binder, final String[] fields) {
+        if (fields == null || fields.length == 0) {
+            return null;
+        }
+        final boolean[] selected = new boolean[binder.width()];
+        for (final String field : fields) {
+            final int column = binder.column(field);
+            if (column < 0) {
+                throw new IllegalArgumentException("Field not found : " + field);
+            }
+            selected[column] = true;
+        }
+        return selected;
+    }
+
+    private static boolean[] selectHeaders(final Object[] headerRow, final String[] headers, final boolean[] fields) {
+        final boolean[] selected = fields != null ? Arrays.copyOf(fields, Math.max(fields.length, headerRow.length))
+                : new boolean[headerRow.length];
+        for (final String header : headers) {
+            int column = -1;
+            for (int y = 0; y < headerRow.length; y++) {
+                if (headerRow[y] != null && header.equals(headerRow[y].toString().trim())) {
+                    column = y;
+                    break;
+                }
+            }
+            if (column < 0) {
+                throw new IllegalArgumentException("Header not found : " + header);
+            }
+            selected[column] = true;
+        }
+        return selected;
+    }
+
+    private static <T> List<T> doRead(final XSSFWorkbook wb,final Class<T> cls,final JobRecorder recorder){
+        final XSSFSheet sheet = wb.getSheetAt(0);
+        XSSFRow row;
+        final int lastRowNum = sheet.getLastRowNum();
+        // 循环读取
+        final List<T> lists = new ArrayList<>();
+        //第一行为表头，带注解的类按表头解析一次列映射
+        final RowBinder<T> binder = RowBinder.of(cls).resolve(sheet.getRow(0));
+        for (int i = 1; i <= lastRowNum; i++) {
+            row = sheet.getRow(i);
+            if(null != row && !isRowEmpty(row)){
+                final long start = recorder.start();
+                lists.add(binder.bind(row));
+                recorder.stop(ExcelPhase.BIND, start);
+            }
+        }
+        return lists;
+    }
+
+    private static XSSFWorkbook openWorkbook(final InputStream inputStream, final JobRecorder recorder) throws IOException {
+        final JobRecorder.Span open = recorder.begin(ExcelPhase.OPEN);
+        final XSSFWorkbook workBook = new XSSFWorkbook(inputStream);
+        open.end();
+        return workBook;
+    }
+
+    private static ColumnBatch doReadColumns(final File file, final ColumnSelection selection) throws Exception {
+        final ColumnCollector collector = new ColumnCollector(selection, 0);
+        final JobRecorder recorder = JobRecorder.importing(ColumnBatch.class);
+        recorder.bytes(file.length());
+        final ExcelSaxReader.ReadScope scope = new ExcelSaxReader.ReadScope();
+        //按表头名选择时表头行解析全部列，按下标选择时只解析选中的列
+        scope.setColumns(collector.columns());
+        scope.setGrowable(true);
+        scope.setRecorder(recorder);
+        try {
+            ExcelSaxReader.read(file, 0, collector.width(), scope, (rowNum, values) -> {
+                if (!collector.hasHeader()) {
+                    //第一行为表头，缺少第一行时按表头名选择的列找不到
+                    collector.header(rowNum == 0 ? values : null);
+                    scope.setColumns(collector.columns());
+                    if (rowNum == 0) {
+                        return;
+                    }
+                }
+                final long start = recorder.start();
+                collector.add(rowNum, values);
+                recorder.stop(ExcelPhase.BIND, start);
+            });
+            if (!collector.hasHeader()) {
+                collector.header(null);
+            }
+            final ColumnBatch batch = collector.finish();
+            recorder.rows(batch.getRowCount());
+            return batch;
+        } catch (final Exception e) {
+            recorder.failed(e);
+            throw e;
+        } finally {
+            recorder.finish();
+        }
+    }
+
+    private static <T> List<T> doReadHeader(final XSSFWorkbook wb,final Class<T> cls,final JobRecorder recorder){
+        final XSSFSheet sheet = wb.getSheetAt(0);
+        XSSFRow row;
+        final List<T> lists = new ArrayList<>();
+        row = sheet.getRow(0);
+        if(null != row && !isRowEmpty(row)){
+            final long start = recorder.start();
+            lists.add(RowBinder.of(cls).bind(row));
+            recorder.stop(ExcelPhase.BIND, start);
+        }
+        return lists;
+    }
+
+    private static boolean isRowEmpty(Row row){
+        for (int i = row.getFirstCellNum(); i < row.getLastCellNum(); i++) {
+            Cell cell = row.getCell(i);
+            if (cell != null && !cell.getCellType().equals(CellType.BLANK)
+                    && !cell.getCellType().equals(CellType._NONE)){
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public static BufferedOutputStream getBufferedOutputStream(final String fileName, final HttpServletResponse response) throws IOException {
+        return getBufferedOutputStream(fileName, APPLICATION_HEADER, response);
+    }
+
+    private static BufferedOutputStream getBufferedOutputStream(final String fileName, final String contentType, final HttpServletResponse response) throws IOException {
+        response.setContentType(contentType);
+        response.setHeader(CONTENT_DISPOSITION, FILE_NAME_EXCHANGE_ORDER + new String(fileName.getBytes("gb2312"), StandardCharsets.ISO_8859_1));
+        return new BufferedOutputStream(response.getOutputStream());
+    }
+
+    static <T> void doExport(final SheetTemplate template,
+                                     final String sheetName,
+                                     final Iterator<T> data,
+                                     final OutputStream outputStream,
+                                     final ExportOptions options,
+                                     final JobRecorder recorder) throws IOException {
+        if (options.getEngine() == ExportEngine.DIRECT) {
+            doDirectExport(template,sheetName,data,outputStream,options,recorder);
+            return;
+        }
+        final ManagedSXSSFWorkbook workbook = createManagedWorkbook(options);
+        workbook.setRecorder(recorder);
+        try {
+            createSheets(workbook,template,data,sheetName,options.lastRowNum(),recorder);
+            if (outputStream != null) {
+                final JobRecorder.Span write = recorder.begin(ExcelPhase.WRITE);
+                workbook.write(recorder.count(outputStream));
+                write.end();
+            }
+        } finally {
+            recorder.spill(workbook.getSpillBytes(), workbook.getSpillFiles());
+            dispose(workbook);
+        }
+    }
+
+    private static <T> void doDirectExport(final SheetTemplate template,
+                                           final String sheetName,
+                                           final Iterator<T> data,
+                                           final OutputStream outputStream,
+                                           final ExportOptions options,
+                                           final JobRecorder recorder) throws IOException {
+        final PeekingIterator<T> rows = PeekingIterator.peekingIterator(data);
+        final List<DirectXlsxWriter> writers = new ArrayList<>(1);
+        try {
+            do {
+                final JobRecorder.Span setup = recorder.begin(ExcelPhase.STYLE_SETUP);
+                final DirectXlsxWriter writer = new DirectXlsxWriter(template,sheetName(sheetName,writers.size()),options.getSpillManager());
+                writers.add(writer);
+                setup.end();
+                final JobRecorder.Span render = recorder.begin(ExcelPhase.RENDER_ROWS);
+                final long written = writer.writeRows(rows,options.lastRowNum());
+                recorder.rows(written);
+                render.end();
+                checkProgress(written,rows);
+            } while (rows.hasNext());
+            if (outputStream != null) {
+                final JobRecorder.Span write = recorder.begin(ExcelPhase.WRITE);
+                DirectXlsxWriter.write(ParallelZipOutputStream.open(recorder.count(outputStream), options.getCompressionLevel(),
+                        options.getCompressionThreads(), options.getCompressionExecutor(), options.getSpillManager()), writers);
+                write.end();
+            }
+            for (final DirectXlsxWriter writer : writers) {
+                recorder.spill(writer.getSheetDataBytes(), 1);
+            }
+        } catch (final DirectXlsxWriter.SheetWriteException e) {
+            throw e.getCause();
+        } finally {
+            DirectXlsxWriter.closeAll(writers);
+        }
+    }
+
+    private static <T> void doCsvExport(final SheetTemplate template,
+                                        final Iterator<T> data,
+                                        final OutputStream outputStream,
+                                        final CsvOptions options,
+                                        final JobRecorder recorder) throws IOException {
+        try {
+            final JobRecorder.Span setup = recorder.begin(ExcelPhase.STYLE_SETUP);
+            final CsvWriter writer = new CsvWriter(template,recorder.count(outputStream),options);
+            setup.end();
+            final JobRecorder.Span render = recorder.begin(ExcelPhase.RENDER_ROWS);
+            recorder.rows(writer.writeRows(data));
+            render.end();
+            final JobRecorder.Span write = recorder.begin(ExcelPhase.WRITE);
+            writer.finish();
+            write.end();
+        } catch (final DirectXlsxWriter.SheetWriteException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static void doParallelManySheetExport(final List<SheetSpec<?>> sheets,
+                                                  final SXSSFWorkbook workbook,
+                                                  final int parallelism,
+                                                  final JobRecorder recorder) throws IOException {
+        if (CollectionUtils.isEmpty(sheets)) {
+            return;
+        }
+        //sheet、样式与表头在调用线程中按顺序创建，工作线程只写各自sheet的数据行
+        final JobRecorder.Span setup = recorder.begin(ExcelPhase.STYLE_SETUP);
+        final List<SheetRowWriter> writers = new ArrayList<>(sheets.size());
+        for (final SheetSpec<?> spec : sheets) {
+            writers.add(spec.getTemplate().stamp(workbook,spec.getSheetName()));
+        }
+        setup.end();
+        final int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        final ForkJoinPool pool = new ForkJoinPool(Math.min(threads, sheets.size()));
+        try {
+            final List<Future<?>> futures = new ArrayList<>(sheets.size());
+            for (int i = 0; i < sheets.size(); i++) {
+                final SheetSpec<?> spec = sheets.get(i);
+                final SheetRowWriter writer = writers.get(i);
+                futures.add(pool.submit(() -> {
+                    final JobRecorder.Span render = recorder.begin(ExcelPhase.RENDER_ROWS);
+                    recorder.rows(writer.writeRows(spec.getData().get()));
+                    //剩余行也在工作线程中序列化到该sheet的临时文件，最终写出只做拼装
+                    writer.getSheet().flushRows();
+                    render.end();
+                    return null;
+                }));
+            }
+            for (final Future<?> future : futures) {
+                future.get();
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Parallel sheet export interrupted");
+        } catch (final ExecutionException e) {
+            throw new IOException("Parallel sheet export error : " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static <T> void createSheet(final SXSSFWorkbook wb,
+                                        final SheetTemplate template,
+                                        final Iterator<T> dataList,
+                                        final String sheetName) {
+        template.stamp(wb,sheetName).writeRows(dataList);
+    }
+
+    /**
+     * 超出单sheet行数上限时续写到新sheet，每个sheet都按模板生成标题与表头
+     */
+    private static <T> void createSheets(final SXSSFWorkbook wb,
+                                         final SheetTemplate template,
+                                         final Iterator<T> dataList,
+                                         final String sheetName,
+                                         final int lastRowNum,
+                                         final JobRecorder recorder) {
+        final PeekingIterator<T> rows = PeekingIterator.peekingIterator(dataList);
+        int index = 0;
+        do {
+            final JobRecorder.Span setup = recorder.begin(ExcelPhase.STYLE_SETUP);
+            final SheetRowWriter writer = template.stamp(wb,sheetName(sheetName,index++));
+            setup.end();
+            final JobRecorder.Span render = recorder.begin(ExcelPhase.RENDER_ROWS);
+            final long written = writer.writeRows(rows,lastRowNum);
+            recorder.rows(written);
+            render.end();
+            checkProgress(written,rows);
+        } while (rows.hasNext());
+    }
+
+    /**
+     * 续写的sheet名为原名加序号，如"订单(2)"，不超过31个字符
+     */
+    private static String sheetName(final String sheetName, final int index) {
+        if (index == 0) {
+            return sheetName;
+        }
+        final String suffix = "(" + (index + 1) + ")";
+        final String base = StringUtils.isBlank(sheetName) ? "Sheet1" : sheetName;
+        return StringUtils.left(base, MAX_SHEET_NAME_LENGTH - suffix.length()) + suffix;
+    }
+
+    /**
+     * 空sheet上一条都写不下时(展开后的行数超过上限)，续写也不会成功
+     */
+    private static void checkProgress(final long written, final Iterator<?> rows) {
+        if (written == 0 && rows.hasNext()) {
+            throw new IllegalArgumentException("Data does not fit into an empty sheet, increase maxRowsPerSheet");
+        }
+    }
+
+}
@@ -0,0 +1,399 @@
+package com.xc.common.util;
+
+import org.apache.commons.lang3.StringUtils;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @author Jq
+ * @Title ExportCache
+ * @Description 导出结果缓存：按报表key + 数据版本缓存生成好的xlsx，磁盘与内存分别按总大小LRU淘汰，命中时经FileChannel分段输出(不读入堆内存)并支持ETag/If-None-Match
+ * @date 2026/10/18 23:58:36
+ */
+public final class ExportCache {
+
+    private static final String ETAG = "ETag";
+
+    private static final String IF_NONE_MATCH = "If-None-Match";
+
+    private static final String CACHE_CONTROL = "Cache-Control";
+
+    /**
+     * 浏览器可以保存，但每次使用前需带If-None-Match重新验证
+     */
+    private static final String REVALIDATE = "private, no-cache";
+
+    private final File directory;
+
+    private final long maxDiskBytes;
+
+    private final long maxMemoryBytes;
+
+    private final long maxMemoryEntryBytes;
+
+    /**
+     * 按访问顺序排列，最久未用的在前；entries与各计数由this锁保护
+     */
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long diskBytes;
+
+    private long memoryBytes;
+
+    /**
+     * 正在生成的key，同一key的并发请求等待首个请求生成完成，不重复生成
+     */
+    private final ConcurrentMap<String, CountDownLatch> loading = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+
+    private final AtomicLong misses = new AtomicLong();
+
+    private final AtomicLong notModified = new AtomicLong();
+
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * @param directory           缓存文件目录，不存在时自动创建
+     * @param maxDiskBytes        缓存文件总大小上限，超出时按LRU删除；单个文件超过该值时只输出不缓存
+     * @param maxMemoryBytes      内存中缓存的文件内容总大小上限，超出时按LRU丢弃内容(磁盘文件保留)
+     * @param maxMemoryEntryBytes 不超过该大小的文件同时缓存在内存中
+     */
+    public ExportCache(final File directory,
+                       final long maxDiskBytes,
+                       final long maxMemoryBytes,
+                       final long maxMemoryEntryBytes) {
+        this.directory = directory;
+        this.maxDiskBytes = maxDiskBytes;
+        this.maxMemoryBytes = maxMemoryBytes;
+        this.maxMemoryEntryBytes = maxMemoryEntryBytes;
+    }
+
+    /**
+     * 由报表key与数据版本计算的强ETag，数据版本不变时重新生成文件(含淘汰后、重启后)ETag也不变
+     */
+    public static String etag(final String reportKey, final String dataVersion) {
+        try {
+            final MessageDigest digest = MessageDigest.getInstance("SHA-1");
+            final byte[] hash = digest.digest(key(reportKey, dataVersion).getBytes(StandardCharsets.UTF_8));
+            final StringBuilder sb = new StringBuilder(hash.length * 2 + 2).append('"');
+            for (final byte b : hash) {
+                sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return sb.append('"').toString();
+        } catch (final NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 删除报表的全部版本
+     */
+    public synchronized int invalidate(final String reportKey) {
+        int removed = 0;
+        final Iterator<Entry> it = entries.values().iterator();
+        while (it.hasNext()) {
+            final Entry entry = it.next();
+            if (entry.reportKey.equals(reportKey)) {
+                it.remove();
+                discard(entry);
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    public synchronized void clear() {
+        for (final Entry entry : entries.values()) {
+            discard(entry);
+        }
+        entries.clear();
+    }
+
+    public File getDirectory() {
+        return directory;
+    }
+
+    public synchronized int getEntryCount() {
+        return entries.size();
+    }
+
+    public synchronized long getDiskBytes() {
+        return diskBytes;
+    }
+
+    public synchronized long getMemoryBytes() {
+        return memoryBytes;
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    /**
+     * 按If-None-Match返回304的次数
+     */
+    public long getNotModifiedCount() {
+        return notModified.get();
+    }
+
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    /**
+     * 写出导出文件
+     */
+    interface Generator {
+        void write(OutputStream out) throws IOException;
+    }
+
+    /**
+     * 输出缓存中的文件，未命中时由generator生成并放入缓存；请求的If-None-Match与ETag一致时返回304，不生成也不输出内容
+     *
+     * @param fileName 每次输出时重新生成的下载文件名
+     * @param request  为空时不处理If-None-Match
+     */
+    void serve(final String reportKey,
+               final String dataVersion,
+               final String fileName,
+               final HttpServletRequest request,
+               final HttpServletResponse response,
+               final Generator generator) throws IOException {
+        final String etag = etag(reportKey, dataVersion);
+        if (request != null && matches(request.getHeader(IF_NONE_MATCH), etag)) {
+            notModified.incrementAndGet();
+            response.setHeader(ETAG, etag);
+            response.setHeader(CACHE_CONTROL, REVALIDATE);
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+        final Entry entry = acquire(reportKey, dataVersion, generator);
+        try {
+            response.setHeader(ETAG, etag);
+            response.setHeader(CACHE_CONTROL, REVALIDATE);
+            response.setContentLengthLong(entry.length);
+            final byte[] content = entry.content;
+            if (content != null) {
+                try (BufferedOutputStream bos = ExcelUtil.getBufferedOutputStream(fileName, response)) {
+                    bos.write(content);
+                }
+                return;
+            }
+            try (FileChannel channel = FileChannel.open(entry.file.toPath(), StandardOpenOption.READ);
+                 BufferedOutputStream bos = ExcelUtil.getBufferedOutputStream(fileName, response)) {
+                ExportJobManager.transfer(channel, 0, entry.length, Channels.newChannel(bos));
+            }
+        } finally {
+            release(entry);
+        }
+    }
+
+    /**
+     * 取出并占用缓存项，未命中时生成；同一key同时只有一个请求生成，其余请求等待后再取
+     */
+    private Entry acquire(final String reportKey, final String dataVersion, final Generator generator) throws IOException {
+        final String key = key(reportKey, dataVersion);
+        while (true) {
+            final Entry cached = retain(key);
+            if (cached != null) {
+                hits.incrementAndGet();
+                return cached;
+            }
+            final CountDownLatch latch = new CountDownLatch(1);
+            final CountDownLatch running = loading.putIfAbsent(key, latch);
+            if (running == null) {
+                try {
+                    misses.incrementAndGet();
+                    return load(key, reportKey, generator);
+                } finally {
+                    loading.remove(key, latch);
+                    latch.countDown();
+                }
+            }
+            try {
+                running.await();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for export " + key);
+            }
+            //生成失败或文件过大未缓存时，下一轮由当前请求自己生成
+        }
+    }
+
+    private Entry load(final String key, final String reportKey, final Generator generator) throws IOException {
+        if (!directory.exists() && !directory.mkdirs() && !directory.isDirectory()) {
+            throw new IOException("Cannot create export cache directory " + directory);
+        }
+        final File file = File.createTempFile("excel-cache-", ".xlsx", directory);
+        final Entry entry;
+        try {
+            try (OutputStream out = new BufferedOutputStream(new FileOutputStream(file))) {
+                generator.write(out);
+            }
+            final long length = file.length();
+            entry = new Entry(key, reportKey, file, length,
+                    length <= maxMemoryEntryBytes ? Files.readAllBytes(file.toPath()) : null);
+        } catch (final IOException | RuntimeException | Error e) {
+            deleteFile(file);
+            throw e;
+        }
+        entry.users = 1;
+        put(entry);
+        return entry;
+    }
+
+    private synchronized Entry retain(final String key) {
+        final Entry entry = entries.get(key);
+        if (entry != null) {
+            entry.users++;
+        }
+        return entry;
+    }
+
+    private synchronized void release(final Entry entry) {
+        entry.users--;
+        if (entry.evicted && entry.users == 0) {
+            deleteFile(entry.file);
+        }
+    }
+
+    /**
+     * 放入新版本时同一报表的旧版本不会再被请求，一并删除
+     */
+    private synchronized void put(final Entry entry) {
+        if (entry.length > maxDiskBytes) {
+            //只供本次输出，release时删除
+            entry.evicted = true;
+            return;
+        }
+        final Iterator<Entry> it = entries.values().iterator();
+        while (it.hasNext()) {
+            final Entry other = it.next();
+            if (other.reportKey.equals(entry.reportKey)) {
+                it.remove();
+                discard(other);
+            }
+        }
+        entries.put(entry.key, entry);
+        diskBytes += entry.length;
+        if (entry.content != null) {
+            memoryBytes += entry.length;
+        }
+        evict();
+    }
+
+    private void evict() {
+        final Iterator<Entry> it = entries.values().iterator();
+        while (diskBytes > maxDiskBytes && it.hasNext()) {
+            final Entry entry = it.next();
+            it.remove();
+            discard(entry);
+            evictions.incrementAndGet();
+        }
+        for (final Iterator<Entry> values = entries.values().iterator(); memoryBytes > maxMemoryBytes && values.hasNext(); ) {
+            final Entry entry = values.next();
+            if (entry.content != null) {
+                //正在输出的请求已持有content引用，不受影响
+                entry.content = null;
+                memoryBytes -= entry.length;
+            }
+        }
+    }
+
+    /**
+     * 已从entries中移除的缓存项：扣减占用，无人使用时删除文件，否则由最后一个使用者删除
+     */
+    private void discard(final Entry entry) {
+        diskBytes -= entry.length;
+        if (entry.content != null) {
+            memoryBytes -= entry.length;
+            entry.content = null;
+        }
+        entry.evicted = true;
+        if (entry.users == 0) {
+            deleteFile(entry.file);
+        }
+    }
+
+    /**
+     * 弱比较，支持"*"与逗号分隔的多个ETag
+     */
+    static boolean matches(final String ifNoneMatch, final String etag) {
+        if (StringUtils.isBlank(ifNoneMatch)) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            candidate = candidate.trim();
+            if (candidate.startsWith("W/")) {
+                candidate = candidate.substring(2);
+            }
+            if ("*".equals(candidate) || candidate.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String key(final String reportKey, final String dataVersion) {
+        return reportKey + '\u0000' + StringUtils.defaultString(dataVersion);
+    }
+
+    private static void deleteFile(final File file) {
+        if (file.exists() && !file.delete()) {
+            file.deleteOnExit();
+        }
+    }
+
+    private static final class Entry {
+
+        private final String key;
+
+        private final String reportKey;
+
+        private final File file;
+
+        private final long length;
+
+        /**
+         * 内存中的文件内容，被淘汰后为空，改从文件输出
+         */
+        private volatile byte[] content;
+
+        private int users;
+
+        private boolean evicted;
+
+        private Entry(final String key, final String reportKey, final File file, final long length, final byte[] content) {
+            this.key = key;
+            this.reportKey = reportKey;
+            this.file = file;
+            this.length = length;
+            this.content = content;
+        }
+    }
+}
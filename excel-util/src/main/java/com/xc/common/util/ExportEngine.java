@@ -0,0 +1,18 @@
+package com.xc.common.util;
+
+/**
+ * @author Jq
+ * @Title ExportEngine
+ * @Description 导出引擎
+ * @date 2026/10/18 15:45:37
+ */
+public enum ExportEngine {
+    /**
+     * POI SXSSFWorkbook
+     */
+    SXSSF,
+    /**
+     * 直接输出SpreadsheetML，不创建POI行/单元格对象，样式与SXSSF一致
+     */
+    DIRECT
+}
@@ -0,0 +1,158 @@
+package com.xc.common.util;
+
+import java.io.File;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @author Jq
+ * @Title ExportJob
+ * @Description 异步导出任务，生成过程中可查询已写行数与字节数，完成后文件暂存在临时目录等待下载
+ * @date 2026/10/18 19:48:30
+ */
+public class ExportJob {
+
+    public enum Status {
+        /**
+         * 排队等待执行
+         */
+        PENDING,
+        RUNNING,
+        /**
+         * 已生成，可下载
+         */
+        DONE,
+        FAILED
+    }
+
+    private final String id;
+
+    /**
+     * 下载时使用的文件名
+     */
+    private final String fileName;
+
+    private final long createdAt;
+
+    private final AtomicLong rowsWritten = new AtomicLong();
+
+    private final AtomicLong bytesWritten = new AtomicLong();
+
+    private volatile Status status = Status.PENDING;
+
+    private volatile File file;
+
+    private volatile Throwable error;
+
+    private volatile long finishedAt;
+
+    /**
+     * 正在进行的下载数，由this保护
+     */
+    private int downloads;
+
+    /**
+     * 已被remove或过期清理，由this保护
+     */
+    private boolean removed;
+
+    ExportJob(final String id, final String fileName) {
+        this.id = id;
+        this.fileName = fileName;
+        this.createdAt = System.currentTimeMillis();
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    public long getFinishedAt() {
+        return finishedAt;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public long getRowsWritten() {
+        return rowsWritten.get();
+    }
+
+    /**
+     * 已写入暂存文件的字节数，DONE时即文件大小
+     */
+    public long getBytesWritten() {
+        return bytesWritten.get();
+    }
+
+    public Throwable getError() {
+        return error;
+    }
+
+    public boolean isFinished() {
+        return status == Status.DONE || status == Status.FAILED;
+    }
+
+    File getFile() {
+        return file;
+    }
+
+    void addRows(final long rows) {
+        rowsWritten.addAndGet(rows);
+    }
+
+    void addBytes(final long bytes) {
+        bytesWritten.addAndGet(bytes);
+    }
+
+    void running(final File file) {
+        this.file = file;
+        this.status = Status.RUNNING;
+    }
+
+    void done() {
+        this.finishedAt = System.currentTimeMillis();
+        this.status = Status.DONE;
+    }
+
+    /**
+     * 开始下载，下载结束前remove不会删除文件
+     *
+     * @return 任务已被删除时为false
+     */
+    synchronized boolean acquireDownload() {
+        if (removed) {
+            return false;
+        }
+        downloads++;
+        return true;
+    }
+
+    /**
+     * @return 下载期间任务已被删除且这是最后一个下载，由调用方删除文件
+     */
+    synchronized boolean releaseDownload() {
+        return --downloads == 0 && removed;
+    }
+
+    /**
+     * @return 没有正在进行的下载，可立即删除文件；否则由最后一个下载结束时删除
+     */
+    synchronized boolean markRemoved() {
+        removed = true;
+        return downloads == 0;
+    }
+
+    void failed(final Throwable error) {
+        this.error = error;
+        this.finishedAt = System.currentTimeMillis();
+        this.status = Status.FAILED;
+    }
+}
@@ -0,0 +1,356 @@
+package com.xc.common.util;
+
+import lombok.extern.log4j.Log4j2;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.poi.ss.util.CellRangeAddress;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * @author Jq
+ * @Title ExportJobManager
+ * @Description 异步导出：提交后立即返回任务id，在有界线程池中生成到暂存文件，完成后按Content-Length与Range分段下载，重复下载不会重新生成
+ * @date 2026/10/18 19:55:12
+ */
+@Log4j2
+public class ExportJobManager implements Closeable {
+
+    public static final int DEFAULT_QUEUE_CAPACITY = 16;
+
+    public static final long DEFAULT_RETENTION_MILLIS = TimeUnit.HOURS.toMillis(1);
+
+    private static final String RANGE = "Range";
+
+    private static final String ACCEPT_RANGES = "Accept-Ranges";
+
+    private static final String CONTENT_RANGE = "Content-Range";
+
+    private static final String BYTES_UNIT = "bytes";
+
+    private static final String RANGE_PREFIX = "bytes=";
+
+    private final ThreadPoolExecutor executor;
+
+    private final File stagingDir;
+
+    private final long retentionMillis;
+
+    private final ConcurrentMap<String, ExportJob> jobs = new ConcurrentHashMap<>();
+
+    /**
+     * @param concurrency 同时生成的任务数
+     */
+    public ExportJobManager(final int concurrency) {
+        this(concurrency, DEFAULT_QUEUE_CAPACITY, new File(System.getProperty("java.io.tmpdir")), DEFAULT_RETENTION_MILLIS);
+    }
+
+    /**
+     * @param concurrency     同时生成的任务数
+     * @param queueCapacity   排队任务上限，超出时submit抛出RejectedExecutionException
+     * @param stagingDir      暂存目录
+     * @param retentionMillis 任务结束后文件保留时长，过期后删除
+     */
+    public ExportJobManager(final int concurrency,
+                            final int queueCapacity,
+                            final File stagingDir,
+                            final long retentionMillis) {
+        final AtomicInteger threadNo = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(concurrency, concurrency, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), r -> {
+                    final Thread thread = new Thread(r, "excel-export-job-" + threadNo.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.stagingDir = stagingDir;
+        this.retentionMillis = retentionMillis;
+    }
+
+    public <T> String submit(final String fileNamePrefix,
+                             final String[] rowName,
+                             final Supplier<? extends Iterator<T>> data,
+                             final String sheetName,
+                             final String titleName,
+                             final List<CellRangeAddress> cellRangeAddressList,
+                             final ExportOptions options) {
+        return submit(fileNamePrefix, SheetTemplate.of(rowName, titleName, cellRangeAddressList), data, sheetName, options);
+    }
+
+    /**
+     * 提交导出任务，数据源在工作线程中才会被调用
+     *
+     * @return 任务id
+     * @throws RejectedExecutionException 排队任务已满
+     */
+    public <T> String submit(final String fileNamePrefix,
+                             final SheetTemplate template,
+                             final Supplier<? extends Iterator<T>> data,
+                             final String sheetName,
+                             final ExportOptions options) {
+        purgeExpired();
+        final ExportJob job = new ExportJob(UUID.randomUUID().toString().replace("-", ""), ExcelUtil.buildFileName(fileNamePrefix));
+        jobs.put(job.getId(), job);
+        try {
+            executor.execute(() -> run(job, fileNamePrefix, template, data, sheetName, options));
+        } catch (final RejectedExecutionException e) {
+            jobs.remove(job.getId());
+            throw new RejectedExecutionException("Export queue is full (" + executor.getQueue().size() + " jobs waiting)", e);
+        }
+        return job.getId();
+    }
+
+    /**
+     * @return 任务不存在或已过期时为空
+     */
+    public ExportJob getJob(final String jobId) {
+        purgeExpired();
+        return jobs.get(jobId);
+    }
+
+    /**
+     * 输出已完成的文件，支持单段Range请求；任务不存在返回404，未完成返回409，失败返回500
+     */
+    public void download(final String jobId, final HttpServletRequest request, final HttpServletResponse response) {
+        final ExportJob job = getJob(jobId);
+        try {
+            if (job == null) {
+                response.sendError(HttpServletResponse.SC_NOT_FOUND);
+                return;
+            }
+            if (job.getStatus() == ExportJob.Status.FAILED) {
+                response.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+                return;
+            }
+            if (job.getStatus() != ExportJob.Status.DONE) {
+                response.sendError(HttpServletResponse.SC_CONFLICT);
+                return;
+            }
+            //下载期间remove与过期清理只移除任务，文件由最后一个下载结束时删除
+            if (!job.acquireDownload()) {
+                response.sendError(HttpServletResponse.SC_NOT_FOUND);
+                return;
+            }
+            try {
+                send(job, request, response);
+            } finally {
+                if (job.releaseDownload()) {
+                    deleteFile(job);
+                }
+            }
+        } catch (final IOException e) {
+            log.warn("Download export job {} error : {}", jobId, e.getMessage());
+        }
+    }
+
+    private static void send(final ExportJob job, final HttpServletRequest request, final HttpServletResponse response) throws IOException {
+        try (FileChannel channel = FileChannel.open(job.getFile().toPath(), StandardOpenOption.READ)) {
+            final long length = channel.size();
+            long start = 0;
+            long end = length - 1;
+            final long[] range = parseRange(request.getHeader(RANGE), length);
+            response.setHeader(ACCEPT_RANGES, BYTES_UNIT);
+            if (range != null) {
+                if (range.length == 0) {
+                    response.setHeader(CONTENT_RANGE, BYTES_UNIT + " */" + length);
+                    response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                    return;
+                }
+                start = range[0];
+                end = range[1];
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(CONTENT_RANGE, BYTES_UNIT + " " + start + "-" + end + "/" + length);
+            }
+            response.setContentLengthLong(end - start + 1);
+            try (BufferedOutputStream bos = ExcelUtil.getBufferedOutputStream(job.getFileName(), response)) {
+                transfer(channel, start, end - start + 1, Channels.newChannel(bos));
+            }
+        }
+    }
+
+    /**
+     * 删除任务及其暂存文件，正在下载时文件在下载结束后删除
+     */
+    public boolean remove(final String jobId) {
+        final ExportJob job = jobs.remove(jobId);
+        if (job == null) {
+            return false;
+        }
+        if (job.markRemoved()) {
+            deleteFile(job);
+        }
+        return true;
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+        for (final String jobId : jobs.keySet()) {
+            remove(jobId);
+        }
+    }
+
+    private <T> void run(final ExportJob job,
+                         final String fileNamePrefix,
+                         final SheetTemplate template,
+                         final Supplier<? extends Iterator<T>> data,
+                         final String sheetName,
+                         final ExportOptions options) {
+        final JobRecorder recorder = JobRecorder.export(fileNamePrefix);
+        try (AdmissionController.Permit ignored = ExcelUtil.getAdmissionController().acquire("export job " + job.getId(),
+                AdmissionController.exportCost(template, options), options.cpuSlots())) {
+            final File file = File.createTempFile("excel-export-", ".xlsx", stagingDir);
+            job.running(file);
+            try (OutputStream out = new CountingOutputStream(new FileOutputStream(file), job)) {
+                ExcelUtil.doExport(template, sheetName, new CountingIterator<>(data.get(), job), out, options, recorder);
+            }
+            job.done();
+        } catch (final Throwable e) {
+            log.warn("Export job {} error : {}", job.getId(), e.getMessage());
+            recorder.failed(e);
+            job.failed(e);
+            deleteFile(job);
+        } finally {
+            recorder.finish();
+        }
+    }
+
+    private void purgeExpired() {
+        final long now = System.currentTimeMillis();
+        for (final ExportJob job : jobs.values()) {
+            if (job.isFinished() && now - job.getFinishedAt() > retentionMillis) {
+                remove(job.getId());
+            }
+        }
+    }
+
+    private static void deleteFile(final ExportJob job) {
+        final File file = job.getFile();
+        if (file != null && file.exists() && !file.delete()) {
+            file.deleteOnExit();
+        }
+    }
+
+    /**
+     * 解析单段"bytes=start-end"、"bytes=start-"、"bytes=-suffix"
+     *
+     * @return 无Range或多段时为空(按整个文件输出)，不可满足时为空数组，否则为[start, end]
+     */
+    static long[] parseRange(final String header, final long length) {
+        if (StringUtils.isBlank(header) || !header.startsWith(RANGE_PREFIX) || header.indexOf(',') >= 0) {
+            return null;
+        }
+        final String spec = header.substring(RANGE_PREFIX.length()).trim();
+        final int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return null;
+        }
+        try {
+            long start;
+            long end;
+            if (dash == 0) {
+                final long suffix = Long.parseLong(spec.substring(1));
+                if (suffix <= 0) {
+                    return new long[0];
+                }
+                start = Math.max(length - suffix, 0);
+                end = length - 1;
+            } else {
+                start = Long.parseLong(spec.substring(0, dash));
+                end = dash == spec.length() - 1 ? length - 1 : Math.min(Long.parseLong(spec.substring(dash + 1)), length - 1);
+            }
+            if (start >= length || start > end) {
+                return new long[0];
+            }
+            return new long[]{start, end};
+        } catch (final NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 按段输出文件，不把整个文件读入堆内存；target为包装servlet输出流的通道时transferTo会经缓冲区拷贝，并非零拷贝
+     */
+    static void transfer(final FileChannel channel, final long start, final long count, final WritableByteChannel target) throws IOException {
+        long position = start;
+        long remaining = count;
+        while (remaining > 0) {
+            final long sent = channel.transferTo(position, remaining, target);
+            position += sent;
+            remaining -= sent;
+        }
+    }
+
+    /**
+     * 统计写入暂存文件的字节数
+     */
+    private static final class CountingOutputStream extends FilterOutputStream {
+
+        private final ExportJob job;
+
+        private CountingOutputStream(final OutputStream out, final ExportJob job) {
+            super(new BufferedOutputStream(out));
+            this.job = job;
+        }
+
+        @Override
+        public void write(final int b) throws IOException {
+            out.write(b);
+            job.addBytes(1);
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) throws IOException {
+            out.write(b, off, len);
+            job.addBytes(len);
+        }
+    }
+
+    /**
+     * 统计已交给writer的行数
+     */
+    private static final class CountingIterator<T> implements Iterator<T> {
+
+        private final Iterator<T> delegate;
+
+        private final ExportJob job;
+
+        private CountingIterator(final Iterator<T> delegate, final ExportJob job) {
+            this.delegate = delegate;
+            this.job = job;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return delegate.hasNext();
+        }
+
+        @Override
+        public T next() {
+            final T next = delegate.next();
+            job.addRows(1);
+            return next;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.xc.common.util;
+
+import lombok.Builder;
+import lombok.Getter;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import java.util.concurrent.Executor;
+import java.util.zip.Deflater;
+
+/**
+ * @author Jq
+ * @Title ExportOptions
+ * @Description 流式导出参数
+ * @date 2026/10/18 13:22:30
+ */
+@Getter
+@Builder
+public class ExportOptions {
+
+    /**
+     * SXSSF内存中保留的行数，超出部分刷到临时文件
+     */
+    @Builder.Default
+    private final int rowAccessWindowSize = SXSSFWorkbook.DEFAULT_WINDOW_SIZE;
+
+    /**
+     * 临时文件是否gzip压缩
+     */
+    @Builder.Default
+    private final boolean compressTempFiles = false;
+
+    /**
+     * 按PageFetcher分页导出时的每页条数
+     */
+    @Builder.Default
+    private final int pageSize = 1000;
+
+    /**
+     * 导出引擎，仅对单sheet的export生效
+     */
+    @Builder.Default
+    private final ExportEngine engine = ExportEngine.SXSSF;
+
+    /**
+     * 溢写目录与配额，为空时使用SpillManager.getDefault()
+     */
+    private final SpillManager spillManager;
+
+    /**
+     * xlsx打包的压缩级别：-1为默认(与原先一致)，1-9为Deflater级别，0为不压缩(STORED，适合内网机器间传输)
+     */
+    @Builder.Default
+    private final int compressionLevel = Deflater.DEFAULT_COMPRESSION;
+
+    /**
+     * 打包时压缩线程数，大于1时大的zip条目按块并行压缩，输出仍为标准zip；SXSSF与DIRECT引擎均生效
+     */
+    @Builder.Default
+    private final int compressionThreads = 1;
+
+    /**
+     * 共享的压缩线程池，多个导出并发时避免每次打包新建线程池；由调用方管理生命周期，不会被关闭。
+     * 为空时按compressionThreads新建，打包结束时关闭；并行度仍按compressionThreads限制在途的块数
+     */
+    private final Executor compressionExecutor;
+
+    /**
+     * 单个sheet的行数上限(含标题与表头)，超出后续写到同名加序号的新sheet，不超过xlsx的1048576行；
+     * SXSSF与DIRECT引擎的单sheet导出与异步导出生效，更大的数据量可改用exportCsv
+     */
+    @Builder.Default
+    private final int maxRowsPerSheet = SpreadsheetVersion.EXCEL2007.getMaxRows();
+
+    public SpillManager getSpillManager() {
+        return spillManager != null ? spillManager : SpillManager.getDefault();
+    }
+
+    /**
+     * 导出结果缓存，与reportKey同时设置时生效，仅对单sheet的export生效
+     */
+    private final ExportCache cache;
+
+    /**
+     * 调用方提供的报表key(如报表id + 查询条件)，同一key的导出内容只由key与dataVersion决定
+     */
+    private final String reportKey;
+
+    /**
+     * 数据版本(如数据最后更新时间)，数据变化后需更换，旧版本随之失效
+     */
+    private final String dataVersion;
+
+    boolean isCacheable() {
+        return cache != null && StringUtils.isNotBlank(reportKey);
+    }
+
+    /**
+     * 每个sheet最后一行的行号
+     */
+    int lastRowNum() {
+        return Math.min(maxRowsPerSheet, SpreadsheetVersion.EXCEL2007.getMaxRows()) - 1;
+    }
+
+    /**
+     * 准入控制按压缩线程数计CPU占用
+     */
+    int cpuSlots() {
+        return Math.max(1, compressionThreads);
+    }
+
+    public static ExportOptions defaults() {
+        return ExportOptions.builder().build();
+    }
+}
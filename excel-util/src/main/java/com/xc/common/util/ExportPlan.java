@@ -0,0 +1,352 @@
+package com.xc.common.util;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Date;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * @author Jq
+ * @Title ExportPlan
+ * @Description 按Class缓存的导出计划，字段访问器与类型分派只解析一次，逐行导出时不再反射查找
+ * @date 2026/10/18 10:05:12
+ */
+final class ExportPlan {
+
+    private static final String STRING_CONSTANT = "String";
+
+    private static final String INTEGER_CONSTANT = "Integer";
+
+    private static final String INT_CONSTANT = "int";
+
+    private static final String LONG_CONSTANT = "Long";
+
+    private static final String LONG_CONSTANT_SMALL = "long";
+
+    private static final String DOUBLE_CONSTANT = "Double";
+
+    private static final String DOUBLE_CONSTANT_SMALL = "double";
+
+    private static final String DATE_CONSTANT = "Date";
+
+    private static final String LIST_CONSTANT = "List";
+
+    private static final String COLLECTION_CONSTANT = "Collection";
+
+    private static final String SET_CONSTANT = "HashSet";
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    private static final MethodType DOUBLE_GETTER_TYPE = MethodType.methodType(double.class, Object.class);
+
+    private static final ConcurrentMap<Class<?>, ExportPlan> PLANS = new ConcurrentHashMap<>();
+
+    /**
+     * 单元格写出方式
+     */
+    enum ValueType {
+        /**
+         * 字符串及数字，按文本写出
+         */
+        TEXT,
+        /**
+         * 日期
+         */
+        DATE,
+        /**
+         * 集合，按元素平铺
+         */
+        COLLECTION,
+        /**
+         * 其他类型，toString写出
+         */
+        OTHER
+    }
+
+    /**
+     * 按原生类型输出时的单元格类型
+     */
+    enum TypedKind {
+        /**
+         * 基本类型数字，经doubleGetter读取，不装箱
+         */
+        PRIMITIVE_NUMBER,
+        /**
+         * 包装类型数字及BigDecimal/BigInteger
+         */
+        NUMBER,
+        DATE,
+        LOCAL_DATE,
+        LOCAL_DATE_TIME,
+        INSTANT,
+        /**
+         * 其余类型按ValueType输出
+         */
+        LEGACY
+    }
+
+    static final class Column {
+
+        private final String name;
+
+        private final ValueType type;
+
+        private final TypedKind typedKind;
+
+        private final MethodHandle getter;
+
+        private final MethodHandle doubleGetter;
+
+        /**
+         * ExcelColumn.format，未设置时为空
+         */
+        private final DateTimeFormatter formatter;
+
+        /**
+         * 集合字段声明的元素类型，未知时为空
+         */
+        private final Class<?> elementClass;
+
+        /**
+         * ExcelColumn.index，相对于所在计划的起始列；未指定或未带注解的类为-1，紧接前一列
+         */
+        private final int index;
+
+        /**
+         * 元素类型的导出计划，首次使用时解析(元素类型可能引用自身，不能在编译时递归解析)
+         */
+        private volatile ExportPlan elementPlan;
+
+        private Column(final String name, final ValueType type, final TypedKind typedKind,
+                       final MethodHandle getter, final MethodHandle doubleGetter, final DateTimeFormatter formatter,
+                       final Class<?> elementClass, final int index) {
+            this.name = name;
+            this.type = type;
+            this.typedKind = typedKind;
+            this.getter = getter;
+            this.doubleGetter = doubleGetter;
+            this.formatter = formatter;
+            this.elementClass = elementClass;
+            this.index = index;
+        }
+
+        /**
+         * 是否可展开为多行：集合字段且元素类型已知
+         */
+        Class<?> getElementClass() {
+            return elementClass;
+        }
+
+        boolean isExpandable() {
+            return type == ValueType.COLLECTION && elementClass != null;
+        }
+
+        /**
+         * 元素为声明类型时直接使用预先解析的计划，不再逐个元素查缓存
+         */
+        ExportPlan elementPlan(final Class<?> actual) {
+            if (actual != elementClass) {
+                return ExportPlan.of(actual);
+            }
+            ExportPlan plan = elementPlan;
+            if (plan == null) {
+                plan = ExportPlan.of(elementClass);
+                elementPlan = plan;
+            }
+            return plan;
+        }
+
+        DateTimeFormatter getFormatter() {
+            return formatter;
+        }
+
+        TypedKind getTypedKind() {
+            return typedKind;
+        }
+
+        /**
+         * 仅PRIMITIVE_NUMBER可用
+         */
+        double getDouble(final Object target) {
+            try {
+                return (double) doubleGetter.invokeExact(target);
+            } catch (final RuntimeException | Error e) {
+                throw e;
+            } catch (final Throwable e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        String getName() {
+            return name;
+        }
+
+        int getIndex() {
+            return index;
+        }
+
+        ValueType getType() {
+            return type;
+        }
+
+        Object get(final Object target) {
+            try {
+                return (Object) getter.invokeExact(target);
+            } catch (final RuntimeException | Error e) {
+                throw e;
+            } catch (final Throwable e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    private final Column[] columns;
+
+    /**
+     * 每个字段占一列时的总列数，含列号间跳过的空列
+     */
+    private final int width;
+
+    /**
+     * 展开为多行时各列的起始列号，末尾为总列数；首次使用时计算
+     */
+    private volatile int[] expandedOffsets;
+
+    private ExportPlan(final Column[] columns) {
+        this.columns = columns;
+        int next = 0;
+        for (final Column column : columns) {
+            next = Math.max(next, column.index) + 1;
+        }
+        this.width = next;
+    }
+
+    static ExportPlan of(final Class<?> cls) {
+        return PLANS.computeIfAbsent(cls, ExportPlan::compile);
+    }
+
+    Column[] getColumns() {
+        return columns;
+    }
+
+    int width() {
+        return width;
+    }
+
+    boolean hasExpandableColumns() {
+        for (final Column column : columns) {
+            if (column.isExpandable()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 展开为多行时的列布局：可展开的集合字段占元素类型的列数，其余字段占一列，指定列号的从该列开始
+     */
+    int[] expandedOffsets() {
+        int[] offsets = expandedOffsets;
+        if (offsets == null) {
+            offsets = new int[columns.length + 1];
+            int next = 0;
+            for (int i = 0; i < columns.length; i++) {
+                final Column column = columns[i];
+                offsets[i] = Math.max(next, column.index);
+                next = offsets[i] + (column.isExpandable() ? column.elementPlan(column.elementClass).width : 1);
+            }
+            offsets[columns.length] = next;
+            expandedOffsets = offsets;
+        }
+        return offsets;
+    }
+
+    /**
+     * 列顺序与ExcelSchema一致：未带注解的类为全部声明字段，否则为注解字段按列号排序
+     */
+    private static ExportPlan compile(final Class<?> cls) {
+        final ExcelSchema schema = ExcelSchema.of(cls);
+        final ExcelSchema.Column[] schemaColumns = schema.getColumns();
+        final Column[] columns = new Column[schemaColumns.length];
+        final MethodHandles.Lookup lookup = MethodHandles.lookup();
+        for (int i = 0; i < schemaColumns.length; i++) {
+            final Field field = schemaColumns[i].getField();
+            field.setAccessible(true);
+            final TypedKind typedKind = resolveTypedKind(field.getType());
+            final MethodHandle handle = getter(lookup, field);
+            columns[i] = new Column(field.getName(), resolveType(field.getType()), typedKind, handle.asType(GETTER_TYPE),
+                    typedKind == TypedKind.PRIMITIVE_NUMBER ? handle.asType(DOUBLE_GETTER_TYPE) : null,
+                    schemaColumns[i].getFormatter(), ExcelSchema.elementClass(field), schema.exportIndex(schemaColumns[i]));
+        }
+        return new ExportPlan(columns);
+    }
+
+    /**
+     * @return (Object)字段类型
+     */
+    private static MethodHandle getter(final MethodHandles.Lookup lookup, final Field field) {
+        try {
+            MethodHandle handle = lookup.unreflectGetter(field);
+            if (Modifier.isStatic(field.getModifiers())) {
+                handle = MethodHandles.dropArguments(handle, 0, Object.class);
+            }
+            return handle.asType(handle.type().changeParameterType(0, Object.class));
+        } catch (final IllegalAccessException e) {
+            throw new IllegalStateException("Field not accessible : " + field, e);
+        }
+    }
+
+    static TypedKind resolveTypedKind(final Class<?> type) {
+        if (type == int.class || type == long.class || type == double.class
+                || type == float.class || type == short.class || type == byte.class) {
+            return TypedKind.PRIMITIVE_NUMBER;
+        }
+        if (Number.class.isAssignableFrom(type)) {
+            return TypedKind.NUMBER;
+        }
+        if (Date.class.isAssignableFrom(type)) {
+            return TypedKind.DATE;
+        }
+        if (type == LocalDate.class) {
+            return TypedKind.LOCAL_DATE;
+        }
+        if (type == LocalDateTime.class) {
+            return TypedKind.LOCAL_DATE_TIME;
+        }
+        if (type == Instant.class) {
+            return TypedKind.INSTANT;
+        }
+        return TypedKind.LEGACY;
+    }
+
+    /**
+     * 与原先按类型名后缀匹配的规则保持一致，只在编译导出计划时计算一次
+     */
+    static ValueType resolveType(final Class<?> type) {
+        final String typeName = type.toString();
+        if (typeName.endsWith(STRING_CONSTANT)
+                || typeName.endsWith(INTEGER_CONSTANT)
+                || typeName.endsWith(INT_CONSTANT)
+                || typeName.endsWith(LONG_CONSTANT)
+                || typeName.endsWith(LONG_CONSTANT_SMALL)
+                || typeName.endsWith(DOUBLE_CONSTANT)
+                || typeName.endsWith(DOUBLE_CONSTANT_SMALL)) {
+            return ValueType.TEXT;
+        }
+        if (typeName.endsWith(DATE_CONSTANT)) {
+            return ValueType.DATE;
+        }
+        if (typeName.endsWith(LIST_CONSTANT) || typeName.endsWith(COLLECTION_CONSTANT) || typeName.endsWith(SET_CONSTANT)) {
+            return ValueType.COLLECTION;
+        }
+        return ValueType.OTHER;
+    }
+}
@@ -0,0 +1,46 @@
+package com.xc.common.util;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * @author Jq
+ * @Title ImportOptions
+ * @Description 流式导入参数：按表头名或字段名只读取部分列、限定行范围、绑定前按原始值过滤行
+ * @date 2026/10/18 21:38:52
+ */
+@Getter
+@Builder
+public class ImportOptions {
+
+    /**
+     * 只读取这些表头对应的列，与fields取并集；两者都为空时读取全部列
+     */
+    private final String[] headers;
+
+    /**
+     * 只读取这些字段对应的列，未选中的字段保持默认值
+     */
+    private final String[] fields;
+
+    /**
+     * 第一条数据的行号(从0开始，第0行为表头)
+     */
+    @Builder.Default
+    private final int firstRow = 1;
+
+    /**
+     * 最后一条数据的行号(含)，读到该行后停止解析剩余部分
+     */
+    @Builder.Default
+    private final int lastRow = Integer.MAX_VALUE;
+
+    /**
+     * 绑定前的行过滤，为空时保留全部行
+     */
+    private final RawRowFilter filter;
+
+    public static ImportOptions defaults() {
+        return ImportOptions.builder().build();
+    }
+}
@@ -0,0 +1,18 @@
+package com.xc.common.util;
+
+/**
+ * @author Jq
+ * @Title ImportProgressListener
+ * @Description 分批导入进度回调，在消费线程中每批处理完成后调用
+ * @date 2026/10/18 18:41:07
+ */
+@FunctionalInterface
+public interface ImportProgressListener {
+
+    /**
+     * @param batchNo   批次号(从1开始)
+     * @param batchRows 本批行数
+     * @param totalRows 已处理总行数
+     */
+    void onBatch(int batchNo, int batchRows, long totalRows);
+}
@@ -0,0 +1,29 @@
+package com.xc.common.util;
+
+import lombok.Getter;
+
+/**
+ * @author Jq
+ * @Title ImportResult
+ * @Description 分批导入结果，失败时error不为空，rows为失败前已交给sink处理完成的行数
+ * @date 2026/10/18 18:43:26
+ */
+@Getter
+public class ImportResult {
+
+    private final long rows;
+
+    private final int batches;
+
+    private final Throwable error;
+
+    ImportResult(final long rows, final int batches, final Throwable error) {
+        this.rows = rows;
+        this.batches = batches;
+        this.error = error;
+    }
+
+    public boolean isSuccess() {
+        return error == null;
+    }
+}
@@ -0,0 +1,117 @@
+package com.xc.common.util;
+
+import lombok.Getter;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * @author Jq
+ * @Title JobMetrics
+ * @Description 一次导入或导出任务的统计：各阶段耗时、行数、读写字节数、溢写文件大小与失败原因
+ * @date 2026/10/19 09:08:37
+ */
+@Getter
+public final class JobMetrics {
+
+    /**
+     * 任务类型
+     */
+    public enum Type {
+        EXPORT,
+        IMPORT
+    }
+
+    private final Type type;
+
+    /**
+     * 导出为文件名前缀(带缓存时为reportKey)，导入为pojo类名，可直接作为指标标签
+     */
+    private final String name;
+
+    private final long totalNanos;
+
+    /**
+     * 导出为写出的字节数，导入为读取的文件大小
+     */
+    private final long bytes;
+
+    private final long rows;
+
+    private final long spillBytes;
+
+    private final int spillFiles;
+
+    /**
+     * 成功时为空
+     */
+    private final Throwable error;
+
+    @Getter(lombok.AccessLevel.NONE)
+    private final long[] phaseNanos;
+
+    JobMetrics(final Type type,
+               final String name,
+               final long totalNanos,
+               final long[] phaseNanos,
+               final long rows,
+               final long bytes,
+               final long spillBytes,
+               final int spillFiles,
+               final Throwable error) {
+        this.type = type;
+        this.name = name;
+        this.totalNanos = totalNanos;
+        this.phaseNanos = phaseNanos;
+        this.rows = rows;
+        this.bytes = bytes;
+        this.spillBytes = spillBytes;
+        this.spillFiles = spillFiles;
+        this.error = error;
+    }
+
+    public boolean isSuccess() {
+        return error == null;
+    }
+
+    public long getPhaseNanos(final ExcelPhase phase) {
+        return phaseNanos[phase.ordinal()];
+    }
+
+    /**
+     * 有耗时的阶段，按阶段定义顺序
+     */
+    public Map<ExcelPhase, Long> getPhases() {
+        final Map<ExcelPhase, Long> phases = new EnumMap<>(ExcelPhase.class);
+        for (final ExcelPhase phase : ExcelPhase.values()) {
+            if (phaseNanos[phase.ordinal()] > 0) {
+                phases.put(phase, phaseNanos[phase.ordinal()]);
+            }
+        }
+        return phases;
+    }
+
+    /**
+     * 按任务总耗时计算
+     */
+    public double getRowsPerSecond() {
+        return totalNanos <= 0 ? 0 : rows * 1_000_000_000.0 / totalNanos;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder(128).append(type).append(' ').append(name)
+                .append(" total=").append(totalNanos / 1_000_000).append("ms");
+        for (final Map.Entry<ExcelPhase, Long> entry : getPhases().entrySet()) {
+            sb.append(' ').append(entry.getKey().getTag()).append('=').append(entry.getValue() / 1_000_000).append("ms");
+        }
+        sb.append(" rows=").append(rows).append(" bytes=").append(bytes);
+        if (spillFiles > 0) {
+            sb.append(" spill=").append(spillBytes).append('/').append(spillFiles);
+        }
+        if (error != null) {
+            sb.append(" error=").append(error);
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,219 @@
+package com.xc.common.util;
+
+import lombok.extern.log4j.Log4j2;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @author Jq
+ * @Title JobRecorder
+ * @Description 单个导入导出任务的统计记录，结束时生成JobMetrics交给ExcelMetricsListener；未注册监听器时为NONE，全部方法直接返回
+ * @date 2026/10/19 09:20:45
+ */
+@Log4j2
+final class JobRecorder {
+
+    /**
+     * 不统计
+     */
+    static final JobRecorder NONE = new JobRecorder(null, null, null);
+
+    private final JobMetrics.Type type;
+
+    private final String name;
+
+    private final ExcelMetricsListener listener;
+
+    private final long startNanos;
+
+    /**
+     * 并行导出时多个工作线程同时累加
+     */
+    private final AtomicLongArray phaseNanos = new AtomicLongArray(ExcelPhase.values().length);
+
+    /**
+     * 各线程已结束阶段的累计耗时(含嵌套)，外层阶段结束时据此扣除嵌套阶段的耗时
+     */
+    private final ThreadLocal<long[]> elapsed = ThreadLocal.withInitial(() -> new long[1]);
+
+    private final LongAdder rows = new LongAdder();
+
+    private final LongAdder bytes = new LongAdder();
+
+    private long spillBytes;
+
+    private int spillFiles;
+
+    private Throwable error;
+
+    private boolean finished;
+
+    private JobRecorder(final JobMetrics.Type type, final String name, final ExcelMetricsListener listener) {
+        this.type = type;
+        this.name = name;
+        this.listener = listener;
+        this.startNanos = listener == null ? 0 : System.nanoTime();
+    }
+
+    static JobRecorder export(final String name) {
+        return start(JobMetrics.Type.EXPORT, name);
+    }
+
+    static JobRecorder importing(final Class<?> cls) {
+        return start(JobMetrics.Type.IMPORT, cls.getSimpleName());
+    }
+
+    private static JobRecorder start(final JobMetrics.Type type, final String name) {
+        final ExcelMetricsListener listener = ExcelUtil.getMetricsListener();
+        return listener == ExcelMetricsListener.NOOP ? NONE : new JobRecorder(type, name, listener);
+    }
+
+    boolean isEnabled() {
+        return listener != null;
+    }
+
+    /**
+     * 开始一个可嵌套的阶段，结束时只计入扣除嵌套阶段后的耗时
+     */
+    Span begin(final ExcelPhase phase) {
+        if (listener == null) {
+            return Span.NONE;
+        }
+        final long[] acc = elapsed.get();
+        return new Span(this, phase, System.nanoTime(), acc[0], acc);
+    }
+
+    /**
+     * 逐行调用的叶子阶段，与stop配对，不创建对象
+     *
+     * @return 开始时间，未统计时为0
+     */
+    long start() {
+        return listener == null ? 0 : System.nanoTime();
+    }
+
+    void stop(final ExcelPhase phase, final long start) {
+        if (listener == null) {
+            return;
+        }
+        final long nanos = System.nanoTime() - start;
+        phaseNanos.addAndGet(phase.ordinal(), nanos);
+        elapsed.get()[0] += nanos;
+    }
+
+    void rows(final long count) {
+        if (listener != null) {
+            rows.add(count);
+        }
+    }
+
+    void bytes(final long count) {
+        if (listener != null) {
+            bytes.add(count);
+        }
+    }
+
+    synchronized void spill(final long fileBytes, final int files) {
+        if (listener == null) {
+            return;
+        }
+        spillBytes += fileBytes;
+        spillFiles += files;
+    }
+
+    synchronized void failed(final Throwable e) {
+        if (listener != null && error == null) {
+            error = e;
+        }
+    }
+
+    /**
+     * 统计写出的字节数，未统计时原样返回
+     */
+    OutputStream count(final OutputStream out) {
+        if (listener == null || out == null) {
+            return out;
+        }
+        return new FilterOutputStream(out) {
+            @Override
+            public void write(final int b) throws IOException {
+                out.write(b);
+                bytes.increment();
+            }
+
+            @Override
+            public void write(final byte[] b, final int off, final int len) throws IOException {
+                out.write(b, off, len);
+                bytes.add(len);
+            }
+        };
+    }
+
+    /**
+     * 生成统计并回调监听器，只回调一次，监听器的异常不影响任务结果
+     */
+    void finish() {
+        if (listener == null) {
+            return;
+        }
+        final JobMetrics metrics;
+        synchronized (this) {
+            if (finished) {
+                return;
+            }
+            finished = true;
+            final long[] phases = new long[phaseNanos.length()];
+            for (int i = 0; i < phases.length; i++) {
+                phases[i] = phaseNanos.get(i);
+            }
+            metrics = new JobMetrics(type, name, System.nanoTime() - startNanos, phases,
+                    rows.sum(), bytes.sum(), spillBytes, spillFiles, error);
+        }
+        try {
+            listener.onJobFinished(metrics);
+        } catch (final RuntimeException e) {
+            log.warn("Excel metrics listener error : {}", e.getMessage());
+        }
+    }
+
+    static final class Span {
+
+        private static final Span NONE = new Span(null, null, 0, 0, null);
+
+        private final JobRecorder recorder;
+
+        private final ExcelPhase phase;
+
+        private final long start;
+
+        private final long elapsedAtStart;
+
+        private final long[] elapsed;
+
+        private Span(final JobRecorder recorder, final ExcelPhase phase, final long start,
+                     final long elapsedAtStart, final long[] elapsed) {
+            this.recorder = recorder;
+            this.phase = phase;
+            this.start = start;
+            this.elapsedAtStart = elapsedAtStart;
+            this.elapsed = elapsed;
+        }
+
+        /**
+         * 须在begin所在线程调用
+         */
+        void end() {
+            if (recorder == null) {
+                return;
+            }
+            final long nanos = System.nanoTime() - start;
+            final long nested = elapsed[0] - elapsedAtStart;
+            recorder.phaseNanos.addAndGet(phase.ordinal(), Math.max(nanos - nested, 0));
+            elapsed[0] = elapsedAtStart + nanos;
+        }
+    }
+}
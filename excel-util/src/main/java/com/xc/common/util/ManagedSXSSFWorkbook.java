@@ -0,0 +1,226 @@
+package com.xc.common.util;
+
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.apache.poi.xssf.model.SharedStringsTable;
+import org.apache.poi.xssf.streaming.SXSSFRow;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.poi.xssf.streaming.SheetDataWriter;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * @author Jq
+ * @Title ManagedSXSSFWorkbook
+ * @Description 溢写文件由SpillManager管理的SXSSFWorkbook：写入溢写目录、计入节点配额，dispose时删除文件并归还配额
+ * @date 2026/10/18 20:44:06
+ */
+final class ManagedSXSSFWorkbook extends SXSSFWorkbook {
+
+    private final SpillManager spillManager;
+
+    private final boolean compress;
+
+    private final int compressionLevel;
+
+    private final int compressionThreads;
+
+    private final Executor compressionExecutor;
+
+    /**
+     * 本workbook已预占的配额
+     */
+    private final AtomicLong reservedBytes = new AtomicLong();
+
+    private final List<File> files = new CopyOnWriteArrayList<>();
+
+    /**
+     * SXSSFSheet.dispose会先把内存中的行刷到即将删除的溢写文件，dispose期间直接丢弃这些写入
+     */
+    private volatile boolean disposing;
+
+    /**
+     * 行序列化到溢写文件的耗时记入FLUSH
+     */
+    private volatile JobRecorder recorder = JobRecorder.NONE;
+
+    ManagedSXSSFWorkbook(final int rowAccessWindowSize,
+                         final boolean compress,
+                         final SpillManager spillManager,
+                         final int compressionLevel,
+                         final int compressionThreads,
+                         final Executor compressionExecutor) {
+        super(rowAccessWindowSize);
+        this.compress = compress;
+        this.spillManager = spillManager;
+        this.compressionLevel = compressionLevel;
+        this.compressionThreads = compressionThreads;
+        this.compressionExecutor = compressionExecutor;
+        setCompressTempFiles(compress);
+    }
+
+    /**
+     * 默认级别且单线程时保持父类行为
+     */
+    @Override
+    protected ZipArchiveOutputStream createArchiveOutputStream(final OutputStream out) {
+        if (compressionLevel == Deflater.DEFAULT_COMPRESSION && compressionThreads <= 1) {
+            return super.createArchiveOutputStream(out);
+        }
+        return ParallelZipOutputStream.open(out, compressionLevel, compressionThreads, compressionExecutor, spillManager);
+    }
+
+    @Override
+    protected SheetDataWriter createSheetDataWriter() throws IOException {
+        return new SpillSheetDataWriter(getSharedStringSource());
+    }
+
+    void setRecorder(final JobRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    /**
+     * 已写入溢写文件的字节数(压缩后)，dispose后为0
+     */
+    long getSpillBytes() {
+        return reservedBytes.get();
+    }
+
+    int getSpillFiles() {
+        return files.size();
+    }
+
+    /**
+     * 删除全部溢写文件并归还配额，可重复调用
+     */
+    @Override
+    public boolean dispose() {
+        disposing = true;
+        recorder = JobRecorder.NONE;
+        boolean success;
+        try {
+            success = super.dispose();
+        } finally {
+            //父类刷行或关闭失败时文件可能未删除，这里兜底
+            int deleted = 0;
+            for (final File file : files) {
+                if (file.exists() && !file.delete()) {
+                    file.deleteOnExit();
+                }
+                deleted++;
+            }
+            files.clear();
+            spillManager.fileDeleted(deleted);
+            spillManager.release(reservedBytes.getAndSet(0));
+        }
+        return success;
+    }
+
+    /**
+     * 非静态内部类：父类构造器中就会调用createTempFile，此时外部实例引用已可用，而子类自身字段尚未初始化
+     */
+    private final class SpillSheetDataWriter extends SheetDataWriter {
+
+        private SpillSheetDataWriter(final SharedStringsTable sharedStringsTable) throws IOException {
+            super(sharedStringsTable);
+        }
+
+        @Override
+        public void writeRow(final int rownum, final SXSSFRow row) throws IOException {
+            final JobRecorder current = recorder;
+            final long start = current.start();
+            super.writeRow(rownum, row);
+            current.stop(ExcelPhase.FLUSH, start);
+        }
+
+        @Override
+        public File createTempFile() throws IOException {
+            final File file = spillManager.createTempFile(compress ? ".xml.gz" : ".xml");
+            files.add(file);
+            return file;
+        }
+
+        @Override
+        protected OutputStream decorateOutputStream(final FileOutputStream fos) throws IOException {
+            final OutputStream counted = new QuotaOutputStream(fos);
+            return compress ? new GZIPOutputStream(counted) : counted;
+        }
+
+        @Override
+        protected InputStream decorateInputStream(final FileInputStream fis) throws IOException {
+            final InputStream counted = new CountingInputStream(fis);
+            return compress ? new GZIPInputStream(counted) : counted;
+        }
+    }
+
+    /**
+     * 写入前向SpillManager预占配额
+     */
+    private final class QuotaOutputStream extends FilterOutputStream {
+
+        private QuotaOutputStream(final OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(final int b) throws IOException {
+            if (disposing) {
+                return;
+            }
+            reserve(1);
+            out.write(b);
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) throws IOException {
+            if (disposing) {
+                return;
+            }
+            reserve(len);
+            out.write(b, off, len);
+        }
+
+        private void reserve(final int bytes) throws IOException {
+            spillManager.reserve(bytes);
+            reservedBytes.addAndGet(bytes);
+        }
+    }
+
+    private final class CountingInputStream extends FilterInputStream {
+
+        private CountingInputStream(final InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            final int b = in.read();
+            if (b >= 0) {
+                spillManager.read(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) throws IOException {
+            final int n = in.read(b, off, len);
+            if (n > 0) {
+                spillManager.read(n);
+            }
+            return n;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.xc.common.util;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author Jq
+ * @Title MeterMetricsListener
+ * @Description 按Micrometer的计时器/计数器/分布摘要模型上报JobMetrics，通过MeterSink对接具体的指标库，本工具不依赖Micrometer
+ * @date 2026/10/19 09:34:02
+ */
+public final class MeterMetricsListener implements ExcelMetricsListener {
+
+    /**
+     * 指标输出，对应Micrometer的Timer、Counter与DistributionSummary；tags为键值交替的标签
+     */
+    public interface MeterSink {
+
+        void timer(String name, long amount, TimeUnit unit, String... tags);
+
+        void counter(String name, double amount, String... tags);
+
+        void summary(String name, double amount, String... tags);
+    }
+
+    private final MeterSink sink;
+
+    private final String prefix;
+
+    /**
+     * 指标名前缀为"excel"
+     */
+    public MeterMetricsListener(final MeterSink sink) {
+        this(sink, "excel");
+    }
+
+    public MeterMetricsListener(final MeterSink sink, final String prefix) {
+        this.sink = sink;
+        this.prefix = prefix;
+    }
+
+    /**
+     * 输出的指标(标签type、name、outcome)：
+     * job任务耗时、phase各阶段耗时(另带phase标签)、rows行数、rows.per.second吞吐、bytes读写字节数、
+     * spill.bytes与spill.files溢写文件大小与个数、errors失败次数(另带exception标签)
+     */
+    @Override
+    public void onJobFinished(final JobMetrics metrics) {
+        final String[] tags = {
+                "type", metrics.getType().name().toLowerCase(),
+                "name", metrics.getName(),
+                "outcome", metrics.isSuccess() ? "success" : "error"};
+        sink.timer(prefix + ".job", metrics.getTotalNanos(), TimeUnit.NANOSECONDS, tags);
+        for (final ExcelPhase phase : ExcelPhase.values()) {
+            final long nanos = metrics.getPhaseNanos(phase);
+            if (nanos > 0) {
+                sink.timer(prefix + ".phase", nanos, TimeUnit.NANOSECONDS, with(tags, "phase", phase.getTag()));
+            }
+        }
+        sink.counter(prefix + ".rows", metrics.getRows(), tags);
+        sink.summary(prefix + ".rows.per.second", metrics.getRowsPerSecond(), tags);
+        sink.summary(prefix + ".bytes", metrics.getBytes(), tags);
+        if (metrics.getSpillFiles() > 0) {
+            sink.summary(prefix + ".spill.bytes", metrics.getSpillBytes(), tags);
+            sink.counter(prefix + ".spill.files", metrics.getSpillFiles(), tags);
+        }
+        if (!metrics.isSuccess()) {
+            sink.counter(prefix + ".errors", 1, with(tags, "exception", metrics.getError().getClass().getSimpleName()));
+        }
+    }
+
+    private static String[] with(final String[] tags, final String key, final String value) {
+        final String[] all = Arrays.copyOf(tags, tags.length + 2);
+        all[tags.length] = key;
+        all[tags.length + 1] = value;
+        return all;
+    }
+}
@@ -0,0 +1,188 @@
+package com.xc.common.util;
+
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.poifs.filesystem.FileMagic;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * @author Jq
+ * @Title MultiSheetImporter
+ * @Description 多sheet导入：.xlsx的workbook与共享字符串表只打开一次，各sheet在executor中并行SAX解析与绑定
+ * @date 2026/10/18 19:20:48
+ */
+final class MultiSheetImporter {
+
+    private MultiSheetImporter() {
+
+    }
+
+    /**
+     * 结果与imports一一对应，单个sheet失败只记录在该sheet的结果中
+     * 按文件头识别格式，.xls没有可共享的package，每个sheet各自按HSSF事件模型读取一遍文件
+     */
+    static List<SheetImportResult<?>> read(final File file,
+                                           final List<SheetImport<?>> imports,
+                                           final Executor executor,
+                                           final JobRecorder recorder) throws Exception {
+        if (FileMagic.valueOf(file) == FileMagic.OLE2) {
+            return read(imports, XlsEventReader.sheetNames(file),
+                    (index, columnCount, scope, callback) -> XlsEventReader.read(file, index, columnCount, scope, callback),
+                    executor, recorder);
+        }
+        try (OPCPackage pkg = OPCPackage.open(file, PackageAccess.READ)) {
+            final XSSFReader reader = new XSSFReader(pkg);
+            final ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg);
+            final List<ExcelSaxReader.SheetSource> sources = ExcelSaxReader.sheets(reader);
+            final List<String> names = new ArrayList<>(sources.size());
+            for (final ExcelSaxReader.SheetSource source : sources) {
+                names.add(source.getName());
+            }
+            //全部sheet读取完成后才关闭package
+            return read(imports, names,
+                    (index, columnCount, scope, callback) -> ExcelSaxReader.read(sources.get(index), strings, columnCount, scope, callback),
+                    executor, recorder);
+        }
+    }
+
+    private static List<SheetImportResult<?>> read(final List<SheetImport<?>> imports,
+                                                   final List<String> names,
+                                                   final SheetReader reader,
+                                                   final Executor executor,
+                                                   final JobRecorder recorder) {
+        final List<CompletableFuture<? extends SheetImportResult<?>>> futures = new ArrayList<>(imports.size());
+        for (final SheetImport<?> request : imports) {
+            futures.add(submit(request, names, reader, executor, recorder));
+        }
+        final List<SheetImportResult<?>> results = new ArrayList<>(futures.size());
+        for (final CompletableFuture<? extends SheetImportResult<?>> future : futures) {
+            results.add(future.join());
+        }
+        return results;
+    }
+
+    /**
+     * 整个workbook无法打开时，每个sheet都返回同一错误
+     */
+    static List<SheetImportResult<?>> failed(final List<SheetImport<?>> imports, final Throwable error) {
+        final List<SheetImportResult<?>> results = new ArrayList<>(imports.size());
+        for (final SheetImport<?> request : imports) {
+            results.add(failed(request, null, error));
+        }
+        return results;
+    }
+
+    private static <T> CompletableFuture<SheetImportResult<T>> submit(final SheetImport<T> request,
+                                                                      final List<String> names,
+                                                                      final SheetReader reader,
+                                                                      final Executor executor,
+                                                                      final JobRecorder recorder) {
+        final int index = find(request, names);
+        if (index < 0) {
+            final String target = request.getSheetName() != null ? request.getSheetName() : String.valueOf(request.getSheetIndex());
+            return CompletableFuture.completedFuture(failed(request, null, new IllegalArgumentException("Sheet not found : " + target)));
+        }
+        try {
+            return CompletableFuture.supplyAsync(() -> readSheet(request, index, names.get(index), reader, recorder), executor);
+        } catch (final RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(failed(request, names.get(index), e));
+        }
+    }
+
+    private static int find(final SheetImport<?> request, final List<String> names) {
+        if (request.getSheetName() != null) {
+            return names.indexOf(request.getSheetName());
+        }
+        return request.getSheetIndex() >= 0 && request.getSheetIndex() < names.size() ? request.getSheetIndex() : -1;
+    }
+
+    private static <T> SheetImportResult<T> readSheet(final SheetImport<T> request,
+                                                      final int index,
+                                                      final String sheetName,
+                                                      final SheetReader reader,
+                                                      final JobRecorder recorder) {
+        final SheetCollector<T> collector = new SheetCollector<>(request);
+        try {
+            final RowBinder.SheetBinding<T> binding = new RowBinder.SheetBinding<>(RowBinder.of(request.getCls()));
+            binding.scope().setRecorder(recorder);
+            reader.read(index, binding.width(), binding.scope(), (rowNum, values) -> {
+                //第一行为表头
+                if (binding.header(rowNum, values)) {
+                    return;
+                }
+                final long start = recorder.start();
+                final T row = binding.binder().bind(rowNum, values);
+                recorder.stop(ExcelPhase.BIND, start);
+                collector.add(row);
+            });
+            collector.flush();
+            return new SheetImportResult<>(request, sheetName, collector.rows(), collector.count, null);
+        } catch (final Throwable e) {
+            return new SheetImportResult<>(request, sheetName, Collections.emptyList(), collector.delivered, e);
+        }
+    }
+
+    private static <T> SheetImportResult<T> failed(final SheetImport<T> request, final String sheetName, final Throwable error) {
+        return new SheetImportResult<>(request, sheetName, Collections.emptyList(), 0, error);
+    }
+
+    /**
+     * 按下标读取单个sheet，.xlsx共享已打开的package与共享字符串表
+     */
+    private interface SheetReader {
+
+        void read(int index, int columnCount, ExcelSaxReader.ReadScope scope, ExcelSaxReader.RowCallback callback) throws Exception;
+    }
+
+    /**
+     * 未指定sink时收集全部行，否则按批交给sink
+     */
+    private static final class SheetCollector<T> {
+
+        private final SheetImport<T> request;
+
+        private List<T> rows;
+
+        private long count;
+
+        /**
+         * 已交给sink处理完成的行数
+         */
+        private long delivered;
+
+        private SheetCollector(final SheetImport<T> request) {
+            this.request = request;
+            this.rows = new ArrayList<>(request.getSink() == null ? 16 : request.getBatchSize());
+        }
+
+        private void add(final T row) {
+            rows.add(row);
+            count++;
+            if (request.getSink() != null && rows.size() >= request.getBatchSize()) {
+                flush();
+            }
+        }
+
+        private void flush() {
+            if (request.getSink() == null || rows.isEmpty()) {
+                return;
+            }
+            request.getSink().accept(rows);
+            delivered += rows.size();
+            rows = new ArrayList<>(request.getBatchSize());
+        }
+
+        private List<T> rows() {
+            return request.getSink() == null ? rows : Collections.emptyList();
+        }
+    }
+}
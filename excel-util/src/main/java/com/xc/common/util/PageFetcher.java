@@ -0,0 +1,20 @@
+package com.xc.common.util;
+
+import java.util.List;
+
+/**
+ * @author Jq
+ * @Title PageFetcher
+ * @Description 分页取数，导出时逐页拉取、写完即释放，返回空集合或不足一页时结束
+ * @date 2026/10/18 13:10:05
+ */
+@FunctionalInterface
+public interface PageFetcher<T> {
+
+    /**
+     * @param pageNo   页码(从1开始)
+     * @param pageSize 每页条数
+     * @return 当前页数据
+     */
+    List<T> fetch(int pageNo, int pageSize);
+}
@@ -0,0 +1,63 @@
+package com.xc.common.util;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * @author Jq
+ * @Title PagedIterator
+ * @Description 把PageFetcher包装成Iterator，任意时刻只持有当前一页
+ * @date 2026/10/18 13:16:51
+ */
+final class PagedIterator<T> implements Iterator<T> {
+
+    private final PageFetcher<T> fetcher;
+
+    private final int pageSize;
+
+    private int pageNo;
+
+    private List<T> page;
+
+    private int index;
+
+    private boolean lastPage;
+
+    PagedIterator(final PageFetcher<T> fetcher, final int pageSize) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("pageSize must be positive : " + pageSize);
+        }
+        this.fetcher = fetcher;
+        this.pageSize = pageSize;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (page != null && index < page.size()) {
+            return true;
+        }
+        //先释放上一页，再拉取下一页
+        page = null;
+        if (lastPage) {
+            return false;
+        }
+        final List<T> next = fetcher.fetch(++pageNo, pageSize);
+        if (next == null || next.isEmpty()) {
+            lastPage = true;
+            return false;
+        }
+        lastPage = next.size() < pageSize;
+        page = next;
+        index = 0;
+        return true;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return page.get(index++);
+    }
+}
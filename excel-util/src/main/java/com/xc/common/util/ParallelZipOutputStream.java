@@ -0,0 +1,348 @@
+package com.xc.common.util;
+
+import org.apache.commons.compress.archivers.ArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+
+/**
+ * @author Jq
+ * @Title ParallelZipOutputStream
+ * @Description xlsx打包输出：每个zip条目按固定大小分块，在线程池中并行deflate(前一块末尾32KB作为预置字典)后按顺序拼接为一个标准deflate流；压缩级别为0时按STORED不压缩输出
+ * @date 2026/10/18 23:20:14
+ */
+final class ParallelZipOutputStream extends ZipArchiveOutputStream {
+
+    /**
+     * 不压缩，条目以STORED方式输出
+     */
+    static final int STORE = 0;
+
+    private static final int CHUNK_SIZE = 256 * 1024;
+
+    private static final int DICTIONARY_SIZE = 32 * 1024;
+
+    /**
+     * 已压缩数据超过该大小后转存临时文件，避免大sheet在内存中整体缓存
+     */
+    private static final int MEMORY_LIMIT = 4 * 1024 * 1024;
+
+    private final int level;
+
+    private final SpillManager spillManager;
+
+    /**
+     * 为空表示在写入线程中压缩
+     */
+    private final Executor executor;
+
+    /**
+     * 未提供共享线程池时自建，结束或关闭时关闭一次
+     */
+    private ForkJoinPool ownPool;
+
+    private final int maxInFlight;
+
+    private final ArrayDeque<Future<byte[]>> inFlight = new ArrayDeque<>();
+
+    private final CRC32 crc = new CRC32();
+
+    private ZipArchiveEntry entry;
+
+    private byte[] chunk;
+
+    private int chunkPos;
+
+    /**
+     * 上一块原始数据，末尾用作下一块的预置字典
+     */
+    private byte[] previous;
+
+    private long size;
+
+    private EntryBuffer buffer;
+
+    private ParallelZipOutputStream(final OutputStream out,
+                                    final int level,
+                                    final int threads,
+                                    final Executor executor,
+                                    final SpillManager spillManager) {
+        super(out);
+        this.level = level;
+        this.spillManager = spillManager;
+        if (threads <= 1 || level == STORE) {
+            this.executor = null;
+        } else if (executor != null) {
+            this.executor = executor;
+        } else {
+            this.ownPool = new ForkJoinPool(threads);
+            this.executor = ownPool;
+        }
+        this.maxInFlight = Math.max(threads, 1) * 2;
+    }
+
+    /**
+     * 默认级别且单线程时与原先一致，直接使用ZipArchiveOutputStream
+     *
+     * @param level    Deflater压缩级别(-1为默认，0为STORED不压缩，1-9)
+     * @param threads  压缩线程数，同时在途的块数按此限制
+     * @param executor 共享的压缩线程池，不会被关闭；为空时按threads新建，结束时关闭
+     */
+    static ZipArchiveOutputStream open(final OutputStream out,
+                                       final int level,
+                                       final int threads,
+                                       final Executor executor,
+                                       final SpillManager spillManager) {
+        if (level != STORE && threads <= 1) {
+            final ZipArchiveOutputStream zip = new ZipArchiveOutputStream(out);
+            zip.setLevel(level);
+            return zip;
+        }
+        return new ParallelZipOutputStream(out, level, threads, executor, spillManager);
+    }
+
+    @Override
+    public void putArchiveEntry(final ArchiveEntry archiveEntry) throws IOException {
+        if (entry != null) {
+            closeArchiveEntry();
+        }
+        entry = (ZipArchiveEntry) archiveEntry;
+        chunk = new byte[CHUNK_SIZE];
+        chunkPos = 0;
+        previous = null;
+        size = 0;
+        crc.reset();
+        buffer = new EntryBuffer();
+    }
+
+    @Override
+    public void write(final byte[] b, final int offset, final int length) throws IOException {
+        if (entry == null) {
+            throw new IllegalStateException("No current entry");
+        }
+        crc.update(b, offset, length);
+        size += length;
+        int off = offset;
+        int remaining = length;
+        while (remaining > 0) {
+            final int n = Math.min(remaining, CHUNK_SIZE - chunkPos);
+            System.arraycopy(b, off, chunk, chunkPos, n);
+            chunkPos += n;
+            off += n;
+            remaining -= n;
+            if (chunkPos == CHUNK_SIZE) {
+                submit(false);
+            }
+        }
+    }
+
+    @Override
+    public void closeArchiveEntry() throws IOException {
+        if (entry == null) {
+            return;
+        }
+        try {
+            submit(true);
+            while (!inFlight.isEmpty()) {
+                drain();
+            }
+            final ZipArchiveEntry raw = new ZipArchiveEntry(entry.getName());
+            raw.setTime(entry.getTime());
+            raw.setMethod(level == STORE ? ZipEntry.STORED : ZipEntry.DEFLATED);
+            raw.setCrc(crc.getValue());
+            raw.setSize(size);
+            raw.setCompressedSize(buffer.length);
+            try (InputStream in = buffer.openStream()) {
+                addRawArchiveEntry(raw, in);
+            }
+        } finally {
+            buffer.dispose();
+            buffer = null;
+            entry = null;
+            chunk = null;
+            previous = null;
+        }
+    }
+
+    @Override
+    public void finish() throws IOException {
+        try {
+            if (entry != null) {
+                closeArchiveEntry();
+            }
+            super.finish();
+        } finally {
+            shutdownPool();
+        }
+    }
+
+    /**
+     * 未调用finish直接关闭(如写出失败)时也关闭自建的线程池
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            super.close();
+        } finally {
+            shutdownPool();
+        }
+    }
+
+    private void shutdownPool() {
+        if (ownPool != null) {
+            ownPool.shutdownNow();
+            ownPool = null;
+        }
+    }
+
+    /**
+     * 提交当前块，最后一块带结束标记
+     */
+    private void submit(final boolean last) throws IOException {
+        final byte[] data = chunk;
+        final int length = chunkPos;
+        final byte[] dictionary = previous;
+        if (level == STORE) {
+            buffer.write(data, 0, length);
+        } else if (executor == null) {
+            final byte[] compressed = deflate(data, length, dictionary, last, level);
+            buffer.write(compressed, 0, compressed.length);
+        } else {
+            final FutureTask<byte[]> task = new FutureTask<>(() -> deflate(data, length, dictionary, last, level));
+            try {
+                executor.execute(task);
+            } catch (final RejectedExecutionException e) {
+                throw new IOException("Compress " + entry.getName() + " rejected", e);
+            }
+            inFlight.add(task);
+            while (inFlight.size() > maxInFlight) {
+                drain();
+            }
+        }
+        if (!last) {
+            previous = data;
+            //已提交的块仍在压缩中，不能复用
+            chunk = new byte[CHUNK_SIZE];
+            chunkPos = 0;
+        }
+    }
+
+    /**
+     * 按提交顺序取出最早的一块写入缓冲
+     */
+    private void drain() throws IOException {
+        final byte[] compressed;
+        try {
+            compressed = inFlight.poll().get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while compressing " + entry.getName());
+        } catch (final ExecutionException e) {
+            throw new IOException("Compress " + entry.getName() + " error", e.getCause());
+        }
+        buffer.write(compressed, 0, compressed.length);
+    }
+
+    /**
+     * 非最后一块以SYNC_FLUSH结束(按字节对齐且不置结束位)，各块依次拼接即为一个完整的deflate流
+     */
+    private static byte[] deflate(final byte[] data, final int length, final byte[] dictionary, final boolean last, final int level) {
+        final Deflater deflater = new Deflater(level, true);
+        try {
+            if (dictionary != null) {
+                deflater.setDictionary(dictionary, dictionary.length - DICTIONARY_SIZE, DICTIONARY_SIZE);
+            }
+            deflater.setInput(data, 0, length);
+            if (last) {
+                deflater.finish();
+            }
+            byte[] out = new byte[Math.max(length / 2, 1024)];
+            int pos = 0;
+            while (true) {
+                if (pos == out.length) {
+                    out = Arrays.copyOf(out, out.length * 2);
+                }
+                pos += deflater.deflate(out, pos, out.length - pos, last ? Deflater.NO_FLUSH : Deflater.SYNC_FLUSH);
+                if (last ? deflater.finished() : pos < out.length) {
+                    return Arrays.copyOf(out, pos);
+                }
+            }
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * 单个条目的输出数据，超过MEMORY_LIMIT后转存SpillManager目录下的临时文件并计入配额
+     */
+    private final class EntryBuffer {
+
+        private ByteArrayOutputStream memory = new ByteArrayOutputStream();
+
+        private File file;
+
+        private OutputStream fileOut;
+
+        private long length;
+
+        private void write(final byte[] b, final int off, final int len) throws IOException {
+            if (file == null && memory.size() + len > MEMORY_LIMIT) {
+                file = spillManager.createTempFile(".zip.part");
+                fileOut = new FileOutputStream(file);
+                spillManager.reserve(memory.size());
+                memory.writeTo(fileOut);
+                memory = null;
+            }
+            if (file != null) {
+                spillManager.reserve(len);
+                fileOut.write(b, off, len);
+            } else {
+                memory.write(b, off, len);
+            }
+            length += len;
+        }
+
+        private InputStream openStream() throws IOException {
+            if (file == null) {
+                return new ByteArrayInputStream(memory.toByteArray());
+            }
+            fileOut.close();
+            return new FileInputStream(file);
+        }
+
+        private void dispose() throws IOException {
+            if (file == null) {
+                return;
+            }
+            try {
+                fileOut.close();
+            } finally {
+                if (file.exists() && !file.delete()) {
+                    file.deleteOnExit();
+                }
+                spillManager.fileDeleted(1);
+                spillManager.release(length);
+            }
+        }
+    }
+}
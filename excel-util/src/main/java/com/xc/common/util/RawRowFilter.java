@@ -0,0 +1,18 @@
+package com.xc.common.util;
+
+/**
+ * @author Jq
+ * @Title RawRowFilter
+ * @Description 导入行过滤，在绑定到pojo之前按单元格原始值判断，不通过的行不创建对象
+ * @date 2026/10/18 21:40:26
+ */
+@FunctionalInterface
+public interface RawRowFilter {
+
+    /**
+     * @param rowNum 行号(从0开始，第0行为表头)
+     * @param values 下标为列号，值为Double/String/Boolean，空单元格与未选中的列为null；数组在行间复用，不可保存
+     * @return 是否保留该行
+     */
+    boolean accept(int rowNum, Object[] values);
+}
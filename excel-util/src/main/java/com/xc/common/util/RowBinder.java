@@ -0,0 +1,642 @@
+package com.xc.common.util;
+
+import com.alibaba.fastjson.parser.ParserConfig;
+import com.alibaba.fastjson.util.TypeUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.util.NumberToTextConverter;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAccessor;
+import java.util.Date;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * @author Jq
+ * @Title RowBinder
+ * @Description 按Class编译一次的行绑定器，单元格按字段声明类型直接转换并通过MethodHandle赋值，不再经过Map与JSON
+ * @date 2026/10/18 11:02:33
+ */
+final class RowBinder<T> {
+
+    private static final MethodType CONSTRUCTOR_TYPE = MethodType.methodType(Object.class);
+
+    private static final MethodType OBJECT_SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private static final ConcurrentMap<Class<?>, RowBinder<?>> BINDERS = new ConcurrentHashMap<>();
+
+    /**
+     * 字段绑定类型，编译时确定，逐格只做switch
+     */
+    enum BindType {
+        STRING, INT, LONG, DOUBLE, FLOAT, SHORT, BOOLEAN,
+        INTEGER_OBJ, LONG_OBJ, DOUBLE_OBJ, FLOAT_OBJ, SHORT_OBJ, BOOLEAN_OBJ,
+        BIG_DECIMAL, DATE, LOCAL_DATE, LOCAL_DATE_TIME, OTHER
+    }
+
+    private final Class<T> cls;
+
+    private final MethodHandle constructor;
+
+    /**
+     * 下标即列号，static/final字段占位但不绑定；带ExcelColumn注解的类在解析表头前按注解顺序排列
+     */
+    private final ColumnBinder[] columns;
+
+    private final ExcelSchema schema;
+
+    private RowBinder(final Class<T> cls, final MethodHandle constructor, final ColumnBinder[] columns, final ExcelSchema schema) {
+        this.cls = cls;
+        this.constructor = constructor;
+        this.columns = columns;
+        this.schema = schema;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> RowBinder<T> of(final Class<T> cls) {
+        return (RowBinder<T>) BINDERS.computeIfAbsent(cls, RowBinder::compile);
+    }
+
+    int width() {
+        return columns.length;
+    }
+
+    /**
+     * 是否需要按表头解析列映射
+     */
+    boolean isMapped() {
+        return schema.isAnnotated();
+    }
+
+    /**
+     * 按表头行解析一次列映射，返回的绑定器下标即文件中的列号，逐行绑定时只查表；未带注解的类按声明顺序，直接返回自身
+     *
+     * @param headerRow 表头行的原始值，下标为列号
+     * @throws IllegalArgumentException 必填列的表头不存在
+     */
+    RowBinder<T> resolve(final Object[] headerRow) {
+        if (!isMapped()) {
+            return this;
+        }
+        final ExcelSchema.Column[] schemaColumns = schema.getColumns();
+        final int[] positions = new int[schemaColumns.length];
+        int width = 0;
+        for (int i = 0; i < schemaColumns.length; i++) {
+            final ExcelSchema.Column column = schemaColumns[i];
+            int position = column.getIndex();
+            if (position < 0) {
+                position = find(headerRow, column.getName());
+            }
+            if (position < 0 && column.isRequired()) {
+                throw new IllegalArgumentException("Required column not found : " + column.getName());
+            }
+            positions[i] = position;
+            width = Math.max(width, position + 1);
+        }
+        final ColumnBinder[] mapped = new ColumnBinder[width];
+        for (int i = 0; i < positions.length; i++) {
+            if (positions[i] < 0) {
+                continue;
+            }
+            if (mapped[positions[i]] != null) {
+                throw new IllegalArgumentException("Column " + (positions[i] + 1) + " is mapped to both "
+                        + mapped[positions[i]].name + " and " + columns[i].name);
+            }
+            mapped[positions[i]] = columns[i];
+        }
+        return new RowBinder<>(cls, constructor, mapped, schema);
+    }
+
+    RowBinder<T> resolve(final Row headerRow) {
+        if (!isMapped()) {
+            return this;
+        }
+        if (headerRow == null) {
+            throw new IllegalArgumentException("Header row not found for " + cls.getName());
+        }
+        final Object[] values = new Object[Math.max(headerRow.getLastCellNum(), 0)];
+        for (int y = 0; y < values.length; y++) {
+            final Cell cell = headerRow.getCell(y);
+            if (cell == null) {
+                continue;
+            }
+            if (cell.getCellType() == CellType.STRING) {
+                values[y] = cell.getStringCellValue();
+            } else if (cell.getCellType() == CellType.NUMERIC) {
+                values[y] = NumberToTextConverter.toText(cell.getNumericCellValue());
+            }
+        }
+        return resolve(values);
+    }
+
+    /**
+     * 需要读取的列
+     */
+    boolean[] mask() {
+        final boolean[] mask = new boolean[columns.length];
+        for (int y = 0; y < columns.length; y++) {
+            mask[y] = columns[y] != null;
+        }
+        return mask;
+    }
+
+    private static int find(final Object[] headerRow, final String name) {
+        for (int y = 0; y < headerRow.length; y++) {
+            if (headerRow[y] != null && name.equals(headerRow[y].toString().trim())) {
+                return y;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 按列号顺序直接读取POI单元格
+     */
+    T bind(final Row row) {
+        final T target = newInstance();
+        for (int y = 0; y < columns.length; y++) {
+            final ColumnBinder column = columns[y];
+            if (column != null) {
+                try {
+                    column.bindCell(target, row.getCell(y));
+                } catch (final Throwable e) {
+                    throw bindError(row.getRowNum(), y, column, e);
+                }
+            }
+        }
+        return target;
+    }
+
+    /**
+     * 字段对应的列号，不存在或不可绑定时为-1
+     */
+    int column(final String fieldName) {
+        for (int y = 0; y < columns.length; y++) {
+            if (columns[y] != null && columns[y].name.equals(fieldName)) {
+                return y;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 绑定流式读取得到的原始值(Double/String/Boolean/null)
+     */
+    T bind(final int rowNum, final Object[] values) {
+        return bind(rowNum, values, null);
+    }
+
+    /**
+     * 行尾缺少的单元格按空单元格绑定，与按POI单元格读取时一致
+     *
+     * @param selected 为空表示全部列，未选中列对应的字段保持默认值
+     */
+    T bind(final int rowNum, final Object[] values, final boolean[] selected) {
+        final T target = newInstance();
+        for (int y = 0; y < columns.length; y++) {
+            final ColumnBinder column = columns[y];
+            if (column != null && (selected == null || (y < selected.length && selected[y]))) {
+                try {
+                    column.bindRaw(target, y < values.length ? values[y] : null);
+                } catch (final Throwable e) {
+                    throw bindError(rowNum, y, column, e);
+                }
+            }
+        }
+        return target;
+    }
+
+    @SuppressWarnings("unchecked")
+    private T newInstance() {
+        try {
+            return (T) (Object) constructor.invokeExact();
+        } catch (final RuntimeException | Error e) {
+            throw e;
+        } catch (final Throwable e) {
+            throw new IllegalStateException("Create " + cls.getName() + " error", e);
+        }
+    }
+
+    private static IllegalArgumentException bindError(final int rowNum, final int column, final ColumnBinder binder, final Throwable e) {
+        return new IllegalArgumentException("Bind row " + (rowNum + 1) + " column " + (column + 1)
+                + " to field " + binder.name + " error : " + e.getMessage(), e);
+    }
+
+    private static <T> RowBinder<T> compile(final Class<T> cls) {
+        final MethodHandles.Lookup lookup = MethodHandles.lookup();
+        final MethodHandle constructor;
+        try {
+            final Constructor<T> ctor = cls.getDeclaredConstructor();
+            ctor.setAccessible(true);
+            constructor = lookup.unreflectConstructor(ctor).asType(CONSTRUCTOR_TYPE);
+        } catch (final NoSuchMethodException | IllegalAccessException e) {
+            throw new IllegalStateException(cls.getName() + " has no accessible default constructor", e);
+        }
+        final ExcelSchema schema = ExcelSchema.of(cls);
+        final ExcelSchema.Column[] schemaColumns = schema.getColumns();
+        final ColumnBinder[] columns = new ColumnBinder[schemaColumns.length];
+        for (int i = 0; i < schemaColumns.length; i++) {
+            final Field field = schemaColumns[i].getField();
+            final int modifiers = field.getModifiers();
+            if (Modifier.isStatic(modifiers) || Modifier.isFinal(modifiers) || field.isSynthetic()) {
+                if (schema.isAnnotated()) {
+                    throw new IllegalStateException("Field can not be bound : " + field);
+                }
+                continue;
+            }
+            columns[i] = new ColumnBinder(lookup, field, schemaColumns[i]);
+        }
+        return new RowBinder<>(cls, constructor, columns, schema);
+    }
+
+    static BindType resolveType(final Class<?> type) {
+        if (type == String.class) {
+            return BindType.STRING;
+        } else if (type == int.class) {
+            return BindType.INT;
+        } else if (type == long.class) {
+            return BindType.LONG;
+        } else if (type == double.class) {
+            return BindType.DOUBLE;
+        } else if (type == float.class) {
+            return BindType.FLOAT;
+        } else if (type == short.class) {
+            return BindType.SHORT;
+        } else if (type == boolean.class) {
+            return BindType.BOOLEAN;
+        } else if (type == Integer.class) {
+            return BindType.INTEGER_OBJ;
+        } else if (type == Long.class) {
+            return BindType.LONG_OBJ;
+        } else if (type == Double.class) {
+            return BindType.DOUBLE_OBJ;
+        } else if (type == Float.class) {
+            return BindType.FLOAT_OBJ;
+        } else if (type == Short.class) {
+            return BindType.SHORT_OBJ;
+        } else if (type == Boolean.class) {
+            return BindType.BOOLEAN_OBJ;
+        } else if (type == BigDecimal.class) {
+            return BindType.BIG_DECIMAL;
+        } else if (type == Date.class) {
+            return BindType.DATE;
+        } else if (type == LocalDate.class) {
+            return BindType.LOCAL_DATE;
+        } else if (type == LocalDateTime.class) {
+            return BindType.LOCAL_DATE_TIME;
+        }
+        return BindType.OTHER;
+    }
+
+    /**
+     * 整数文本优先按long解析，避免超过2^53的编号丢精度
+     */
+    static long parseLong(final String text) {
+        for (int i = 0; i < text.length(); i++) {
+            final char c = text.charAt(i);
+            if ((c < '0' || c > '9') && !(i == 0 && (c == '-' || c == '+'))) {
+                return (long) Double.parseDouble(text);
+            }
+        }
+        return Long.parseLong(text);
+    }
+
+    private static LocalDateTime toLocalDateTime(final String text) {
+        return LocalDateTime.ofInstant(TypeUtils.castToDate(text).toInstant(), ZoneId.systemDefault());
+    }
+
+    /**
+     * 流式读取时的绑定状态：第0行为表头，带注解的类在此解析一次列映射并只读取映射到的列，之后的行按列号查表绑定
+     */
+    static final class SheetBinding<T> {
+
+        private final RowBinder<T> declared;
+
+        private final ExcelSaxReader.ReadScope scope = new ExcelSaxReader.ReadScope();
+
+        private RowBinder<T> binder;
+
+        SheetBinding(final RowBinder<T> declared) {
+            this.declared = declared;
+            if (declared.isMapped()) {
+                //表头列数未知，按实际单元格扩展
+                scope.setGrowable(true);
+            } else {
+                binder = declared;
+            }
+        }
+
+        ExcelSaxReader.ReadScope scope() {
+            return scope;
+        }
+
+        int width() {
+            return declared.width();
+        }
+
+        boolean isMapped() {
+            return declared.isMapped();
+        }
+
+        /**
+         * @return 是否为表头行
+         * @throws IllegalArgumentException 带注解的类在表头之前读到数据行
+         */
+        boolean header(final int rowNum, final Object[] values) {
+            if (rowNum >= 1) {
+                if (binder == null) {
+                    throw new IllegalArgumentException("Header row not found for " + declared.cls.getName());
+                }
+                return false;
+            }
+            if (declared.isMapped()) {
+                binder = declared.resolve(values);
+                scope.setColumns(binder.mask());
+            }
+            return true;
+        }
+
+        RowBinder<T> binder() {
+            return binder;
+        }
+    }
+
+    private static final class ColumnBinder {
+
+        private final String name;
+
+        private final BindType type;
+
+        private final Type genericType;
+
+        /**
+         * 基本类型字段为(Object,基本类型)void，其余为(Object,Object)void
+         */
+        private final MethodHandle setter;
+
+        private final MethodHandle objectSetter;
+
+        /**
+         * ExcelColumn.format，未设置时为空
+         */
+        private final DateTimeFormatter formatter;
+
+        private final boolean required;
+
+        private ColumnBinder(final MethodHandles.Lookup lookup, final Field field, final ExcelSchema.Column column) {
+            field.setAccessible(true);
+            this.name = field.getName();
+            this.formatter = column.getFormatter();
+            this.required = column.isRequired();
+            this.type = resolveType(field.getType());
+            this.genericType = field.getGenericType();
+            try {
+                final MethodHandle handle = lookup.unreflectSetter(field);
+                this.setter = handle.asType(MethodType.methodType(void.class, Object.class, field.getType()));
+                this.objectSetter = handle.asType(OBJECT_SETTER_TYPE);
+            } catch (final IllegalAccessException e) {
+                throw new IllegalStateException("Field not accessible : " + field, e);
+            }
+        }
+
+        void bindCell(final Object target, final Cell cell) throws Throwable {
+            if (cell == null) {
+                blank(target);
+                return;
+            }
+            CellType cellType = cell.getCellType();
+            if (cellType == CellType.FORMULA) {
+                cellType = cell.getCachedFormulaResultType();
+            }
+            switch (cellType) {
+                case NUMERIC:
+                    numeric(target, cell.getNumericCellValue());
+                    break;
+                case STRING:
+                    text(target, StringUtils.trim(cell.getStringCellValue()));
+                    break;
+                case BOOLEAN:
+                    bool(target, cell.getBooleanCellValue());
+                    break;
+                case _NONE:
+                case BLANK:
+                    blank(target);
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        void bindRaw(final Object target, final Object value) throws Throwable {
+            if (value == null) {
+                blank(target);
+            } else if (value instanceof Double) {
+                numeric(target, (Double) value);
+            } else if (value instanceof Boolean) {
+                bool(target, (Boolean) value);
+            } else {
+                text(target, StringUtils.trim(value.toString()));
+            }
+        }
+
+        /**
+         * 空单元格:字符串字段保持原先的""，其余字段保持默认值
+         */
+        private void blank(final Object target) throws Throwable {
+            if (required) {
+                throw new IllegalArgumentException("required value is blank");
+            }
+            if (type == BindType.STRING) {
+                objectSetter.invokeExact(target, (Object) "");
+            }
+        }
+
+        /**
+         * 整数字段按四舍六入五成双取整，与原先DecimalFormat("##")格式化后再转换的结果一致(2.6为3)
+         */
+        private void numeric(final Object target, final double value) throws Throwable {
+            switch (type) {
+                case INT:
+                    setter.invokeExact(target, (int) Math.rint(value));
+                    break;
+                case LONG:
+                    setter.invokeExact(target, (long) Math.rint(value));
+                    break;
+                case DOUBLE:
+                    setter.invokeExact(target, value);
+                    break;
+                case FLOAT:
+                    setter.invokeExact(target, (float) value);
+                    break;
+                case SHORT:
+                    setter.invokeExact(target, (short) Math.rint(value));
+                    break;
+                case BOOLEAN:
+                    setter.invokeExact(target, value != 0);
+                    break;
+                case STRING:
+                    //带日期格式的文本字段，日期单元格按格式转为文本
+                    objectSetter.invokeExact(target, (Object) (formatter != null
+                            ? formatter.format(DateUtil.getLocalDateTime(value)) : NumberToTextConverter.toText(value)));
+                    break;
+                case INTEGER_OBJ:
+                    objectSetter.invokeExact(target, (Object) (int) Math.rint(value));
+                    break;
+                case LONG_OBJ:
+                    objectSetter.invokeExact(target, (Object) (long) Math.rint(value));
+                    break;
+                case DOUBLE_OBJ:
+                    objectSetter.invokeExact(target, (Object) value);
+                    break;
+                case FLOAT_OBJ:
+                    objectSetter.invokeExact(target, (Object) (float) value);
+                    break;
+                case SHORT_OBJ:
+                    objectSetter.invokeExact(target, (Object) (short) Math.rint(value));
+                    break;
+                case BOOLEAN_OBJ:
+                    objectSetter.invokeExact(target, (Object) (value != 0));
+                    break;
+                case BIG_DECIMAL:
+                    objectSetter.invokeExact(target, (Object) BigDecimal.valueOf(value));
+                    break;
+                case DATE:
+                    objectSetter.invokeExact(target, (Object) DateUtil.getJavaDate(value));
+                    break;
+                case LOCAL_DATE:
+                    objectSetter.invokeExact(target, (Object) DateUtil.getLocalDateTime(value).toLocalDate());
+                    break;
+                case LOCAL_DATE_TIME:
+                    objectSetter.invokeExact(target, (Object) DateUtil.getLocalDateTime(value));
+                    break;
+                default:
+                    objectSetter.invokeExact(target, (Object) TypeUtils.cast(value, genericType, ParserConfig.getGlobalInstance()));
+                    break;
+            }
+        }
+
+        /**
+         * 整数文本解析出的long直接赋值，不经过double，超过2^53的编号不丢精度
+         */
+        private void integral(final Object target, final long value) throws Throwable {
+            switch (type) {
+                case INT:
+                    setter.invokeExact(target, (int) value);
+                    break;
+                case LONG:
+                    setter.invokeExact(target, value);
+                    break;
+                case SHORT:
+                    setter.invokeExact(target, (short) value);
+                    break;
+                case INTEGER_OBJ:
+                    objectSetter.invokeExact(target, (Object) (int) value);
+                    break;
+                case LONG_OBJ:
+                    objectSetter.invokeExact(target, (Object) value);
+                    break;
+                case SHORT_OBJ:
+                    objectSetter.invokeExact(target, (Object) (short) value);
+                    break;
+                default:
+                    numeric(target, value);
+                    break;
+            }
+        }
+
+        private void text(final Object target, final String value) throws Throwable {
+            if (value.isEmpty()) {
+                blank(target);
+                return;
+            }
+            switch (type) {
+                case STRING:
+                    objectSetter.invokeExact(target, (Object) value);
+                    break;
+                case INT:
+                case SHORT:
+                case LONG:
+                case INTEGER_OBJ:
+                case SHORT_OBJ:
+                case LONG_OBJ:
+                    integral(target, parseLong(value));
+                    break;
+                case DOUBLE:
+                case FLOAT:
+                case DOUBLE_OBJ:
+                case FLOAT_OBJ:
+                    numeric(target, Double.parseDouble(value));
+                    break;
+                case BOOLEAN:
+                case BOOLEAN_OBJ:
+                    bool(target, TypeUtils.castToBoolean(value));
+                    break;
+                case BIG_DECIMAL:
+                    objectSetter.invokeExact(target, (Object) new BigDecimal(value));
+                    break;
+                case DATE:
+                    objectSetter.invokeExact(target, (Object) (formatter != null
+                            ? Date.from(parse(value).atZone(ZoneId.systemDefault()).toInstant()) : TypeUtils.castToDate(value)));
+                    break;
+                case LOCAL_DATE:
+                    objectSetter.invokeExact(target, (Object) (formatter != null ? parse(value) : toLocalDateTime(value)).toLocalDate());
+                    break;
+                case LOCAL_DATE_TIME:
+                    objectSetter.invokeExact(target, (Object) (formatter != null ? parse(value) : toLocalDateTime(value)));
+                    break;
+                default:
+                    objectSetter.invokeExact(target, (Object) TypeUtils.cast(value, genericType, ParserConfig.getGlobalInstance()));
+                    break;
+            }
+        }
+
+        /**
+         * 按ExcelColumn.format严格解析，格式不符时抛出异常而不是按其他格式猜测
+         */
+        private LocalDateTime parse(final String value) {
+            final TemporalAccessor parsed = formatter.parseBest(value, LocalDateTime::from, LocalDate::from);
+            return parsed instanceof LocalDate ? ((LocalDate) parsed).atStartOfDay() : (LocalDateTime) parsed;
+        }
+
+        private void bool(final Object target, final Boolean value) throws Throwable {
+            if (value == null) {
+                return;
+            }
+            switch (type) {
+                case BOOLEAN:
+                    setter.invokeExact(target, value.booleanValue());
+                    break;
+                case BOOLEAN_OBJ:
+                    objectSetter.invokeExact(target, (Object) value);
+                    break;
+                case STRING:
+                    objectSetter.invokeExact(target, (Object) (value ? "TRUE" : "FALSE"));
+                    break;
+                case DATE:
+                case LOCAL_DATE:
+                case LOCAL_DATE_TIME:
+                case OTHER:
+                    objectSetter.invokeExact(target, (Object) TypeUtils.cast(value, genericType, ParserConfig.getGlobalInstance()));
+                    break;
+                default:
+                    numeric(target, value ? 1 : 0);
+                    break;
+            }
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.xc.common.util;
+
+import lombok.Getter;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * @author Jq
+ * @Title SheetImport
+ * @Description 多sheet导入时单个sheet的描述：按sheet名或下标定位sheet，并指定转换的pojo class，可选分批交给sink
+ * @date 2026/10/18 19:12:36
+ */
+@Getter
+public class SheetImport<T> {
+
+    /**
+     * 按sheet名定位时不为空
+     */
+    private final String sheetName;
+
+    /**
+     * 按下标(从0开始)定位时不小于0
+     */
+    private final int sheetIndex;
+
+    private final Class<T> cls;
+
+    /**
+     * 为空时结果收集到SheetImportResult.rows中，否则每满batchSize行在工作线程中交给sink
+     */
+    private final Consumer<List<T>> sink;
+
+    private final int batchSize;
+
+    private SheetImport(final String sheetName,
+                        final int sheetIndex,
+                        final Class<T> cls,
+                        final Consumer<List<T>> sink,
+                        final int batchSize) {
+        this.sheetName = sheetName;
+        this.sheetIndex = sheetIndex;
+        this.cls = cls;
+        this.sink = sink;
+        this.batchSize = batchSize;
+    }
+
+    public static <T> SheetImport<T> of(final String sheetName, final Class<T> cls) {
+        return new SheetImport<>(sheetName, -1, cls, null, 0);
+    }
+
+    public static <T> SheetImport<T> of(final int sheetIndex, final Class<T> cls) {
+        if (sheetIndex < 0) {
+            throw new IllegalArgumentException("Sheet index must not be negative : " + sheetIndex);
+        }
+        return new SheetImport<>(null, sheetIndex, cls, null, 0);
+    }
+
+    /**
+     * 分批交给sink，不在内存中保留整个sheet；多个sheet共用同一sink时sink需线程安全
+     */
+    public SheetImport<T> to(final int batchSize, final Consumer<List<T>> sink) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive : " + batchSize);
+        }
+        return new SheetImport<>(sheetName, sheetIndex, cls, sink, batchSize);
+    }
+}
@@ -0,0 +1,47 @@
+package com.xc.common.util;
+
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * @author Jq
+ * @Title SheetImportResult
+ * @Description 多sheet导入中单个sheet的结果，失败时error不为空，不影响其他sheet
+ * @date 2026/10/18 19:16:02
+ */
+@Getter
+public class SheetImportResult<T> {
+
+    private final SheetImport<T> request;
+
+    /**
+     * 实际读取的sheet名，未找到sheet时为空
+     */
+    private final String sheetName;
+
+    /**
+     * 指定sink时为空集合
+     */
+    private final List<T> rows;
+
+    private final long rowCount;
+
+    private final Throwable error;
+
+    SheetImportResult(final SheetImport<T> request,
+                      final String sheetName,
+                      final List<T> rows,
+                      final long rowCount,
+                      final Throwable error) {
+        this.request = request;
+        this.sheetName = sheetName;
+        this.rows = rows;
+        this.rowCount = rowCount;
+        this.error = error;
+    }
+
+    public boolean isSuccess() {
+        return error == null;
+    }
+}
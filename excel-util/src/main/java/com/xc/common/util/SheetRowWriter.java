@@ -0,0 +1,101 @@
+package com.xc.common.util;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.util.CellRangeAddress;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+
+/**
+ * @author Jq
+ * @Title SheetRowWriter
+ * @Description 基于SXSSFSheet输出数据行
+ * @date 2026/10/18 10:21:47
+ */
+final class SheetRowWriter extends AbstractRowWriter {
+
+    private final SXSSFSheet sheet;
+
+    private final CellStyle style;
+
+    private final CellStyle specialStyle;
+
+    private final CellStyle dateTimeStyle;
+
+    private final CellStyle dateStyle;
+
+    private Row row;
+
+    /**
+     * 样式在构造时全部取出，保证并行写数据行时不再修改workbook样式表
+     */
+    SheetRowWriter(final SXSSFSheet sheet,
+                   final StyleRegistry styles,
+                   final boolean hasTitle,
+                   final int firstRowNum,
+                   final boolean typedCells,
+                   final boolean expandRows) {
+        super(hasTitle, firstRowNum, typedCells, expandRows);
+        this.sheet = sheet;
+        this.style = styles.style(StyleRegistry.TEXT);
+        this.specialStyle = hasTitle ? styles.style(StyleRegistry.BOLD_TEXT) : null;
+        this.dateTimeStyle = typedCells ? styles.style(StyleRegistry.DATE_TIME) : null;
+        this.dateStyle = typedCells ? styles.style(StyleRegistry.DATE) : null;
+    }
+
+    SXSSFSheet getSheet() {
+        return sheet;
+    }
+
+    @Override
+    protected void startRow(final int rowNum) {
+        row = sheet.createRow(rowNum);
+    }
+
+    @Override
+    protected void endRow() {
+        row = null;
+    }
+
+    @Override
+    protected void blankCell(final int cellnum) {
+        row.createCell(cellnum).setCellStyle(style);
+    }
+
+    @Override
+    protected void stringCell(final int cellnum, final String value, final boolean special) {
+        final Cell cell = row.createCell(cellnum);
+        cell.setCellStyle(special ? specialStyle : style);
+        cell.setCellValue(value);
+    }
+
+    @Override
+    protected void numericCell(final int cellnum, final double value) {
+        final Cell cell = row.createCell(cellnum);
+        cell.setCellStyle(style);
+        cell.setCellValue(value);
+    }
+
+    @Override
+    protected void dateCell(final int cellnum, final double serial, final boolean dateOnly) {
+        final Cell cell = row.createCell(cellnum);
+        cell.setCellStyle(dateOnly ? dateStyle : dateTimeStyle);
+        cell.setCellValue(serial);
+    }
+
+    @Override
+    protected int initialColumnWidth(final int cellnum) {
+        return sheet.getColumnWidth(cellnum) / 256;
+    }
+
+    @Override
+    protected void setColumnWidth(final int cellnum, final int width) {
+        sheet.setColumnWidth(cellnum, width);
+    }
+
+    @Override
+    protected void mergeRows(final int firstRow, final int lastRow, final int cellnum) {
+        //区域由行布局保证不重叠
+        sheet.addMergedRegionUnsafe(new CellRangeAddress(firstRow, lastRow, cellnum, cellnum));
+    }
+}
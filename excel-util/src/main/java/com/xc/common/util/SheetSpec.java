@@ -0,0 +1,78 @@
+package com.xc.common.util;
+
+import lombok.Getter;
+import org.apache.poi.ss.util.CellRangeAddress;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * @author Jq
+ * @Title SheetSpec
+ * @Description 多sheet导出时单个sheet的描述：sheet名、表头、标题、合并单元格与数据源
+ * @date 2026/10/18 14:03:18
+ */
+@Getter
+public class SheetSpec<T> {
+
+    private final String sheetName;
+
+    /**
+     * 数据源在工作线程中才会被调用，可在其中打开游标或分页查询
+     */
+    private final Supplier<? extends Iterator<T>> data;
+
+    /**
+     * cellRangeAddressList会替换为带合并单元格的新模板
+     */
+    private SheetTemplate template;
+
+    private SheetSpec(final String sheetName,
+                      final SheetTemplate template,
+                      final Supplier<? extends Iterator<T>> data) {
+        this.sheetName = sheetName;
+        this.template = template;
+        this.data = data;
+    }
+
+    public static <T> SheetSpec<T> of(final String sheetName,
+                                      final String[] headers,
+                                      final String titleName,
+                                      final List<T> data) {
+        return new SheetSpec<>(sheetName, SheetTemplate.of(headers, titleName, null), data::iterator);
+    }
+
+    public static <T> SheetSpec<T> of(final String sheetName,
+                                      final String[] headers,
+                                      final String titleName,
+                                      final PageFetcher<T> fetcher,
+                                      final int pageSize) {
+        return new SheetSpec<>(sheetName, SheetTemplate.of(headers, titleName, null), () -> new PagedIterator<>(fetcher, pageSize));
+    }
+
+    public static <T> SheetSpec<T> of(final String sheetName,
+                                      final String[] headers,
+                                      final String titleName,
+                                      final Supplier<? extends Iterator<T>> data) {
+        return new SheetSpec<>(sheetName, SheetTemplate.of(headers, titleName, null), data);
+    }
+
+    /**
+     * 使用编译好的模板，多个sheet可共用同一模板
+     */
+    public static <T> SheetSpec<T> of(final String sheetName,
+                                      final SheetTemplate template,
+                                      final Supplier<? extends Iterator<T>> data) {
+        return new SheetSpec<>(sheetName, template, data);
+    }
+
+    /**
+     * 额外的合并单元格，与单sheet导出一致，仅在有标题时生效；修改的是当前spec(返回自身便于链式调用)，
+     * 替换为带这些合并单元格的模板，传入的共用模板本身不变，其余模板设置保持不变
+     */
+    public SheetSpec<T> cellRangeAddressList(final List<CellRangeAddress> cellRangeAddressList) {
+        this.template = template.withMergedRegions(cellRangeAddressList);
+        return this;
+    }
+}
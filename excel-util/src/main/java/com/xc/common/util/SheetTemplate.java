@@ -0,0 +1,243 @@
+package com.xc.common.util;
+
+import org.apache.commons.collections4.CollectionUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.util.CellRangeAddress;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * @author Jq
+ * @Title SheetTemplate
+ * @Description 编译后的sheet模板：标题、表头、列宽与合并单元格只校验准备一次，可重复套用到任意多个sheet与请求
+ * @date 2026/10/18 17:10:44
+ */
+public final class SheetTemplate {
+
+    private final String[] headers;
+
+    private final String titleName;
+
+    /**
+     * 含标题合并区域，编译时已校验，套用时不再逐个检查重叠
+     */
+    private final List<CellRangeAddress> mergedRegions;
+
+    /**
+     * 预设列宽，以1/256字符为单位，0表示不设置
+     */
+    private final int[] columnWidths;
+
+    /**
+     * 数字与日期按原生单元格输出(可求和、排序)，默认与原先一致按文本输出
+     */
+    private final boolean typedCells;
+
+    /**
+     * 集合字段展开为多行，默认与原先一致平铺在同一行
+     */
+    private final boolean expandRows;
+
+    /**
+     * 表头已按集合元素的列展开(of(Class, ...)生成)，只与展开为多行的布局一致
+     */
+    private final boolean expandedHeaders;
+
+    private SheetTemplate(final String[] headers,
+                          final String titleName,
+                          final List<CellRangeAddress> mergedRegions,
+                          final int[] columnWidths,
+                          final boolean typedCells,
+                          final boolean expandRows,
+                          final boolean expandedHeaders) {
+        this.headers = headers;
+        this.titleName = titleName;
+        this.mergedRegions = mergedRegions;
+        this.columnWidths = columnWidths;
+        this.typedCells = typedCells;
+        this.expandRows = expandRows;
+        this.expandedHeaders = expandedHeaders;
+    }
+
+    /**
+     * @param headers              表头
+     * @param titleName            合并标题，为空时不生成标题行
+     * @param cellRangeAddressList 额外的合并单元格，仅在有标题时生效
+     */
+    public static SheetTemplate of(final String[] headers,
+                                   final String titleName,
+                                   final List<CellRangeAddress> cellRangeAddressList) {
+        return new SheetTemplate(headers.clone(), titleName, regions(headers, titleName, cellRangeAddressList),
+                new int[0], false, false, false);
+    }
+
+    /**
+     * 表头取自pojo的列映射：带ExcelColumn注解时为注解表头名按列号排序，与导出的列顺序一致；否则为全部字段名。
+     * 声明了元素类型的集合字段(如List&lt;Item&gt;)在表头中按元素字段展开一次，这样的模板默认展开为多行导出，不能再关闭
+     */
+    public static SheetTemplate of(final Class<?> cls,
+                                   final String titleName,
+                                   final List<CellRangeAddress> cellRangeAddressList) {
+        final ExcelSchema schema = ExcelSchema.of(cls);
+        final SheetTemplate template = of(schema.headers(), titleName, cellRangeAddressList);
+        if (!schema.hasElementColumns()) {
+            return template;
+        }
+        return new SheetTemplate(template.headers, titleName, template.mergedRegions, template.columnWidths, false, true, true);
+    }
+
+    /**
+     * 替换额外的合并单元格，其余设置(列宽、原生类型、展开为多行)保持不变
+     *
+     * @param cellRangeAddressList 仅在有标题时生效
+     */
+    public SheetTemplate withMergedRegions(final List<CellRangeAddress> cellRangeAddressList) {
+        return new SheetTemplate(headers, titleName, regions(headers, titleName, cellRangeAddressList),
+                columnWidths, typedCells, expandRows, expandedHeaders);
+    }
+
+    /**
+     * 预设列宽，数据行仍会按内容加宽
+     *
+     * @param widths 以1/256字符为单位，与Sheet.setColumnWidth一致
+     */
+    public SheetTemplate withColumnWidths(final int... widths) {
+        return new SheetTemplate(headers, titleName, mergedRegions, Arrays.copyOf(widths, widths.length), typedCells, expandRows, expandedHeaders);
+    }
+
+    /**
+     * 数字(含基本类型、BigDecimal)写为数值单元格，Date/LocalDate/LocalDateTime/Instant写为带日期格式的日期序列值
+     */
+    public SheetTemplate withTypedCells(final boolean typedCells) {
+        return new SheetTemplate(headers, titleName, mergedRegions, columnWidths, typedCells, expandRows, expandedHeaders);
+    }
+
+    /**
+     * 声明了元素类型的集合字段(如List&lt;Item&gt;)每个元素占一行、元素字段占固定列，其余字段只写在首行并纵向合并；
+     * 表头需与该布局一致，可用of(Class, ...)生成
+     *
+     * @throws IllegalStateException 表头由of(Class, ...)按集合元素展开，关闭后数据列与表头错位
+     */
+    public SheetTemplate withExpandRows(final boolean expandRows) {
+        if (!expandRows && expandedHeaders) {
+            throw new IllegalStateException("Headers expand collection element columns and only match expandRows(true) : "
+                    + Arrays.toString(headers));
+        }
+        return new SheetTemplate(headers, titleName, mergedRegions, columnWidths, typedCells, expandRows, expandedHeaders);
+    }
+
+    public boolean isTypedCells() {
+        return typedCells;
+    }
+
+    public boolean isExpandRows() {
+        return expandRows;
+    }
+
+    public String[] getHeaders() {
+        return headers.clone();
+    }
+
+    public String getTitleName() {
+        return titleName;
+    }
+
+    public List<CellRangeAddress> getMergedRegions() {
+        return mergedRegions;
+    }
+
+    boolean hasTitle() {
+        return StringUtils.isNotBlank(titleName);
+    }
+
+    /**
+     * 数据行起始行号
+     */
+    int firstDataRowNum() {
+        return hasTitle() ? 2 : 1;
+    }
+
+    int[] columnWidths() {
+        return columnWidths;
+    }
+
+    /**
+     * 标题行合并区域在前，额外的合并单元格在后，校验后不可修改
+     */
+    private static List<CellRangeAddress> regions(final String[] headers,
+                                                  final String titleName,
+                                                  final List<CellRangeAddress> cellRangeAddressList) {
+        final List<CellRangeAddress> regions = new ArrayList<>();
+        if (StringUtils.isNotBlank(titleName)) {
+            regions.add(new CellRangeAddress(0, 0, 0, headers.length - 1));
+            if (CollectionUtils.isNotEmpty(cellRangeAddressList)) {
+                for (final CellRangeAddress merge : cellRangeAddressList) {
+                    regions.add(merge.copy());
+                }
+            }
+        }
+        validate(regions);
+        return Collections.unmodifiableList(regions);
+    }
+
+    /**
+     * 与Sheet.addMergedRegion相同的校验，只在编译时做一次
+     */
+    private static void validate(final List<CellRangeAddress> regions) {
+        for (int i = 0; i < regions.size(); i++) {
+            final CellRangeAddress region = regions.get(i);
+            if (region.getNumberOfCells() < 2) {
+                throw new IllegalArgumentException("Merged region " + region.formatAsString() + " must contain 2 or more cells");
+            }
+            for (int j = 0; j < i; j++) {
+                if (regions.get(j).intersects(region)) {
+                    throw new IllegalStateException("Cannot add merged region " + region.formatAsString()
+                            + " because it overlaps with an existing merged region (" + regions.get(j).formatAsString() + ").");
+                }
+            }
+        }
+    }
+
+    /**
+     * 在workbook中按模板创建sheet、标题与表头，返回用于写数据行的writer
+     */
+    SheetRowWriter stamp(final SXSSFWorkbook wb, final String sheetName) {
+        // 创建一张工作表
+        final SXSSFSheet sheet = wb.createSheet(sheetName);
+        final StyleRegistry styles = StyleRegistry.of(wb);
+        for (final CellRangeAddress region : mergedRegions) {
+            sheet.addMergedRegionUnsafe(region);
+        }
+        for (int i = 0; i < columnWidths.length; i++) {
+            if (columnWidths[i] > 0) {
+                sheet.setColumnWidth(i, columnWidths[i]);
+            }
+        }
+        int headerRowNum = 0;
+        if (hasTitle()) {
+            final Row titleRow = sheet.createRow(0);
+            final Cell cellTitle = titleRow.createCell(0);
+            cellTitle.setCellStyle(styles.style(StyleRegistry.TITLE));
+            // 设置标题内容
+            cellTitle.setCellValue(titleName);
+            headerRowNum = 1;
+        }
+        //表头
+        final CellStyle headerStyle = styles.style(StyleRegistry.HEADER);
+        final Row headerRow = sheet.createRow(headerRowNum);
+        for (int i = 0; i < headers.length; i++) {
+            final Cell cell = headerRow.createCell(i);
+            cell.setCellStyle(headerStyle);
+            cell.setCellValue(headers[i]);
+        }
+        return new SheetRowWriter(sheet, styles, hasTitle(), firstDataRowNum(), typedCells, expandRows);
+    }
+}
@@ -0,0 +1,206 @@
+package com.xc.common.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * @author Jq
+ * @Title SpillManager
+ * @Description SXSSF临时文件(溢写)管理：统一的溢写目录、节点级磁盘配额与I/O统计，配额用尽时写入线程等待其他导出释放空间
+ * @date 2026/10/18 20:31:18
+ */
+public final class SpillManager {
+
+    public static final long DEFAULT_MAX_WAIT_MILLIS = TimeUnit.SECONDS.toMillis(30);
+
+    private static volatile SpillManager defaultManager = new SpillManager(
+            new File(System.getProperty("java.io.tmpdir"), "excel-spill"), 0, DEFAULT_MAX_WAIT_MILLIS);
+
+    private final File directory;
+
+    /**
+     * 小于等于0表示不限制
+     */
+    private final long quotaBytes;
+
+    private final long maxWaitMillis;
+
+    private final ReentrantLock lock = new ReentrantLock(true);
+
+    private final Condition released = lock.newCondition();
+
+    private long usedBytes;
+
+    private long peakUsedBytes;
+
+    private final AtomicLong activeFiles = new AtomicLong();
+
+    private final AtomicLong bytesWritten = new AtomicLong();
+
+    private final AtomicLong bytesRead = new AtomicLong();
+
+    private final AtomicLong waitCount = new AtomicLong();
+
+    private final AtomicLong waitMillis = new AtomicLong();
+
+    private final AtomicLong rejectedCount = new AtomicLong();
+
+    /**
+     * @param directory     溢写目录，不存在时自动创建
+     * @param quotaBytes    节点内全部导出的溢写文件总大小上限，小于等于0表示不限制
+     * @param maxWaitMillis 配额用尽时最长等待时间，超时后该导出失败
+     */
+    public SpillManager(final File directory, final long quotaBytes, final long maxWaitMillis) {
+        this.directory = directory;
+        this.quotaBytes = quotaBytes;
+        this.maxWaitMillis = maxWaitMillis;
+    }
+
+    public static SpillManager getDefault() {
+        return defaultManager;
+    }
+
+    /**
+     * 替换节点默认的溢写管理器，已创建的workbook仍使用原管理器
+     */
+    public static void setDefault(final SpillManager manager) {
+        defaultManager = manager;
+    }
+
+    public File getDirectory() {
+        return directory;
+    }
+
+    public long getQuotaBytes() {
+        return quotaBytes;
+    }
+
+    /**
+     * 当前未释放的溢写字节数
+     */
+    public long getUsedBytes() {
+        lock.lock();
+        try {
+            return usedBytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getPeakUsedBytes() {
+        lock.lock();
+        try {
+            return peakUsedBytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getActiveFiles() {
+        return activeFiles.get();
+    }
+
+    /**
+     * 累计写入溢写文件的字节数(压缩后)
+     */
+    public long getBytesWritten() {
+        return bytesWritten.get();
+    }
+
+    /**
+     * 累计从溢写文件读回的字节数(压缩后)
+     */
+    public long getBytesRead() {
+        return bytesRead.get();
+    }
+
+    /**
+     * 因配额用尽而等待的次数
+     */
+    public long getWaitCount() {
+        return waitCount.get();
+    }
+
+    public long getWaitMillis() {
+        return waitMillis.get();
+    }
+
+    /**
+     * 等待超时而失败的次数
+     */
+    public long getRejectedCount() {
+        return rejectedCount.get();
+    }
+
+    File createTempFile(final String suffix) throws IOException {
+        if (!directory.isDirectory() && !directory.mkdirs() && !directory.isDirectory()) {
+            throw new IOException("Can not create spill directory " + directory);
+        }
+        final File file = File.createTempFile("excel-spill-", suffix, directory);
+        activeFiles.incrementAndGet();
+        return file;
+    }
+
+    void fileDeleted(final int count) {
+        activeFiles.addAndGet(-count);
+    }
+
+    void read(final long bytes) {
+        bytesRead.addAndGet(bytes);
+    }
+
+    /**
+     * 写入前预占配额，配额不足时按到达顺序等待释放
+     */
+    void reserve(final long bytes) throws IOException {
+        lock.lock();
+        try {
+            if (quotaBytes > 0 && usedBytes + bytes > quotaBytes) {
+                if (bytes > quotaBytes) {
+                    rejectedCount.incrementAndGet();
+                    throw new IOException("Spill write of " + bytes + " bytes exceeds quota " + quotaBytes);
+                }
+                waitCount.incrementAndGet();
+                final long start = System.nanoTime();
+                long remaining = TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+                try {
+                    while (usedBytes + bytes > quotaBytes) {
+                        if (remaining <= 0) {
+                            rejectedCount.incrementAndGet();
+                            throw new IOException("Spill quota " + quotaBytes + " bytes exhausted, waited " + maxWaitMillis + " ms");
+                        }
+                        remaining = released.awaitNanos(remaining);
+                    }
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted while waiting for spill quota");
+                } finally {
+                    waitMillis.addAndGet(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                }
+            }
+            usedBytes += bytes;
+            peakUsedBytes = Math.max(peakUsedBytes, usedBytes);
+        } finally {
+            lock.unlock();
+        }
+        bytesWritten.addAndGet(bytes);
+    }
+
+    void release(final long bytes) {
+        if (bytes <= 0) {
+            return;
+        }
+        lock.lock();
+        try {
+            usedBytes -= bytes;
+            released.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package com.xc.common.util;
+
+import org.apache.poi.hssf.util.HSSFColor;
+import org.apache.poi.ss.usermodel.BorderStyle;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.FillPatternType;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.HorizontalAlignment;
+import org.apache.poi.ss.usermodel.VerticalAlignment;
+import org.apache.poi.ss.usermodel.Workbook;
+
+import java.lang.ref.WeakReference;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.WeakHashMap;
+
+/**
+ * @author Jq
+ * @Title StyleRegistry
+ * @Description 按workbook缓存的字体与样式注册表，相同属性的字体/样式只创建一次，多sheet导出不再重复写入styles.xml
+ * @date 2026/10/18 16:48:09
+ */
+final class StyleRegistry {
+
+    private static final String FONT_NAME = "宋体";
+
+    /**
+     * 表头：加粗11号，上/下/右边框，水平居中
+     */
+    static final StyleKey HEADER = new StyleKey((short) 11, true, false, null, null);
+
+    /**
+     * 文本内容：10号，四边框，水平垂直居中
+     */
+    static final StyleKey TEXT = new StyleKey((short) 10, false, true, VerticalAlignment.CENTER, null);
+
+    /**
+     * 合并标题：加粗18号，四边框，水平居中
+     */
+    static final StyleKey TITLE = new StyleKey((short) 18, true, true, null, null);
+
+    /**
+     * 加粗文本内容：加粗10号，四边框，水平垂直居中
+     */
+    static final StyleKey BOLD_TEXT = new StyleKey((short) 10, true, true, VerticalAlignment.CENTER, null);
+
+    /**
+     * 日期时间内容：同文本内容，带日期时间格式
+     */
+    static final StyleKey DATE_TIME = new StyleKey((short) 10, false, true, VerticalAlignment.CENTER, "yyyy-mm-dd hh:mm:ss");
+
+    /**
+     * 日期内容：同文本内容，带日期格式
+     */
+    static final StyleKey DATE = new StyleKey((short) 10, false, true, VerticalAlignment.CENTER, "yyyy-mm-dd");
+
+    private static final Map<Workbook, StyleRegistry> REGISTRIES = Collections.synchronizedMap(new WeakHashMap<>());
+
+    /**
+     * 弱引用，避免注册表反向持有workbook导致WeakHashMap无法回收
+     */
+    private final WeakReference<Workbook> workbook;
+
+    private final Map<FontKey, Font> fonts = new HashMap<>();
+
+    private final Map<StyleKey, CellStyle> styles = new HashMap<>();
+
+    private StyleRegistry(final Workbook workbook) {
+        this.workbook = new WeakReference<>(workbook);
+    }
+
+    static StyleRegistry of(final Workbook workbook) {
+        return REGISTRIES.computeIfAbsent(workbook, StyleRegistry::new);
+    }
+
+    synchronized CellStyle style(final StyleKey key) {
+        CellStyle style = styles.get(key);
+        if (style == null) {
+            style = createStyle(key);
+            styles.put(key, style);
+        }
+        return style;
+    }
+
+    private Workbook workbook() {
+        final Workbook wb = workbook.get();
+        if (wb == null) {
+            throw new IllegalStateException("Workbook already released");
+        }
+        return wb;
+    }
+
+    private Font font(final short size, final boolean bold) {
+        final FontKey key = new FontKey(size, bold);
+        Font font = fonts.get(key);
+        if (font == null) {
+            font = workbook().createFont();
+            font.setFontName(FONT_NAME);
+            font.setBold(bold);
+            //设置字体大小
+            font.setFontHeightInPoints(size);
+            fonts.put(key, font);
+        }
+        return font;
+    }
+
+    private CellStyle createStyle(final StyleKey key) {
+        final CellStyle style = workbook().createCellStyle();
+        style.setFont(font(key.fontSize, key.bold));
+        // 设置背景色
+        style.setFillForegroundColor(HSSFColor.HSSFColorPredefined.WHITE.getIndex());
+        style.setFillPattern(FillPatternType.SOLID_FOREGROUND);
+        if (key.verticalAlignment != null) {
+            style.setVerticalAlignment(key.verticalAlignment);
+        }
+        // 居中
+        style.setAlignment(HorizontalAlignment.CENTER);
+        style.setBorderBottom(BorderStyle.THIN);
+        style.setBorderRight(BorderStyle.THIN);
+        if (key.borderLeft) {
+            style.setBorderLeft(BorderStyle.THIN);
+        }
+        style.setBorderTop(BorderStyle.THIN);
+        if (key.dataFormat != null) {
+            style.setDataFormat(workbook().createDataFormat().getFormat(key.dataFormat));
+        }
+        return style;
+    }
+
+    private static final class FontKey {
+
+        private final short size;
+
+        private final boolean bold;
+
+        private FontKey(final short size, final boolean bold) {
+            this.size = size;
+            this.bold = bold;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof FontKey)) {
+                return false;
+            }
+            final FontKey that = (FontKey) o;
+            return size == that.size && bold == that.bold;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(size, bold);
+        }
+    }
+
+    /**
+     * 样式属性，作为去重的key
+     */
+    static final class StyleKey {
+
+        private final short fontSize;
+
+        private final boolean bold;
+
+        private final boolean borderLeft;
+
+        private final VerticalAlignment verticalAlignment;
+
+        private final String dataFormat;
+
+        StyleKey(final short fontSize, final boolean bold, final boolean borderLeft,
+                 final VerticalAlignment verticalAlignment, final String dataFormat) {
+            this.fontSize = fontSize;
+            this.bold = bold;
+            this.borderLeft = borderLeft;
+            this.verticalAlignment = verticalAlignment;
+            this.dataFormat = dataFormat;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof StyleKey)) {
+                return false;
+            }
+            final StyleKey that = (StyleKey) o;
+            return fontSize == that.fontSize && bold == that.bold && borderLeft == that.borderLeft
+                    && verticalAlignment == that.verticalAlignment && Objects.equals(dataFormat, that.dataFormat);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(fontSize, bold, borderLeft, verticalAlignment, dataFormat);
+        }
+    }
+}
@@ -0,0 +1,258 @@
+package com.xc.common.util;
+
+import org.apache.poi.hssf.eventusermodel.HSSFEventFactory;
+import org.apache.poi.hssf.eventusermodel.HSSFListener;
+import org.apache.poi.hssf.eventusermodel.HSSFRequest;
+import org.apache.poi.hssf.record.BOFRecord;
+import org.apache.poi.hssf.record.BoolErrRecord;
+import org.apache.poi.hssf.record.BoundSheetRecord;
+import org.apache.poi.hssf.record.CellValueRecordInterface;
+import org.apache.poi.hssf.record.EOFRecord;
+import org.apache.poi.hssf.record.FormulaRecord;
+import org.apache.poi.hssf.record.LabelRecord;
+import org.apache.poi.hssf.record.LabelSSTRecord;
+import org.apache.poi.hssf.record.NumberRecord;
+import org.apache.poi.hssf.record.Record;
+import org.apache.poi.hssf.record.SSTRecord;
+import org.apache.poi.hssf.record.StringRecord;
+import org.apache.poi.poifs.filesystem.POIFSFileSystem;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * @author Jq
+ * @Title XlsEventReader
+ * @Description 基于HSSF事件模型的.xls流式读取，逐条处理记录并按行回调，不构建HSSFWorkbook，内存中只保留共享字符串表
+ * @date 2026/10/18 22:48:31
+ */
+final class XlsEventReader {
+
+    /**
+     * FormulaRecord缓存结果的类型码(BIFF8格式定义，与HSSF的CellType码一致)
+     */
+    private static final int NUMERIC_RESULT = 0;
+
+    private static final int STRING_RESULT = 1;
+
+    private static final int BOOLEAN_RESULT = 4;
+
+    private XlsEventReader(){
+
+    }
+
+    /**
+     * POIFSFileSystem按文件随机读取，RK/MulRK记录由事件工厂转换为NumberRecord
+     *
+     * @throws IllegalArgumentException sheetIndex超出sheet数
+     */
+    static void read(final File file,
+                     final int sheetIndex,
+                     final int columnCount,
+                     final ExcelSaxReader.ReadScope scope,
+                     final ExcelSaxReader.RowCallback callback) throws IOException {
+        final SheetListener listener = new SheetListener(sheetIndex, columnCount, scope, callback);
+        final HSSFRequest request = new HSSFRequest();
+        request.addListenerForAllRecords(listener);
+        final JobRecorder.Span open = scope.getRecorder().begin(ExcelPhase.OPEN);
+        try (POIFSFileSystem fs = new POIFSFileSystem(file, true)) {
+            open.end();
+            final JobRecorder.Span parse = scope.getRecorder().begin(ExcelPhase.PARSE);
+            try {
+                new HSSFEventFactory().processWorkbookEvents(request, fs);
+                //目标sheet的EOF会停止读取，处理完全部记录说明没有该sheet
+                throw new IllegalArgumentException("Sheet not found : " + sheetIndex);
+            } catch (final StopReadingException e) {
+                //目标sheet已读完或已到最后一行，剩余记录不再处理
+            } finally {
+                parse.end();
+            }
+        }
+    }
+
+    /**
+     * 按sheet在文件中的顺序列出sheet名，与read的sheetIndex一致，只处理workbook全局记录，读到第一个sheet时停止
+     */
+    static List<String> sheetNames(final File file) throws IOException {
+        final List<BoundSheetRecord> sheets = new ArrayList<>();
+        final HSSFListener listener = record -> {
+            if (record.getSid() == BoundSheetRecord.sid) {
+                sheets.add((BoundSheetRecord) record);
+            } else if (((BOFRecord) record).getType() == BOFRecord.TYPE_WORKSHEET) {
+                throw new StopReadingException();
+            }
+        };
+        final HSSFRequest request = new HSSFRequest();
+        request.addListener(listener, BoundSheetRecord.sid);
+        request.addListener(listener, BOFRecord.sid);
+        try (POIFSFileSystem fs = new POIFSFileSystem(file, true)) {
+            new HSSFEventFactory().processWorkbookEvents(request, fs);
+        } catch (final StopReadingException e) {
+            //sheet名都在workbook全局记录中
+        }
+        final List<String> names = new ArrayList<>(sheets.size());
+        for (final BoundSheetRecord sheet : BoundSheetRecord.orderByBofPosition(sheets)) {
+            names.add(sheet.getSheetname());
+        }
+        return names;
+    }
+
+    private static final class StopReadingException extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        private StopReadingException() {
+            super(null, null, false, false);
+        }
+    }
+
+    /**
+     * 单元格记录在sheet内按行、列顺序出现，行号变化或sheet结束时回调上一行
+     */
+    private static final class SheetListener implements HSSFListener {
+
+        private final int sheetIndex;
+
+        private final ExcelSaxReader.ReadScope scope;
+
+        private final ExcelSaxReader.RowCallback callback;
+
+        private Object[] values;
+
+        private SSTRecord strings;
+
+        private int sheetNo = -1;
+
+        private boolean active;
+
+        private int rowNum = -1;
+
+        private boolean rowHasValue;
+
+        /**
+         * 字符串公式的结果在紧随其后的StringRecord中
+         */
+        private int pendingStringColumn = -1;
+
+        private SheetListener(final int sheetIndex,
+                              final int columnCount,
+                              final ExcelSaxReader.ReadScope scope,
+                              final ExcelSaxReader.RowCallback callback) {
+            this.sheetIndex = sheetIndex;
+            this.values = new Object[columnCount];
+            this.scope = scope;
+            this.callback = callback;
+        }
+
+        @Override
+        public void processRecord(final Record record) {
+            switch (record.getSid()) {
+                case SSTRecord.sid:
+                    strings = (SSTRecord) record;
+                    break;
+                case BOFRecord.sid:
+                    if (((BOFRecord) record).getType() == BOFRecord.TYPE_WORKSHEET) {
+                        active = ++sheetNo == sheetIndex;
+                    }
+                    break;
+                case EOFRecord.sid:
+                    if (active) {
+                        endRow();
+                        throw new StopReadingException();
+                    }
+                    break;
+                case NumberRecord.sid:
+                    cell((NumberRecord) record, ((NumberRecord) record).getValue());
+                    break;
+                case LabelSSTRecord.sid:
+                    if (active) {
+                        final LabelSSTRecord label = (LabelSSTRecord) record;
+                        cell(label, skip(label) ? null : strings.getString(label.getSSTIndex()).getString());
+                    }
+                    break;
+                case LabelRecord.sid:
+                    cell((LabelRecord) record, ((LabelRecord) record).getValue());
+                    break;
+                case BoolErrRecord.sid:
+                    final BoolErrRecord bool = (BoolErrRecord) record;
+                    cell(bool, bool.isBoolean() ? Boolean.valueOf(bool.getBooleanValue()) : null);
+                    break;
+                case FormulaRecord.sid:
+                    formula((FormulaRecord) record);
+                    break;
+                case StringRecord.sid:
+                    if (active && pendingStringColumn >= 0) {
+                        final String value = ((StringRecord) record).getString();
+                        store(pendingStringColumn, value);
+                        pendingStringColumn = -1;
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        private void formula(final FormulaRecord record) {
+            final int type = record.getCachedResultType();
+            if (type == NUMERIC_RESULT) {
+                cell(record, record.getValue());
+            } else if (type == BOOLEAN_RESULT) {
+                cell(record, record.getCachedBooleanValue());
+            } else if (type == STRING_RESULT) {
+                //先换行，结果值在下一条记录中
+                cell(record, null);
+                if (active && !skip(record)) {
+                    pendingStringColumn = record.getColumn();
+                }
+            } else {
+                cell(record, null);
+            }
+        }
+
+        private boolean skip(final CellValueRecordInterface record) {
+            return scope.skip(record.getColumn());
+        }
+
+        private void cell(final CellValueRecordInterface record, final Object value) {
+            if (!active) {
+                return;
+            }
+            if (record.getRow() != rowNum) {
+                endRow();
+                rowNum = record.getRow();
+                if (rowNum > scope.getLastRow()) {
+                    rowNum = -1;
+                    throw new StopReadingException();
+                }
+                Arrays.fill(values, null);
+                rowHasValue = false;
+            }
+            if (value != null && !skip(record)) {
+                store(record.getColumn(), value);
+            }
+        }
+
+        private void store(final int column, final Object value) {
+            rowHasValue = true;
+            if (column >= values.length && scope.isGrowable()) {
+                values = Arrays.copyOf(values, Math.max(column + 1, values.length * 2));
+            }
+            if (column < values.length) {
+                values[column] = value;
+            }
+        }
+
+        /**
+         * 与isRowEmpty保持一致，空行不回调
+         */
+        private void endRow() {
+            if (rowNum >= 0 && rowHasValue) {
+                callback.onRow(rowNum, values);
+            }
+            rowHasValue = false;
+        }
+    }
+}
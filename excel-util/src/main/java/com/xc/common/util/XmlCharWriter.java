@@ -0,0 +1,136 @@
+package com.xc.common.util;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * @author Jq
+ * @Title XmlCharWriter
+ * @Description 复用字符缓冲区的xml输出，数字与转义直接写入缓冲区，不产生中间字符串
+ * @date 2026/10/18 15:40:02
+ */
+final class XmlCharWriter implements Closeable, Flushable {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final Writer out;
+
+    private final char[] buffer = new char[BUFFER_SIZE];
+
+    private final char[] digits = new char[20];
+
+    private int pos;
+
+    private boolean closed;
+
+    XmlCharWriter(final Writer out) {
+        this.out = out;
+    }
+
+    XmlCharWriter append(final char c) throws IOException {
+        if (pos == BUFFER_SIZE) {
+            flushBuffer();
+        }
+        buffer[pos++] = c;
+        return this;
+    }
+
+    /**
+     * 原样写出，调用方保证不含需要转义的字符
+     */
+    XmlCharWriter append(final String s) throws IOException {
+        final int length = s.length();
+        int offset = 0;
+        while (offset < length) {
+            if (pos == BUFFER_SIZE) {
+                flushBuffer();
+            }
+            final int count = Math.min(length - offset, BUFFER_SIZE - pos);
+            s.getChars(offset, offset + count, buffer, pos);
+            pos += count;
+            offset += count;
+        }
+        return this;
+    }
+
+    XmlCharWriter append(final int value) throws IOException {
+        return append((long) value);
+    }
+
+    XmlCharWriter append(final long value) throws IOException {
+        if (value == Long.MIN_VALUE) {
+            return append(Long.toString(value));
+        }
+        long v = Math.abs(value);
+        int i = digits.length;
+        do {
+            digits[--i] = (char) ('0' + v % 10);
+            v /= 10;
+        } while (v != 0);
+        if (value < 0) {
+            append('-');
+        }
+        while (i < digits.length) {
+            append(digits[i++]);
+        }
+        return this;
+    }
+
+    /**
+     * 按xml文本/属性规则转义，并去掉xml 1.0不允许的控制字符
+     */
+    XmlCharWriter appendEscaped(final String s) throws IOException {
+        for (int i = 0; i < s.length(); i++) {
+            final char c = s.charAt(i);
+            switch (c) {
+                case '&':
+                    append("&amp;");
+                    break;
+                case '<':
+                    append("&lt;");
+                    break;
+                case '>':
+                    append("&gt;");
+                    break;
+                case '"':
+                    append("&quot;");
+                    break;
+                default:
+                    if (c >= 0x20 || c == '\t' || c == '\n' || c == '\r') {
+                        append(c);
+                    }
+                    break;
+            }
+        }
+        return this;
+    }
+
+    private void flushBuffer() throws IOException {
+        out.write(buffer, 0, pos);
+        pos = 0;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        flushBuffer();
+        out.flush();
+    }
+
+    /**
+     * 可重复调用，打包时已关闭的writer在释放资源时不再刷写
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            flushBuffer();
+        } finally {
+            out.close();
+        }
+    }
+}
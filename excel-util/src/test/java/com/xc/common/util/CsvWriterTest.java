@@ -0,0 +1,89 @@
+package com.xc.common.util;
+
+import com.xc.common.util.test.InMemoryHttpServletResponse;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Jq
+ * @Title CsvWriterTest
+ * @Description csv/tsv导出的RFC 4180转义、空值补齐、BOM与gzip
+ * @date 2026/10/19 17:15:48
+ */
+public class CsvWriterTest {
+
+    private static final String[] HEADERS = {"name", "count", "note"};
+
+    public static class Line {
+
+        private final String name;
+
+        private final Integer count;
+
+        private final String note;
+
+        Line(final String name, final Integer count, final String note) {
+            this.name = name;
+            this.count = count;
+            this.note = note;
+        }
+    }
+
+    private static final List<Line> LINES = Arrays.asList(
+            new Line("plain", 1, "x"),
+            new Line("a,b", 2, "say \"hi\""),
+            new Line("multi\nline", null, "tab\there"),
+            new Line("名字", 4, null));
+
+    @Test
+    public void csvQuotesDelimiterQuoteAndLineBreaks() {
+        assertEquals("name,count,note\r\n"
+                + "plain,1,x\r\n"
+                + "\"a,b\",2,\"say \"\"hi\"\"\"\r\n"
+                + "\"multi\nline\",,tab\there\r\n"
+                + "名字,4,\r\n", export(CsvOptions.defaults()));
+    }
+
+    @Test
+    public void tsvQuotesTabsInsteadOfCommas() {
+        assertEquals("name\tcount\tnote\r\n"
+                + "plain\t1\tx\r\n"
+                + "a,b\t2\t\"say \"\"hi\"\"\"\r\n"
+                + "\"multi\nline\"\t\t\"tab\there\"\r\n"
+                + "名字\t4\t\r\n", export(CsvOptions.tsv()));
+    }
+
+    @Test
+    public void bomAndGzip() throws Exception {
+        final ByteArrayOutputStream body = new ByteArrayOutputStream();
+        final InMemoryHttpServletResponse response = new InMemoryHttpServletResponse(body);
+        ExcelUtil.exportCsv("lines", HEADERS, Collections.singletonList(new Line("a", 1, "b")).iterator(), response,
+                CsvOptions.builder().bom(true).gzip(true).lineSeparator("\n").build());
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(body.toByteArray()))) {
+            final byte[] buffer = new byte[1024];
+            int n;
+            while ((n = in.read(buffer)) > 0) {
+                out.write(buffer, 0, n);
+            }
+        }
+        assertEquals("\uFEFFname,count,note\na,1,b\n", new String(out.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    private static String export(final CsvOptions options) {
+        final ByteArrayOutputStream body = new ByteArrayOutputStream();
+        final InMemoryHttpServletResponse response = new InMemoryHttpServletResponse(body);
+        ExcelUtil.exportCsv("lines", HEADERS, LINES.iterator(), response, options);
+        return new String(body.toByteArray(), StandardCharsets.UTF_8);
+    }
+}
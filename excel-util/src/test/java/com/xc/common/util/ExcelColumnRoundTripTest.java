@@ -0,0 +1,132 @@
+package com.xc.common.util;
+
+import com.xc.common.util.test.InMemoryHttpServletResponse;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Jq
+ * @Title ExcelColumnRoundTripTest
+ * @Description 带@ExcelColumn注解的pojo导出后按同一注解读回，列号有间隔时两个引擎与DOM/SAX读取结果一致
+ * @date 2026/10/19 16:10:41
+ */
+public class ExcelColumnRoundTripTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    public static class Order {
+
+        @ExcelColumn(name = "编号", index = 0, required = true)
+        private String code;
+
+        @ExcelColumn(name = "数量", index = 2)
+        private int quantity;
+
+        @ExcelColumn(name = "金额", index = 5)
+        private long amount;
+
+        @ExcelColumn(name = "备注")
+        private String memo;
+
+        public Order() {
+
+        }
+
+        Order(final String code, final int quantity, final long amount, final String memo) {
+            this.code = code;
+            this.quantity = quantity;
+            this.amount = amount;
+            this.memo = memo;
+        }
+
+        @Override
+        public String toString() {
+            return code + "|" + quantity + "|" + amount + "|" + memo;
+        }
+    }
+
+    private static final List<Order> ORDERS = Arrays.asList(
+            new Order("A001", 3, 12345678901L, "first"),
+            new Order("A002", 0, 0L, null),
+            new Order("A003", 7, -5L, "a,\"b\""));
+
+    @Test
+    public void headersPlaceIndexedColumnsAtTheirIndex() {
+        assertArrayEquals(new String[]{"编号", "", "数量", "", "", "金额", "备注"},
+                SheetTemplate.of(Order.class, null, null).getHeaders());
+    }
+
+    @Test
+    public void sxssfRoundTrip() throws Exception {
+        roundTrip(ExportEngine.SXSSF);
+    }
+
+    @Test
+    public void directRoundTrip() throws Exception {
+        roundTrip(ExportEngine.DIRECT);
+    }
+
+    private void roundTrip(final ExportEngine engine) throws Exception {
+        final File file = folder.newFile(engine + ".xlsx");
+        final ByteArrayOutputStream body = new ByteArrayOutputStream();
+        final InMemoryHttpServletResponse response = new InMemoryHttpServletResponse(body);
+        ExcelUtil.export("orders", SheetTemplate.of(Order.class, null, null), ORDERS.iterator(), "orders",
+                response, ExportOptions.builder().engine(engine).build());
+        Files.write(file.toPath(), body.toByteArray());
+        try (XSSFWorkbook workbook = new XSSFWorkbook(file)) {
+            final Row header = workbook.getSheetAt(0).getRow(0);
+            assertEquals("数量", header.getCell(2).getStringCellValue());
+            assertEquals("金额", header.getCell(5).getStringCellValue());
+            assertEquals("", workbook.getSheetAt(0).getRow(1).getCell(1).getStringCellValue());
+        }
+        //备注为空时DOM与SAX都读为""
+        final String expected = "[A001|3|12345678901|first, A002|0|0|, A003|7|-5|a,\"b\"]";
+        assertEquals(expected, ExcelUtil.readExcel(file, Order.class).toString());
+        assertEquals(expected, ExcelUtil.readExcelBySax(file, Order.class).toString());
+    }
+
+    public static class Sparse {
+
+        @ExcelColumn(name = "编号", index = 0)
+        private String code;
+
+        @ExcelColumn(name = "尾列", index = 5)
+        private String tail;
+    }
+
+    /**
+     * 指定列号超出文件中的列时，DOM与SAX都按空单元格绑定为""
+     */
+    @Test
+    public void missingTrailingCellBindsAsBlank() throws Exception {
+        final File file = folder.newFile("trailing.xlsx");
+        try (XSSFWorkbook workbook = new XSSFWorkbook(); OutputStream out = new FileOutputStream(file)) {
+            final Sheet sheet = workbook.createSheet("s");
+            sheet.createRow(0).createCell(0).setCellValue("编号");
+            sheet.createRow(1).createCell(0).setCellValue("A001");
+            workbook.write(out);
+        }
+        final Sparse dom = ExcelUtil.readExcel(file, Sparse.class).get(0);
+        final Sparse sax = ExcelUtil.readExcelBySax(file, Sparse.class).get(0);
+        assertEquals("A001", dom.code);
+        assertEquals("", dom.tail);
+        assertEquals("A001", sax.code);
+        assertEquals("", sax.tail);
+    }
+}
@@ -0,0 +1,82 @@
+package com.xc.common.util;
+
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.util.IOUtils;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * @author Jq
+ * @Title ExcelSaxReaderTest
+ * @Description SAX读取的边界情况：sheet下标越界时报错，共享字符串单元格的&lt;v&gt;为空时按空单元格处理
+ * @date 2026/10/19 19:42:16
+ */
+public class ExcelSaxReaderTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void sheetIndexOutOfRangeIsRejected() throws Exception {
+        for (final Workbook workbook : new Workbook[]{new XSSFWorkbook(), new HSSFWorkbook()}) {
+            final File file = folder.newFile("one-sheet" + (workbook instanceof HSSFWorkbook ? ".xls" : ".xlsx"));
+            try (Workbook wb = workbook; OutputStream out = new FileOutputStream(file)) {
+                wb.createSheet("s").createRow(0).createCell(0).setCellValue("name");
+                wb.write(out);
+            }
+            try {
+                ExcelSaxReader.read(file, 1, 1, (rowNum, values) -> fail("no row expected"));
+                fail(file.getName());
+            } catch (final IllegalArgumentException e) {
+                assertEquals("Sheet not found : 1", e.getMessage());
+            }
+        }
+    }
+
+    @Test
+    public void emptySharedStringValueIsBlank() throws Exception {
+        final File source = folder.newFile("source.xlsx");
+        try (Workbook wb = new XSSFWorkbook(); OutputStream out = new FileOutputStream(source)) {
+            wb.createSheet("s").createRow(0).createCell(0).setCellValue("name");
+            wb.write(out);
+        }
+        //第二行的共享字符串单元格没有下标，POI写不出这种文件，直接替换sheet xml
+        final String sheet = "<worksheet xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\"><sheetData>"
+                + "<row r=\"1\"><c r=\"A1\" t=\"s\"><v>0</v></c></row>"
+                + "<row r=\"2\"><c r=\"A2\" t=\"s\"><v></v></c><c r=\"B2\"><v>1</v></c></row>"
+                + "</sheetData></worksheet>";
+        final File file = folder.newFile("empty-shared-string.xlsx");
+        try (ZipFile zip = new ZipFile(source); ZipOutputStream out = new ZipOutputStream(new FileOutputStream(file))) {
+            for (final ZipEntry entry : Collections.list(zip.entries())) {
+                out.putNextEntry(new ZipEntry(entry.getName()));
+                if ("xl/worksheets/sheet1.xml".equals(entry.getName())) {
+                    out.write(sheet.getBytes(StandardCharsets.UTF_8));
+                } else {
+                    IOUtils.copy(zip.getInputStream(entry), out);
+                }
+                out.closeEntry();
+            }
+        }
+        final List<String> rows = new ArrayList<>();
+        ExcelSaxReader.read(file, 0, 2, (rowNum, values) -> rows.add(rowNum + ":" + Arrays.toString(values)));
+        assertEquals(Arrays.asList("0:[name, null]", "1:[null, 1.0]"), rows);
+    }
+}
@@ -0,0 +1,112 @@
+package com.xc.common.util;
+
+import com.xc.common.util.test.InMemoryHttpServletResponse;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.util.CellRangeAddress;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Jq
+ * @Title ExcelUtilExportTest
+ * @Description 导出入口的约定：表头、合并单元格、sheet名或数据无效时记录日志，不抛给调用方；表头元素为空时写空单元格
+ * @date 2026/10/19 18:02:44
+ */
+public class ExcelUtilExportTest {
+
+    private static final String[] HEADERS = {"name", "value"};
+
+    public static class Item {
+
+        private final String name = "a";
+
+        private final int value = 1;
+    }
+
+    private static final List<Item> ITEMS = Collections.singletonList(new Item());
+
+    @Test
+    public void nullHeadersAreLoggedAndSwallowed() {
+        final ByteArrayOutputStream body = new ByteArrayOutputStream();
+        final InMemoryHttpServletResponse response = new InMemoryHttpServletResponse(body);
+        ExcelUtil.export("p", null, ITEMS, "s", response, null, null);
+        assertEquals(0, body.size());
+    }
+
+    @Test
+    public void invalidMergedRegionsAreLoggedAndSwallowed() {
+        final ByteArrayOutputStream singleBody = new ByteArrayOutputStream();
+        final InMemoryHttpServletResponse single = new InMemoryHttpServletResponse(singleBody);
+        ExcelUtil.export("p", HEADERS, ITEMS, "s", single, "title",
+                Collections.singletonList(new CellRangeAddress(1, 1, 0, 0)));
+        assertEquals(0, singleBody.size());
+        //与标题行重叠
+        final ByteArrayOutputStream overlappingBody = new ByteArrayOutputStream();
+        final InMemoryHttpServletResponse overlapping = new InMemoryHttpServletResponse(overlappingBody);
+        ExcelUtil.export("p", HEADERS, ITEMS, "s", overlapping, "title",
+                Collections.singletonList(new CellRangeAddress(0, 1, 0, 1)));
+        assertEquals(0, overlappingBody.size());
+    }
+
+    @Test
+    public void nullDataIsLoggedAndSwallowed() {
+        final ByteArrayOutputStream body = new ByteArrayOutputStream();
+        final InMemoryHttpServletResponse response = new InMemoryHttpServletResponse(body);
+        ExcelUtil.export("p", HEADERS, (List<Item>) null, "s", response, null, null);
+        assertEquals(0, body.size());
+    }
+
+    @Test
+    public void invalidSheetNameFailsInBothEngines() {
+        for (final ExportEngine engine : ExportEngine.values()) {
+            for (final String sheetName : new String[]{"a[1]", "a/b", "a:b", "'ab"}) {
+                final ByteArrayOutputStream body = new ByteArrayOutputStream();
+                final InMemoryHttpServletResponse response = new InMemoryHttpServletResponse(body);
+                ExcelUtil.export("p", SheetTemplate.of(HEADERS, null, null), ITEMS.iterator(), sheetName, response,
+                        ExportOptions.builder().engine(engine).build());
+                assertEquals(engine + " " + sheetName, 0, body.size());
+            }
+        }
+    }
+
+    @Test
+    public void longSheetNameIsTruncatedInBothEngines() throws Exception {
+        for (final ExportEngine engine : ExportEngine.values()) {
+            final ByteArrayOutputStream body = new ByteArrayOutputStream();
+            final InMemoryHttpServletResponse response = new InMemoryHttpServletResponse(body);
+            ExcelUtil.export("p", SheetTemplate.of(HEADERS, null, null), ITEMS.iterator(), "1234567890123456789012345678901234",
+                    response, ExportOptions.builder().engine(engine).build());
+            try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(body.toByteArray()))) {
+                assertEquals(engine.name(), "1234567890123456789012345678901", workbook.getSheetName(0));
+            }
+        }
+    }
+
+    @Test
+    public void nullHeaderElementIsBlankCell() throws Exception {
+        for (final ExportEngine engine : ExportEngine.values()) {
+            final ByteArrayOutputStream body = new ByteArrayOutputStream();
+            final InMemoryHttpServletResponse response = new InMemoryHttpServletResponse(body);
+            ExcelUtil.export("p", SheetTemplate.of(new String[]{"name", null}, null, null), ITEMS.iterator(), "s",
+                    response, ExportOptions.builder().engine(engine).build());
+            try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(body.toByteArray()))) {
+                final Row header = workbook.getSheetAt(0).getRow(0);
+                assertEquals(CellType.BLANK, header.getCell(1).getCellType());
+                assertEquals("1", workbook.getSheetAt(0).getRow(1).getCell(1).getStringCellValue());
+            }
+        }
+        final ByteArrayOutputStream csvBody = new ByteArrayOutputStream();
+        final InMemoryHttpServletResponse csv = new InMemoryHttpServletResponse(csvBody);
+        ExcelUtil.exportCsv("p", new String[]{"name", null}, ITEMS.iterator(), csv, CsvOptions.defaults());
+        assertEquals("name,\r\na,1\r\n", new String(csvBody.toByteArray(), StandardCharsets.UTF_8));
+    }
+}
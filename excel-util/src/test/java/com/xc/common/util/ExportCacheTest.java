@@ -0,0 +1,132 @@
+package com.xc.common.util;
+
+import com.xc.common.util.test.InMemoryHttpServletResponse;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayOutputStream;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Jq
+ * @Title ExportCacheTest
+ * @Description 缓存导出：同一reportKey与dataVersion只生成一次，ETag稳定，If-None-Match命中时返回304且不输出内容
+ * @date 2026/10/19 17:03:16
+ */
+public class ExportCacheTest {
+
+    private static final String ETAG = "ETag";
+
+    private static final String IF_NONE_MATCH = "If-None-Match";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final AtomicInteger generated = new AtomicInteger();
+
+    public static class Item {
+
+        private final String name;
+
+        private final int value;
+
+        Item(final int i) {
+            this.name = "item" + i;
+            this.value = i;
+        }
+    }
+
+    @Test
+    public void hitReturnsSameBytesWithoutRegenerating() throws Exception {
+        final ExportCache cache = new ExportCache(folder.newFolder(), 10_000_000, 1_000_000, 500_000);
+        final ByteArrayOutputStream firstBody = new ByteArrayOutputStream();
+        final ByteArrayOutputStream secondBody = new ByteArrayOutputStream();
+        final InMemoryHttpServletResponse first = export(cache, "v1", Collections.emptyMap(), firstBody);
+        final InMemoryHttpServletResponse second = export(cache, "v1", Collections.emptyMap(), secondBody);
+        assertEquals(1, generated.get());
+        assertArrayEquals(firstBody.toByteArray(), secondBody.toByteArray());
+        assertEquals(ExportCache.etag("report", "v1"), first.getHeader(ETAG));
+        assertEquals(first.getHeader(ETAG), second.getHeader(ETAG));
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    public void matchingIfNoneMatchReturnsNotModified() throws Exception {
+        final ExportCache cache = new ExportCache(folder.newFolder(), 10_000_000, 1_000_000, 500_000);
+        export(cache, "v1", Collections.emptyMap(), new ByteArrayOutputStream());
+        final String etag = ExportCache.etag("report", "v1");
+        final ByteArrayOutputStream notModifiedBody = new ByteArrayOutputStream();
+        final InMemoryHttpServletResponse notModified = export(cache, "v1", Collections.singletonMap(IF_NONE_MATCH, "W/" + etag),
+                notModifiedBody);
+        assertEquals(HttpServletResponse.SC_NOT_MODIFIED, notModified.getStatus());
+        assertEquals(0, notModifiedBody.size());
+        assertEquals(etag, notModified.getHeader(ETAG));
+        assertEquals(1, cache.getNotModifiedCount());
+        //数据版本变化后ETag不同，重新生成
+        final ByteArrayOutputStream changedBody = new ByteArrayOutputStream();
+        final InMemoryHttpServletResponse changed = export(cache, "v2", Collections.singletonMap(IF_NONE_MATCH, etag), changedBody);
+        assertEquals(HttpServletResponse.SC_OK, changed.getStatus());
+        assertTrue(changedBody.size() > 0);
+        assertNotEquals(etag, changed.getHeader(ETAG));
+        assertEquals(2, generated.get());
+    }
+
+    @Test
+    public void ifNoneMatchComparison() {
+        final String etag = ExportCache.etag("report", "v1");
+        assertTrue(ExportCache.matches(etag, etag));
+        assertTrue(ExportCache.matches("\"other\", W/" + etag, etag));
+        assertTrue(ExportCache.matches("*", etag));
+        assertFalse(ExportCache.matches("\"other\"", etag));
+        assertFalse(ExportCache.matches(null, etag));
+        assertEquals(etag, ExportCache.etag("report", "v1"));
+        assertNotEquals(etag, ExportCache.etag("report", "v2"));
+    }
+
+    private InMemoryHttpServletResponse export(final ExportCache cache, final String dataVersion,
+                                               final Map<String, String> requestHeaders, final ByteArrayOutputStream body) {
+        final InMemoryHttpServletResponse response = new InMemoryHttpServletResponse(body);
+        ExcelUtil.export("report", SheetTemplate.of(new String[]{"name", "value"}, null, null), data(100), "s",
+                ServletStubs.request(requestHeaders), response,
+                ExportOptions.builder().cache(cache).reportKey("report").dataVersion(dataVersion).build());
+        return response;
+    }
+
+    /**
+     * 只在被消费时计为一次生成
+     */
+    private Iterator<Item> data(final int rows) {
+        return new Iterator<Item>() {
+
+            private int next;
+
+            private boolean started;
+
+            @Override
+            public boolean hasNext() {
+                if (!started) {
+                    started = true;
+                    generated.incrementAndGet();
+                }
+                return next < rows;
+            }
+
+            @Override
+            public Item next() {
+                return new Item(next++);
+            }
+        };
+    }
+}
@@ -0,0 +1,98 @@
+package com.xc.common.util;
+
+import com.xc.common.util.test.InMemoryHttpServletResponse;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.util.Collections;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Jq
+ * @Title ExportJobManagerTest
+ * @Description 下载断点续传的Range解析，下载期间删除任务时文件在下载结束后才删除
+ * @date 2026/10/19 16:52:30
+ */
+public class ExportJobManagerTest {
+
+    private static final long LENGTH = 1000;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    public static class Item {
+
+        private final String name = "a";
+    }
+
+    @Test
+    public void wholeFileWithoutUsableRange() {
+        assertNull(ExportJobManager.parseRange(null, LENGTH));
+        assertNull(ExportJobManager.parseRange("", LENGTH));
+        assertNull(ExportJobManager.parseRange("items=0-10", LENGTH));
+        assertNull(ExportJobManager.parseRange("bytes=0-10,20-30", LENGTH));
+        assertNull(ExportJobManager.parseRange("bytes=10", LENGTH));
+        assertNull(ExportJobManager.parseRange("bytes=a-b", LENGTH));
+    }
+
+    @Test
+    public void closedAndOpenRanges() {
+        assertArrayEquals(new long[]{0, 99}, ExportJobManager.parseRange("bytes=0-99", LENGTH));
+        assertArrayEquals(new long[]{500, 999}, ExportJobManager.parseRange("bytes=500-", LENGTH));
+        //结束位置超出文件长度时截到末尾
+        assertArrayEquals(new long[]{900, 999}, ExportJobManager.parseRange("bytes=900-5000", LENGTH));
+        assertArrayEquals(new long[]{999, 999}, ExportJobManager.parseRange("bytes=999-999", LENGTH));
+    }
+
+    @Test
+    public void suffixRanges() {
+        assertArrayEquals(new long[]{900, 999}, ExportJobManager.parseRange("bytes=-100", LENGTH));
+        assertArrayEquals(new long[]{0, 999}, ExportJobManager.parseRange("bytes=-5000", LENGTH));
+    }
+
+    @Test
+    public void unsatisfiableRanges() {
+        assertArrayEquals(new long[0], ExportJobManager.parseRange("bytes=1000-", LENGTH));
+        assertArrayEquals(new long[0], ExportJobManager.parseRange("bytes=20-10", LENGTH));
+        assertArrayEquals(new long[0], ExportJobManager.parseRange("bytes=-0", LENGTH));
+        assertArrayEquals(new long[0], ExportJobManager.parseRange("bytes=0-", 0));
+    }
+
+    @Test
+    public void removeDuringDownloadKeepsFileUntilLastDownloadEnds() throws Exception {
+        try (ExportJobManager manager = new ExportJobManager(1, 1, folder.getRoot(), ExportJobManager.DEFAULT_RETENTION_MILLIS)) {
+            final String jobId = manager.submit("job", SheetTemplate.of(new String[]{"name"}, null, null),
+                    () -> Collections.singletonList(new Item()).iterator(), "s", ExportOptions.defaults());
+            final ExportJob job = manager.getJob(jobId);
+            while (!job.isFinished()) {
+                Thread.sleep(10);
+            }
+            assertEquals(ExportJob.Status.DONE, job.getStatus());
+            final File file = job.getFile();
+            final ByteArrayOutputStream wholeBody = new ByteArrayOutputStream();
+            final InMemoryHttpServletResponse whole = new InMemoryHttpServletResponse(wholeBody);
+            manager.download(jobId, ServletStubs.request(Collections.emptyMap()), whole);
+            assertEquals(file.length(), wholeBody.size());
+
+            //模拟一个进行中的下载
+            assertTrue(job.acquireDownload());
+            assertTrue(manager.remove(jobId));
+            assertTrue(file.exists());
+            final ByteArrayOutputStream removedBody = new ByteArrayOutputStream();
+            final InMemoryHttpServletResponse removed = new InMemoryHttpServletResponse(removedBody);
+            manager.download(jobId, ServletStubs.request(Collections.emptyMap()), removed);
+            assertEquals(HttpServletResponse.SC_NOT_FOUND, removed.getStatus());
+            assertFalse(job.acquireDownload());
+            assertTrue(job.releaseDownload());
+        }
+    }
+}
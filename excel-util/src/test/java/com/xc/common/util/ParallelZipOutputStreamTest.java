@@ -0,0 +1,217 @@
+package com.xc.common.util;
+
+import com.xc.common.util.test.InMemoryHttpServletResponse;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Jq
+ * @Title ParallelZipOutputStreamTest
+ * @Description STORED、多线程分块压缩与共享线程池输出的zip可被标准实现完整读回，条目内容、大小与CRC一致
+ * @date 2026/10/19 16:38:52
+ */
+public class ParallelZipOutputStreamTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void storedEntriesAreReadable() throws Exception {
+        final Map<String, byte[]> entries = entries();
+        final byte[] zip = write(entries, ParallelZipOutputStream.STORE, 1, new SpillManager(folder.getRoot(), 0, 0));
+        assertEquals(entries.keySet(), read(zip, ZipEntry.STORED, entries));
+    }
+
+    @Test
+    public void multiThreadDeflateIsReadable() throws Exception {
+        final Map<String, byte[]> entries = entries();
+        final byte[] zip = write(entries, Deflater.DEFAULT_COMPRESSION, 4, new SpillManager(folder.getRoot(), 0, 0));
+        assertEquals(entries.keySet(), read(zip, ZipEntry.DEFLATED, entries));
+    }
+
+    /**
+     * 共享线程池在多次打包间复用，打包结束后不被关闭
+     */
+    @Test
+    public void sharedExecutorIsReusedAndLeftOpen() throws Exception {
+        final Map<String, byte[]> entries = entries();
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            for (int i = 0; i < 2; i++) {
+                final byte[] zip = write(entries, Deflater.BEST_SPEED, 4, executor, new SpillManager(folder.getRoot(), 0, 0));
+                assertEquals(entries.keySet(), read(zip, ZipEntry.DEFLATED, entries));
+                assertFalse(executor.isShutdown());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * 压缩后超过内存上限的条目转存到临时文件，输出后删除
+     */
+    @Test
+    public void largeEntrySpillsAndCleansUp() throws Exception {
+        final File directory = folder.newFolder("spill");
+        final SpillManager spillManager = new SpillManager(directory, 0, 0);
+        final Map<String, byte[]> entries = new LinkedHashMap<>();
+        entries.put("random.bin", random(6 * 1024 * 1024, 7));
+        final byte[] zip = write(entries, Deflater.BEST_SPEED, 3, spillManager);
+        assertEquals(entries.keySet(), read(zip, ZipEntry.DEFLATED, entries));
+        assertTrue(spillManager.getBytesWritten() > 0);
+        assertEquals(0, spillManager.getUsedBytes());
+        assertEquals(0, spillManager.getActiveFiles());
+        final String[] left = directory.list();
+        assertTrue(left == null || left.length == 0);
+    }
+
+    @Test
+    public void multiThreadExportOpensInPoi() throws Exception {
+        final List<String[]> rows = new ArrayList<>();
+        for (int i = 0; i < 20000; i++) {
+            rows.add(new String[]{"name" + i, String.valueOf(i)});
+        }
+        for (final ExportEngine engine : ExportEngine.values()) {
+            final ByteArrayOutputStream body = new ByteArrayOutputStream();
+            final InMemoryHttpServletResponse response = new InMemoryHttpServletResponse(body);
+            ExcelUtil.export("zip", SheetTemplate.of(new String[]{"name", "value"}, null, null),
+                    rows.stream().map(Row::new).iterator(), "s", response,
+                    ExportOptions.builder().engine(engine).compressionThreads(4).build());
+            try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(body.toByteArray()))) {
+                final Sheet sheet = workbook.getSheetAt(0);
+                assertEquals(engine.name(), 20000, sheet.getLastRowNum());
+                assertEquals("name19999", sheet.getRow(20000).getCell(0).getStringCellValue());
+            }
+        }
+    }
+
+    public static class Row {
+
+        private final String name;
+
+        private final String value;
+
+        Row(final String[] values) {
+            this.name = values[0];
+            this.value = values[1];
+        }
+    }
+
+    /**
+     * 空条目、小于一块、跨多块的可压缩文本与不可压缩数据
+     */
+    private static Map<String, byte[]> entries() {
+        final Map<String, byte[]> entries = new LinkedHashMap<>();
+        entries.put("empty.txt", new byte[0]);
+        entries.put("small.xml", "<a>小</a>".getBytes(StandardCharsets.UTF_8));
+        final StringBuilder text = new StringBuilder();
+        for (int i = 0; text.length() < 1024 * 1024; i++) {
+            text.append("<row r=\"").append(i).append("\"><c t=\"inlineStr\"><is><t>value ").append(i % 97).append("</t></is></c></row>");
+        }
+        entries.put("xl/worksheets/sheet1.xml", text.toString().getBytes(StandardCharsets.UTF_8));
+        entries.put("random.bin", random(600 * 1024, 1));
+        return entries;
+    }
+
+    private static byte[] random(final int length, final long seed) {
+        final byte[] data = new byte[length];
+        new Random(seed).nextBytes(data);
+        return data;
+    }
+
+    private static byte[] write(final Map<String, byte[]> entries, final int level, final int threads,
+                                final SpillManager spillManager) throws Exception {
+        return write(entries, level, threads, null, spillManager);
+    }
+
+    private static byte[] write(final Map<String, byte[]> entries, final int level, final int threads,
+                                final Executor executor, final SpillManager spillManager) throws Exception {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ZipArchiveOutputStream zip = ParallelZipOutputStream.open(out, level, threads, executor, spillManager)) {
+            assertTrue(zip instanceof ParallelZipOutputStream);
+            for (final Map.Entry<String, byte[]> entry : entries.entrySet()) {
+                zip.putArchiveEntry(new ZipArchiveEntry(entry.getKey()));
+                //分多次写入，覆盖块边界
+                final byte[] data = entry.getValue();
+                for (int offset = 0; offset < data.length; offset += 100000) {
+                    zip.write(data, offset, Math.min(100000, data.length - offset));
+                }
+                zip.closeArchiveEntry();
+            }
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * @return 读到的条目名
+     */
+    private static List<String> readNames(final byte[] zip) throws Exception {
+        final List<String> names = new ArrayList<>();
+        try (ZipInputStream in = new ZipInputStream(new ByteArrayInputStream(zip))) {
+            for (ZipEntry entry = in.getNextEntry(); entry != null; entry = in.getNextEntry()) {
+                names.add(entry.getName());
+            }
+        }
+        return names;
+    }
+
+    private static Set<String> read(final byte[] zip, final int method, final Map<String, byte[]> expected) throws Exception {
+        final Map<String, byte[]> actual = new LinkedHashMap<>();
+        try (ZipInputStream in = new ZipInputStream(new ByteArrayInputStream(zip))) {
+            for (ZipEntry entry = in.getNextEntry(); entry != null; entry = in.getNextEntry()) {
+                assertEquals(entry.getName(), method, entry.getMethod());
+                final byte[] data = readAll(in);
+                final CRC32 crc = new CRC32();
+                crc.update(data);
+                assertEquals(entry.getName(), crc.getValue(), entry.getCrc());
+                assertEquals(entry.getName(), data.length, entry.getSize());
+                assertFalse(entry.getName(), actual.containsKey(entry.getName()));
+                actual.put(entry.getName(), data);
+            }
+        }
+        for (final Map.Entry<String, byte[]> entry : expected.entrySet()) {
+            assertArrayEquals(entry.getKey(), entry.getValue(), actual.get(entry.getKey()));
+        }
+        assertEquals(new ArrayList<>(expected.keySet()), readNames(zip));
+        return actual.keySet();
+    }
+
+    private static byte[] readAll(final InputStream in) throws Exception {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final byte[] buffer = new byte[8192];
+        int n;
+        while ((n = in.read(buffer)) > 0) {
+            out.write(buffer, 0, n);
+        }
+        return out.toByteArray();
+    }
+}
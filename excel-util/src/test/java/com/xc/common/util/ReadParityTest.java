@@ -0,0 +1,209 @@
+package com.xc.common.util;
+
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Jq
+ * @Title ReadParityTest
+ * @Description 同一份数据的xlsx按DOM、SAX读取与.xls按HSSF事件模型读取，绑定结果、多sheet与列式读取结果一致
+ * @date 2026/10/19 16:24:07
+ */
+public class ReadParityTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * 未带注解，按字段声明顺序对应列号
+     */
+    public static class Record {
+
+        private String name;
+
+        private int count;
+
+        private long id;
+
+        private Double ratio;
+
+        private boolean active;
+
+        private String note;
+
+        @Override
+        public String toString() {
+            return name + "|" + count + "|" + id + "|" + ratio + "|" + active + "|" + note;
+        }
+    }
+
+    public static class Rounded {
+
+        private int a;
+
+        private long b;
+
+        private Integer c;
+
+        private short d;
+
+        @Override
+        public String toString() {
+            return a + "|" + b + "|" + c + "|" + d;
+        }
+    }
+
+    private static final String[] HEADERS = {"name", "count", "id", "ratio", "active", "note"};
+
+    private static final Object[][] ROWS = {
+            {" alice ", 3d, 12345678901d, 0.25d, true, "n1"},
+            {"bob", "7", "9007199254740993", "1.5", false, null},
+            {null, null, null, null, null, null, "extra"},
+            {"carol", 0d, 0d, null, true},
+    };
+
+    private static final String EXPECTED = "[alice|3|12345678901|0.25|true|n1, "
+            + "bob|7|9007199254740993|1.5|false|, "
+            + "|0|0|null|false|, "
+            + "carol|0|0|null|true|]";
+
+    @Test
+    public void domSaxAndLegacyReadTheSameValues() throws Exception {
+        final File xlsx = write(new XSSFWorkbook(), "parity.xlsx");
+        final File xls = write(new HSSFWorkbook(), "parity.xls");
+        final List<Record> dom = ExcelUtil.readExcel(xlsx, Record.class);
+        assertEquals(EXPECTED, dom.toString());
+        assertEquals(dom.toString(), ExcelUtil.readExcelBySax(xlsx, Record.class).toString());
+        assertEquals(dom.toString(), ExcelUtil.readExcel(xls, Record.class).toString());
+        assertEquals(dom.toString(), ExcelUtil.readExcelBySax(xls, Record.class).toString());
+    }
+
+    @Test
+    public void columnsReadTheSameFromXlsxAndXls() throws Exception {
+        final File xlsx = write(new XSSFWorkbook(), "columns.xlsx");
+        final File xls = write(new HSSFWorkbook(), "columns.xls");
+        for (final File file : new File[]{xlsx, xls}) {
+            final ColumnBatch batch = ExcelUtil.readExcelColumns(file, ColumnSelection.create()
+                    .stringColumn("name").intColumn(1).longColumn("id").doubleColumn("ratio"));
+            //只有未选中的列有值的行不输出
+            assertEquals(file.getName(), 3, batch.getRowCount());
+            final ColumnBatch.ColumnVector name = batch.column("name");
+            assertEquals("alice", name.getString(0));
+            assertEquals("bob", name.getString(1));
+            assertEquals("carol", name.getString(2));
+            assertEquals("count", batch.column(1).getHeader());
+            assertArrayEquals(new int[]{3, 7, 0}, batch.column(1).getInts());
+            assertArrayEquals(new long[]{12345678901L, 9007199254740993L, 0L}, batch.getLongs("id"));
+            assertArrayEquals(new double[]{0.25d, 1.5d, 0d}, batch.getDoubles("ratio"), 0d);
+            assertTrue(batch.column("ratio").isNull(2));
+        }
+    }
+
+    @Test
+    public void sheetsReadTheSameFromXlsxAndXls() throws Exception {
+        final File xlsx = write(new XSSFWorkbook(), "sheets.xlsx", "first", "second");
+        final File xls = write(new HSSFWorkbook(), "sheets.xls", "first", "second");
+        for (final File file : new File[]{xlsx, xls}) {
+            final List<SheetImportResult<?>> results = ExcelUtil.readExcelSheets(file,
+                    Arrays.asList(SheetImport.of("second", Record.class), SheetImport.of(0, Record.class), SheetImport.of(2, Record.class)));
+            assertEquals("second", results.get(0).getSheetName());
+            assertEquals(EXPECTED, results.get(0).getRows().toString());
+            assertEquals("first", results.get(1).getSheetName());
+            assertEquals(EXPECTED, results.get(1).getRows().toString());
+            assertFalse(results.get(2).isSuccess());
+        }
+        assertTrue(ExcelUtil.readExcelSheets(xls, null, Runnable::run).isEmpty());
+    }
+
+    @Test
+    public void numericCellsRoundHalfEvenIntoIntegralFields() throws Exception {
+        final double[][] values = {{2.6d, 2.5d, 3.5d, -2.6d}, {0.4d, 12345678900.5d, -0.5d, 7.49d}};
+        final String expected = "[3|2|4|-3, 0|12345678900|0|7]";
+        for (final Workbook workbook : new Workbook[]{new XSSFWorkbook(), new HSSFWorkbook()}) {
+            final File file = folder.newFile("rounded" + (workbook instanceof HSSFWorkbook ? ".xls" : ".xlsx"));
+            try (Workbook wb = workbook; OutputStream out = new FileOutputStream(file)) {
+                final Sheet sheet = wb.createSheet("s");
+                final Row header = sheet.createRow(0);
+                for (int c = 0; c < 4; c++) {
+                    header.createCell(c).setCellValue("h" + c);
+                }
+                for (int r = 0; r < values.length; r++) {
+                    final Row row = sheet.createRow(r + 1);
+                    for (int c = 0; c < values[r].length; c++) {
+                        row.createCell(c).setCellValue(values[r][c]);
+                    }
+                }
+                wb.write(out);
+            }
+            assertEquals(file.getName(), expected, ExcelUtil.readExcel(file, Rounded.class).toString());
+            assertEquals(file.getName(), expected, ExcelUtil.readExcelBySax(file, Rounded.class).toString());
+        }
+    }
+
+    @Test
+    public void columnsMatchNumericHeadersAndRejectIntOverflow() throws Exception {
+        for (final Workbook workbook : new Workbook[]{new XSSFWorkbook(), new HSSFWorkbook()}) {
+            final File file = folder.newFile("year" + (workbook instanceof HSSFWorkbook ? ".xls" : ".xlsx"));
+            try (Workbook wb = workbook; OutputStream out = new FileOutputStream(file)) {
+                final Sheet sheet = wb.createSheet("s");
+                sheet.createRow(0).createCell(0).setCellValue(2024d);
+                sheet.createRow(1).createCell(0).setCellValue(2.6d);
+                sheet.createRow(2).createCell(0).setCellValue(3e9d);
+                wb.write(out);
+            }
+            final ColumnBatch longs = ExcelUtil.readExcelColumns(file, ColumnSelection.create().longColumn("2024"));
+            assertArrayEquals(file.getName(), new long[]{3L, 3000000000L}, longs.getLongs("2024"));
+            //超出int范围与文本一样报错，失败时返回空结果
+            final ColumnBatch ints = ExcelUtil.readExcelColumns(file, ColumnSelection.create().intColumn("2024"));
+            assertEquals(file.getName(), 0, ints.getRowCount());
+        }
+    }
+
+    private File write(final Workbook workbook, final String name, final String... sheetNames) throws Exception {
+        final File file = folder.newFile(name);
+        try (Workbook wb = workbook; OutputStream out = new FileOutputStream(file)) {
+            for (final String sheetName : sheetNames.length == 0 ? new String[]{"s"} : sheetNames) {
+                fill(wb.createSheet(sheetName));
+            }
+            wb.write(out);
+        }
+        return file;
+    }
+
+    private static void fill(final Sheet sheet) {
+        final Row header = sheet.createRow(0);
+        for (int i = 0; i < HEADERS.length; i++) {
+            header.createCell(i).setCellValue(HEADERS[i]);
+        }
+        for (int r = 0; r < ROWS.length; r++) {
+            final Row row = sheet.createRow(r + 1);
+            for (int c = 0; c < ROWS[r].length; c++) {
+                final Object value = ROWS[r][c];
+                if (value instanceof Double) {
+                    row.createCell(c).setCellValue((Double) value);
+                } else if (value instanceof Boolean) {
+                    row.createCell(c).setCellValue((Boolean) value);
+                } else if (value != null) {
+                    row.createCell(c).setCellValue(value.toString());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.xc.common.util;
+
+import javax.servlet.http.HttpServletRequest;
+import java.lang.reflect.Proxy;
+import java.util.Map;
+
+/**
+ * @author Jq
+ * @Title ServletStubs
+ * @Description 测试用的请求，只带给定的请求头；响应使用excel-util-test-support中与基准测试共用的InMemoryHttpServletResponse
+ * @date 2026/10/19 16:02:18
+ */
+final class ServletStubs {
+
+    private ServletStubs() {
+
+    }
+
+    /**
+     * 只返回给定的请求头
+     */
+    static HttpServletRequest request(final Map<String, String> headers) {
+        return (HttpServletRequest) Proxy.newProxyInstance(ServletStubs.class.getClassLoader(),
+                new Class<?>[]{HttpServletRequest.class}, (proxy, method, args) -> {
+                    if ("getHeader".equals(method.getName())) {
+                        return headers.get(String.valueOf(args[0]));
+                    }
+                    if (method.getReturnType() == boolean.class) {
+                        return false;
+                    }
+                    if (method.getReturnType() == int.class) {
+                        return 0;
+                    }
+                    if (method.getReturnType() == long.class) {
+                        return -1L;
+                    }
+                    return null;
+                });
+    }
+}
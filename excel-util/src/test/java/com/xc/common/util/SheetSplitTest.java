@@ -0,0 +1,107 @@
+package com.xc.common.util;
+
+import com.xc.common.util.test.InMemoryHttpServletResponse;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Jq
+ * @Title SheetSplitTest
+ * @Description 数据行超过maxRowsPerSheet时续写到"原名(2)"等新sheet，每个sheet带标题与表头，展开的一条数据不跨sheet
+ * @date 2026/10/19 17:26:05
+ */
+public class SheetSplitTest {
+
+    private static final int MAX_ROWS = 10;
+
+    public static class Detail {
+
+        private final String sku;
+
+        Detail(final String sku) {
+            this.sku = sku;
+        }
+    }
+
+    public static class Entry {
+
+        private final String name;
+
+        private final List<Detail> details;
+
+        Entry(final int i, final int details) {
+            this.name = "n" + i;
+            this.details = new ArrayList<>();
+            for (int k = 0; k < details; k++) {
+                this.details.add(new Detail("s" + i + "-" + k));
+            }
+        }
+    }
+
+    @Test
+    public void sxssfSplitsAtMaxRows() throws Exception {
+        assertSplit(ExportEngine.SXSSF);
+    }
+
+    @Test
+    public void directSplitsAtMaxRows() throws Exception {
+        assertSplit(ExportEngine.DIRECT);
+    }
+
+    @Test
+    public void expandedRecordIsNotSplit() throws Exception {
+        for (final ExportEngine engine : ExportEngine.values()) {
+            //标题与表头占2行，每个sheet最多8行数据；每条数据展开为3行，第3条放不下时整体移到下一个sheet
+            final List<Entry> entries = Arrays.asList(new Entry(0, 3), new Entry(1, 3), new Entry(2, 3), new Entry(3, 1));
+            try (XSSFWorkbook workbook = export(engine, SheetTemplate.of(new String[]{"name", "sku"}, "title", null)
+                    .withExpandRows(true), entries)) {
+                assertEquals(2, workbook.getNumberOfSheets());
+                assertEquals(engine.name(), 7, workbook.getSheetAt(0).getLastRowNum());
+                assertEquals("n2", workbook.getSheetAt(1).getRow(2).getCell(0).getStringCellValue());
+                assertEquals("n3", workbook.getSheetAt(1).getRow(5).getCell(0).getStringCellValue());
+            }
+        }
+    }
+
+    private static void assertSplit(final ExportEngine engine) throws Exception {
+        final List<Entry> entries = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            entries.add(new Entry(i, 0));
+        }
+        try (XSSFWorkbook workbook = export(engine, SheetTemplate.of(new String[]{"name"}, null, null), entries)) {
+            assertEquals(3, workbook.getNumberOfSheets());
+            assertEquals("订单", workbook.getSheetName(0));
+            assertEquals("订单(2)", workbook.getSheetName(1));
+            assertEquals("订单(3)", workbook.getSheetName(2));
+            //表头占1行，每个sheet最多9行数据
+            final int[] lastRowNums = {9, 9, 7};
+            int next = 0;
+            for (int i = 0; i < lastRowNums.length; i++) {
+                final Sheet sheet = workbook.getSheetAt(i);
+                assertEquals(lastRowNums[i], sheet.getLastRowNum());
+                assertEquals("name", sheet.getRow(0).getCell(0).getStringCellValue());
+                for (int r = 1; r <= sheet.getLastRowNum(); r++) {
+                    assertEquals("n" + next++, sheet.getRow(r).getCell(0).getStringCellValue());
+                }
+            }
+        }
+    }
+
+    private static XSSFWorkbook export(final ExportEngine engine, final SheetTemplate template, final List<Entry> entries)
+            throws Exception {
+        final ByteArrayOutputStream body = new ByteArrayOutputStream();
+        final InMemoryHttpServletResponse response = new InMemoryHttpServletResponse(body);
+        ExcelUtil.export("split", template, entries.iterator(), "订单", response,
+                ExportOptions.builder().engine(engine).maxRowsPerSheet(MAX_ROWS).build());
+        return new XSSFWorkbook(new ByteArrayInputStream(body.toByteArray()));
+    }
+}
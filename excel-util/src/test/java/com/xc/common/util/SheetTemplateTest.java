@@ -0,0 +1,62 @@
+package com.xc.common.util;
+
+import org.apache.poi.ss.util.CellRangeAddress;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Jq
+ * @Title SheetTemplateTest
+ * @Description 模板的复制方法保留其余设置，按类生成的展开表头不能退回平铺
+ * @date 2026/10/19 18:20:37
+ */
+public class SheetTemplateTest {
+
+    public static class Line {
+
+        private String sku;
+
+        private int quantity;
+    }
+
+    public static class Order {
+
+        private String code;
+
+        private List<Line> lines = new ArrayList<>();
+    }
+
+    @Test
+    public void classHeadersExpandCollectionsAndStayInExpandMode() {
+        final SheetTemplate template = SheetTemplate.of(Order.class, null, null);
+        assertArrayEquals(new String[]{"code", "sku", "quantity"}, template.getHeaders());
+        assertTrue(template.isExpandRows());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void expandedHeadersRejectFlattenedRows() {
+        SheetTemplate.of(Order.class, null, null).withExpandRows(false);
+    }
+
+    @Test
+    public void mergedRegionsKeepOtherSettings() {
+        final SheetTemplate template = SheetTemplate.of(Order.class, "title", null)
+                .withColumnWidths(2560, 5120)
+                .withTypedCells(true);
+        final SheetSpec<Order> spec = SheetSpec.of("s", template, Collections::<Order>emptyIterator)
+                .cellRangeAddressList(Collections.singletonList(new CellRangeAddress(1, 2, 0, 0)));
+        final SheetTemplate merged = spec.getTemplate();
+        assertTrue(merged.isExpandRows());
+        assertTrue(merged.isTypedCells());
+        assertArrayEquals(new int[]{2560, 5120}, merged.columnWidths());
+        assertEquals(2, merged.getMergedRegions().size());
+        assertEquals(1, template.getMergedRegions().size());
+    }
+}